@@ -3,15 +3,28 @@ package es.us.isa.restest.configuration;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.dataformat.yaml.YAMLGenerator;
 import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
 
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.specification.OpenAPISpecification;
+import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.PathItem;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -26,16 +39,36 @@ public class TestConfigurationIO {
 
 	private static Logger logger = LogManager.getLogger(TestConfigurationIO.class);
 
+	private static final Cache<Path, LoadedConfiguration> loadedConfigurations = CacheBuilder.newBuilder().softValues().build(); // Indexed by absolute path
+
 	private TestConfigurationIO() {
 	}
 
 	/**
-	 * Load test configuration file in YAML format
+	 * Load test configuration file in YAML format. The file is parsed only if it was not loaded before
+	 * for the same specification, or if its content changed since then, so the configuration returned
+	 * may be shared with other callers and must not be modified.
 	 * @param path The path where the test configuration file is located
 	 * @param spec The OpenAPI specification related to the test configuration file
 	 * @return the test configuration as an object
 	 */
 	public static TestConfigurationObject loadConfiguration(String path, OpenAPISpecification spec) {
+		Path file = Paths.get(path).toAbsolutePath().normalize();
+		OpenAPI specification = spec != null ? spec.getSpecification() : null;
+		LoadedConfiguration loaded = loadedConfigurations.getIfPresent(file);
+		FileState fileState;
+		try {
+			fileState = new FileState(file, loaded != null && loaded.specification == specification ? loaded.fileState : null);
+		} catch (IOException e) {
+			logger.error("Error parsing configuration file: {}", e.getMessage());
+			return null;
+		}
+
+		if (loaded != null && loaded.specification == specification && fileState.equals(loaded.fileState)) {
+			loaded.fileState = fileState;		// Checked later than before, so it may not need to be hashed again
+			return loaded.conf;
+		}
+
 		YAMLMapper mapper = new YAMLMapper();
 		TestConfigurationObject conf = null;
 		try {
@@ -64,6 +97,7 @@ public class TestConfigurationIO {
 				}
 			});
 
+			loadedConfigurations.put(file, new LoadedConfiguration(conf, fileState, specification));
 		} catch (Exception e) {
 			logger.error("Error parsing configuration file: {}", e.getMessage());
 		}
@@ -71,6 +105,23 @@ public class TestConfigurationIO {
 		return conf;
 	}
 
+	/**
+	 * Read the paths of the operations of a test configuration file in YAML format, without loading it
+	 * @param path The path where the test configuration file is located
+	 * @return the paths of the operations, or null if the file cannot be read
+	 */
+	public static Set<String> readTestPaths(String path) {
+		try {
+			Set<String> testPaths = new LinkedHashSet<>();
+			new YAMLMapper().readTree(new File(path)).path("testConfiguration").path("operations")
+					.forEach(x -> testPaths.add(x.path("testPath").asText()));
+			return testPaths;
+		} catch (IOException e) {
+			logger.error("Error parsing configuration file: {}", e.getMessage());
+			return null;
+		}
+	}
+
 	public static String toString(TestConfigurationObject conf) {
 		ObjectMapper mapper = new ObjectMapper();
 		String jsonConf = null;
@@ -104,4 +155,58 @@ public class TestConfigurationIO {
 			logger.error("Error converting configuration object to a file: {}", e.getMessage());
 		}
 	}
+
+	// Configuration loaded from a file, bound to the operations of a specification
+	private static class LoadedConfiguration {
+		private final TestConfigurationObject conf;
+		private volatile FileState fileState;
+		private final OpenAPI specification;
+
+		private LoadedConfiguration(TestConfigurationObject conf, FileState fileState, OpenAPI specification) {
+			this.conf = conf;
+			this.fileState = fileState;
+			this.specification = specification;
+		}
+	}
+
+	/*
+	 * State of a file, to detect whether its content changed. The modification time and size are checked first,
+	 * and the content is only hashed if they did not change and the file was modified shortly before it was last
+	 * checked: it could have been modified again afterwards without changing its modification time, whose
+	 * granularity depends on the file system (as the "racily clean" entries of Git).
+	 */
+	private static class FileState {
+		private static final long RACY_INTERVAL = 2000;		// Maximum granularity of modification times (in milliseconds)
+
+		private final long lastModified;
+		private final long size;
+		private final long checkTime;					// When the file was checked
+		private final HashCode contentHash;				// Reused from the previous state if the content was not hashed again
+
+		private FileState(Path file, FileState previous) throws IOException {
+			this.checkTime = System.currentTimeMillis();
+			BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+			this.lastModified = attributes.lastModifiedTime().toMillis();
+			this.size = attributes.size();
+			boolean sameAttributes = previous != null && previous.lastModified == lastModified && previous.size == size;
+			this.contentHash = !sameAttributes || previous.isRacy() ? MoreFiles.asByteSource(file).hash(Hashing.sha256()) : previous.contentHash;
+		}
+
+		private boolean isRacy() {
+			return lastModified >= checkTime - RACY_INTERVAL;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof FileState))
+				return false;
+			FileState other = (FileState) o;
+			return lastModified == other.lastModified && size == other.size && Objects.equals(contentHash, other.contentHash);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(lastModified, size);
+		}
+	}
 }
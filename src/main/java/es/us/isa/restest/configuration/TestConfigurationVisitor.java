@@ -1,10 +1,17 @@
 package es.us.isa.restest.configuration;
 
+import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import es.us.isa.restest.configuration.pojos.GenParameter;
+import es.us.isa.restest.configuration.pojos.ModificationCounter;
 import es.us.isa.restest.configuration.pojos.Operation;
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.configuration.pojos.TestParameter;
@@ -15,6 +22,14 @@ import es.us.isa.restest.configuration.pojos.TestParameter;
  */
 public class TestConfigurationVisitor {
 
+	// Indexes of the lists of operations and parameters of test configurations, built the first time they are searched.
+	// They are only checked again when elements are added or removed, or when a configuration is modified through
+	// its setters (see ModificationCounter). Elements replaced by others created before the last search are not detected
+	private static final LoadingCache<List<Operation>, OperationIndex> operationIndexes =
+			CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(OperationIndex::new));
+	private static final LoadingCache<List<TestParameter>, ParameterIndex> parameterIndexes =
+			CacheBuilder.newBuilder().weakKeys().build(CacheLoader.from(ParameterIndex::new));
+
 	private TestConfigurationVisitor() {}
 
 	/**
@@ -25,7 +40,7 @@ public class TestConfigurationVisitor {
 	 * @return Operation
 	 */
 	public static Operation getOperation(TestConfigurationObject conf, String path, String method) {
-		List<Operation> operationsOfPath = getOperationsOfTestPath(conf, path);
+		List<Operation> operationsOfPath = getIndexedOperationsOfTestPath(conf, path);
 		
 		return getTestOperation(operationsOfPath, method);
 	}
@@ -60,11 +75,13 @@ public class TestConfigurationVisitor {
 	 * @return Path test configuration object
 	 */
 	public static List<Operation> getOperationsOfTestPath(TestConfigurationObject conf, String path) {
-		List<Operation> ops = conf.getTestConfiguration().getOperations().stream()
-				.filter(x -> x.getTestPath().equalsIgnoreCase(path))
-				.collect(Collectors.toList());
+		return new ArrayList<>(getIndexedOperationsOfTestPath(conf, path));
+	}
+
+	private static List<Operation> getIndexedOperationsOfTestPath(TestConfigurationObject conf, String path) {
+		List<Operation> ops = path != null ? getOperationIndex(conf).operationsByPath.get(path) : null;
 
-		if(ops.isEmpty()) {
+		if(ops == null) {
 			throw new IllegalArgumentException("Path <" + path + "> does not exist in test configuration file");
 		}
 
@@ -95,19 +112,7 @@ public class TestConfigurationVisitor {
 	 * @return Operation
 	 */
 	public static Operation getTestOperation(TestConfigurationObject conf, String operationId) {
-		Operation operation=null;
-		boolean found =false;
-		
-		Iterator<Operation> itOp = conf.getTestConfiguration().getOperations().iterator();
-		while (itOp.hasNext() && !found) {
-			Operation op = itOp.next();
-			if (op.getOperationId().equalsIgnoreCase(operationId)) {
-				operation=op;
-				found=true;
-			}
-		}
-
-		return operation;
+		return operationId != null ? getOperationIndex(conf).operationsById.get(operationId) : null;
 	}
 	
 	/** Search a generator's configuration parameter in a list of parameters (or null if it does not exist)
@@ -139,20 +144,12 @@ public class TestConfigurationVisitor {
 	 * @return Test configuration parameter
 	 */
 	public static TestParameter searchTestParameter(String paramName, List<TestParameter> testParameters) {
-		TestParameter parameter = null;
-		boolean found = false;
-		
-		Iterator<TestParameter> it =testParameters.iterator();
-		while (it.hasNext() && !found) {
-			TestParameter param = it.next();
-			if (param.getName().equalsIgnoreCase(paramName)) {
-				parameter = param;
-				found = true;
-			}
+		ParameterIndex index = parameterIndexes.getUnchecked(testParameters);
+		if (!index.isUpToDate(testParameters)) {		// Parameters added, replaced, removed or renamed since the list was indexed
+			index = new ParameterIndex(testParameters);
+			parameterIndexes.put(testParameters, index);
 		}
-		
-		
-		return parameter;
+		return paramName != null ? index.parameters.get(paramName) : null;
 	}
 
 	/**
@@ -198,4 +195,83 @@ public class TestConfigurationVisitor {
 		}
 	}
 
+	private static OperationIndex getOperationIndex(TestConfigurationObject conf) {
+		List<Operation> operations = conf.getTestConfiguration().getOperations();
+		OperationIndex index = operationIndexes.getUnchecked(operations);
+		if (!index.isUpToDate(operations)) {			// Operations added, replaced, removed or renamed since the list was indexed
+			index = new OperationIndex(operations);
+			operationIndexes.put(operations, index);
+		}
+		return index;
+	}
+
+	// Operations indexed by path and operationId (case insensitive), in the order of the test configuration
+	private static class OperationIndex {
+		private final List<Operation> operations;		// Operations indexed, with their paths and operationIds when indexed
+		private final List<String> keys = new ArrayList<>();
+		private final Map<String, List<Operation>> operationsByPath = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		private final Map<String, Operation> operationsById = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		private volatile long checkedModifications;		// Value of the modification counter when the index was last checked
+
+		private OperationIndex(List<Operation> operations) {
+			this.checkedModifications = ModificationCounter.get();
+			this.operations = new ArrayList<>(operations);
+			for (Operation operation: operations) {
+				keys.add(operation.getTestPath());
+				keys.add(operation.getOperationId());
+				if (operation.getTestPath() != null)
+					operationsByPath.computeIfAbsent(operation.getTestPath(), p -> new ArrayList<>()).add(operation);
+				if (operation.getOperationId() != null)
+					operationsById.putIfAbsent(operation.getOperationId(), operation);
+			}
+		}
+
+		private boolean isUpToDate(List<Operation> operations) {
+			if (operations.size() != this.operations.size())
+				return false;
+			long modifications = ModificationCounter.get();
+			if (modifications == checkedModifications)
+				return true;
+			for (int i = 0; i < operations.size(); i++) {
+				Operation operation = operations.get(i);
+				if (operation != this.operations.get(i) || !Objects.equals(operation.getTestPath(), keys.get(2*i)) || !Objects.equals(operation.getOperationId(), keys.get(2*i + 1)))
+					return false;
+			}
+			checkedModifications = modifications;
+			return true;
+		}
+	}
+
+	// Parameters indexed by name (case insensitive). The first parameter with each name is kept
+	private static class ParameterIndex {
+		private final List<TestParameter> testParameters;	// Parameters indexed, with their names when indexed
+		private final List<String> names = new ArrayList<>();
+		private final Map<String, TestParameter> parameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		private volatile long checkedModifications;		// Value of the modification counter when the index was last checked
+
+		private ParameterIndex(List<TestParameter> testParameters) {
+			this.checkedModifications = ModificationCounter.get();
+			this.testParameters = new ArrayList<>(testParameters);
+			for (TestParameter parameter: testParameters) {
+				names.add(parameter.getName());
+				if (parameter.getName() != null)
+					parameters.putIfAbsent(parameter.getName(), parameter);
+			}
+		}
+
+		private boolean isUpToDate(List<TestParameter> testParameters) {
+			if (testParameters.size() != this.testParameters.size())
+				return false;
+			long modifications = ModificationCounter.get();
+			if (modifications == checkedModifications)
+				return true;
+			for (int i = 0; i < testParameters.size(); i++) {
+				TestParameter parameter = testParameters.get(i);
+				if (parameter != this.testParameters.get(i) || !Objects.equals(parameter.getName(), names.get(i)))
+					return false;
+			}
+			checkedModifications = modifications;
+			return true;
+		}
+	}
 }
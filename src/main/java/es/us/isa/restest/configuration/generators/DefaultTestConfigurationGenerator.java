@@ -3,6 +3,10 @@ package es.us.isa.restest.configuration.generators;
 import java.math.BigDecimal;
 import java.util.*;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 
@@ -16,6 +20,7 @@ import es.us.isa.restest.configuration.pojos.TestConfiguration;
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.configuration.pojos.TestParameter;
 import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.util.PropertyManager;
 import io.swagger.v3.oas.models.media.*;
 import io.swagger.v3.oas.models.parameters.Parameter;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -67,6 +72,7 @@ public class DefaultTestConfigurationGenerator {
 	private static final Logger logger = LogManager.getLogger(DefaultTestConfigurationGenerator.class);
 
 	private OpenAPISpecification spec;
+	private Integer threads;			// Number of threads generating the operations (read from the property "testconf.generation.threads" if null)
 
 	public DefaultTestConfigurationGenerator(OpenAPISpecification spec) {
 		this.spec = spec;
@@ -114,32 +120,75 @@ public class DefaultTestConfigurationGenerator {
 		return conf;
 	}
 
-	// Generate the test configuration data for the target paths and operations (as indicated in the filters)
+	// Generate the test configuration data for the target paths and operations (as indicated in the filters).
+	// Operations are generated in parallel, and returned in the order of the filters and the specification
 	private List<Operation> generateOperations(Collection<TestConfigurationFilter> filters) {
 
-		List<Operation> operations = new ArrayList<>();
+		List<Entry<String, Entry<HttpMethod, io.swagger.v3.oas.models.Operation>>> operationEntries = new ArrayList<>();
 
 		for (TestConfigurationFilter filter : filters) {
 			Paths paths = spec.getSpecification().getPaths();
 			for (Entry<String, PathItem> path : paths.entrySet())
 				if (filter.getPath() == null || path.getKey().equalsIgnoreCase(filter.getPath()))
-					operations.addAll(generateOperationsOfPath(path, filter.getMethods())); // For every filter, add its
-																							// path to testConf
+					for (Entry<HttpMethod, io.swagger.v3.oas.models.Operation> operationEntry : path.getValue().readOperationsMap().entrySet())
+						if (filter.getMethods().contains(operationEntry.getKey())) // Generate only filtered methods
+							operationEntries.add(new AbstractMap.SimpleEntry<>(path.getKey(), operationEntry));
+		}
+
+		int numberOfThreads = getNumberOfThreads(operationEntries.size());
+		if (numberOfThreads == 1) {
+			List<Operation> operations = new ArrayList<>();
+			for (Entry<String, Entry<HttpMethod, io.swagger.v3.oas.models.Operation>> operationEntry : operationEntries)
+				operations.add(generateOperation(operationEntry.getValue(), operationEntry.getKey()));
+			return operations;
 		}
-		return operations;
-	}
 
-	// Generate the test configuration data for the operations of a specific input path
-	private List<Operation> generateOperationsOfPath(Entry<String, PathItem> path, Collection<HttpMethod> methods) {
+		logger.info("Generating the configuration of {} operations using {} threads", operationEntries.size(), numberOfThreads);
+		ExecutorService executor = Executors.newFixedThreadPool(numberOfThreads);
+		try {
+			List<Future<Operation>> futureOperations = new ArrayList<>();
+			for (Entry<String, Entry<HttpMethod, io.swagger.v3.oas.models.Operation>> operationEntry : operationEntries)
+				futureOperations.add(executor.submit(() -> generateOperation(operationEntry.getValue(), operationEntry.getKey())));
+
+			List<Operation> operations = new ArrayList<>();
+			for (Future<Operation> futureOperation : futureOperations)
+				operations.add(futureOperation.get());
+			return operations;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Test configuration generation was interrupted.", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException)		// E.g., parameter types not supported
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException("There was a problem generating the test configuration.", e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+	}
 
-		List<Operation> pathOperations = new ArrayList<>();
+	/**
+	 * Number of threads used to generate the operations, set with {@link #setThreads(Integer)} or read from
+	 * the property "testconf.generation.threads" (one per available processor if it is not a positive
+	 * integer), and never higher than the number of operations.
+	 */
+	private int getNumberOfThreads(int numberOfOperations) {
+		int numberOfThreads = Runtime.getRuntime().availableProcessors();
+		String threadsProperty = threads != null ? threads.toString() : PropertyManager.readProperty("testconf.generation.threads");
+		try {
+			if (threadsProperty != null && Integer.parseInt(threadsProperty) > 0)
+				numberOfThreads = Integer.parseInt(threadsProperty);
+		} catch (NumberFormatException e) {
+			logger.warn("Property 'testconf.generation.threads' must be an integer. Using {} threads", numberOfThreads);
+		}
+		return Math.max(1, Math.min(numberOfThreads, numberOfOperations));
+	}
 
-		for (Entry<HttpMethod, io.swagger.v3.oas.models.Operation> operationEntry : path.getValue().readOperationsMap()
-				.entrySet())
-			if (methods.contains(operationEntry.getKey())) // Generate only filtered methods
-				pathOperations.add(generateOperation(operationEntry, path.getKey()));
+	public Integer getThreads() {
+		return threads;
+	}
 
-		return pathOperations;
+	public void setThreads(Integer threads) {
+		this.threads = threads;
 	}
 
 	// Generate test configuration data for a GET operation
@@ -0,0 +1,24 @@
+package es.us.isa.restest.configuration.pojos;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter of the modifications of test configurations through the setters of their lists of operations
+ * and parameters, and of the keys they are searched by (paths, operationIds and names of parameters). The
+ * indexes of test configurations are only validated again when the counter changes, see
+ * {@link es.us.isa.restest.configuration.TestConfigurationVisitor}.
+ */
+public final class ModificationCounter {
+
+    private static final AtomicLong modifications = new AtomicLong();
+
+    private ModificationCounter() {}
+
+    static void increment() {
+        modifications.incrementAndGet();
+    }
+
+    public static long get() {
+        return modifications.get();
+    }
+}
@@ -22,6 +22,7 @@ public class Operation {
 
     public void setTestPath(String testPath) {
         this.testPath = testPath;
+        ModificationCounter.increment();
     }
 
     public String getOperationId() {
@@ -30,6 +31,7 @@ public class Operation {
 
     public void setOperationId(String operationId) {
         this.operationId = operationId;
+        ModificationCounter.increment();
     }
 
     public String getMethod() {
@@ -46,6 +48,7 @@ public class Operation {
 
     public void setTestParameters(List<TestParameter> testParameters) {
         this.testParameters = testParameters;
+        ModificationCounter.increment();
     }
 
     public String getExpectedResponse() {
@@ -13,6 +13,7 @@ public class TestConfiguration {
 
     public void setOperations(List<Operation> operations) {
         this.operations = operations;
+        ModificationCounter.increment();
     }
 
 }
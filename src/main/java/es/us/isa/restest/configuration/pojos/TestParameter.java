@@ -20,6 +20,7 @@ public class TestParameter {
 
     public void setName(String name) {
         this.name = name;
+        ModificationCounter.increment();
     }
 
     public String getIn() {
@@ -14,6 +14,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.stream.Collectors;
 
 import static es.us.isa.restest.util.FileManager.deleteFile;
@@ -23,7 +28,9 @@ import static es.us.isa.restest.util.FileManager.deleteFile;
  * results. It takes as input: 1) path to OpenAPI Specification; and 2) paths to
  * a set of "test-cases*.csv" files. It is *REQUIRED* that the files containing the
  * test cases are named this way. It is also *REQUIRED* that there exists one
- * "test-results*.csv" file per "test-cases*.csv" file, named in the same way
+ * "test-results*.csv" file per "test-cases*.csv" file, named in the same way.
+ * Pairs of files are processed in parallel into partial coverage meters, which are
+ * then merged into the final coverage report.
  *
  */
 public class CoverageComputation {
@@ -37,6 +44,7 @@ public class CoverageComputation {
         File testDir;
         int batchSize = Integer.MAX_VALUE;
         CoverageMeter coverageMeter;
+        CoverageMeter aPosterioriCoverageMeter;
         List<Pair<String, String>> testCasesResultsFiles = new ArrayList<>(); // left = testCasesFile; right = testResultsFile
 
         // Validation of arguments
@@ -75,9 +83,10 @@ public class CoverageComputation {
             throw new IllegalArgumentException("The specified path is not a directory or does not exist.", e);
         }
 
-        // Load CoverageMeter
+        // Load CoverageMeters (a priori and a posteriori)
         try {
             coverageMeter = new CoverageMeter(new CoverageGatherer(spec));
+            aPosterioriCoverageMeter = new CoverageMeter(new CoverageGatherer(spec));
         } catch (Exception e) {
             throw new IllegalStateException("There was a problem loading the CoverageMeter. The OAS may be too complex.", e);
         }
@@ -94,16 +103,30 @@ public class CoverageComputation {
                 testCasesResultsFiles.add(Pair.with(testDir.getPath() + "/" + testCasesFile, testDir.getPath() + "/" + testResultsFile));
         }
 
-        // Add test cases and test results to coverageMeter progressively
-        int i = 1;
-        int total = testCasesResultsFiles.size();
-        logger.info("Computing coverage");
-        for (Pair<String, String> testCasesResultsFile: testCasesResultsFiles) {
-            Collection<TestCase> testSuite = TestManager.getTestCases(testCasesResultsFile.getValue0());
-            Collection<TestResult> testResults = TestManager.getTestResults(testCasesResultsFile.getValue1());
-            coverageMeter.addTestSuite(testSuite);
-            coverageMeter.addTestResults(testResults, testSuite);
-            logger.info("Progress: {}/{}", i++, total);
+        // Compute partial coverage of every pair of files in parallel (map) and merge it progressively (reduce)
+        int threads = getNumberOfThreads(testCasesResultsFiles.size());
+        logger.info("Computing coverage using {} threads", threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CompletionService<Pair<CoverageMeter, CoverageMeter>> completionService = new ExecutorCompletionService<>(executor);
+        int finalBatchSize = batchSize;
+        for (Pair<String, String> testCasesResultsFile: testCasesResultsFiles)
+            completionService.submit(() -> computePartialCoverage(spec, testCasesResultsFile, finalBatchSize));
+
+        try {
+            int total = testCasesResultsFiles.size();
+            for (int i = 1; i <= total; i++) {
+                Pair<CoverageMeter, CoverageMeter> partialCoverage = completionService.take().get();
+                coverageMeter.merge(partialCoverage.getValue0());
+                aPosterioriCoverageMeter.merge(partialCoverage.getValue1());
+                logger.info("Progress: {}/{}", i, total);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Coverage computation was interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("There was a problem computing the coverage of the test cases and test results.", e.getCause());
+        } finally {
+            executor.shutdownNow();
         }
 
         // Export coverage to CSV (both a priori and a posteriori)
@@ -116,10 +139,43 @@ public class CoverageComputation {
         logger.info("Generating coverage a priori");
         exportCoverageReport(coverageMeter, aPrioriCoveragePath);
         logger.info("Generating coverage a posteriori");
-        exportCoverageReport(coverageMeter.getAPosteriorCoverageMeter(batchSize), aPosterioriCoveragePath);
+        exportCoverageReport(aPosterioriCoverageMeter, aPosterioriCoveragePath);
         logger.info("Coverage files generated in path {}", testDirPath);
     }
 
+    /**
+     * Computes the coverage achieved by a single pair of test cases and test results files. The
+     * partial results of all pairs can be merged in any order, since the a posteriori coverage of
+     * a test case only depends on its own test result.
+     *
+     * @return Pair of CoverageMeters: a priori (left) and a posteriori (right)
+     */
+    private static Pair<CoverageMeter, CoverageMeter> computePartialCoverage(OpenAPISpecification spec, Pair<String, String> testCasesResultsFile, int batchSize) {
+        CoverageMeter partialCoverageMeter = new CoverageMeter(new CoverageGatherer(spec));
+        Collection<TestCase> testSuite = TestManager.getTestCases(testCasesResultsFile.getValue0());
+        Collection<TestResult> testResults = TestManager.getTestResults(testCasesResultsFile.getValue1());
+        partialCoverageMeter.addTestSuite(testSuite);
+        partialCoverageMeter.addTestResults(testResults, testSuite);
+        return Pair.with(partialCoverageMeter, partialCoverageMeter.getAPosteriorCoverageMeter(batchSize));
+    }
+
+    /**
+     * Number of threads used to process the pairs of files, read from the property
+     * "coverage.computation.threads" (one per available processor if it is not a
+     * positive integer), and never higher than the number of pairs of files.
+     */
+    private static int getNumberOfThreads(int numberOfFilePairs) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String threadsProperty = PropertyManager.readProperty("coverage.computation.threads");
+        try {
+            if (threadsProperty != null && Integer.parseInt(threadsProperty) > 0)
+                threads = Integer.parseInt(threadsProperty);
+        } catch (NumberFormatException e) {
+            logger.warn("Property 'coverage.computation.threads' must be an integer. Using {} threads", threads);
+        }
+        return Math.max(1, Math.min(threads, numberOfFilePairs));
+    }
+
     private static void exportCoverageReport(CoverageMeter coverageMeter, String path) {
         CoverageResults results = new CoverageResults(coverageMeter);
         results.setCoverageOfCoverageCriteriaFromCoverageMeter(coverageMeter);
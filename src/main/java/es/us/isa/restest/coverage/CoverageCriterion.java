@@ -1,12 +1,16 @@
 package es.us.isa.restest.coverage;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Class that represents a specific coverage criterion, e.g. paths,
- * parameters, etc. Keeps track of the coverage level
+ * parameters, etc. Keeps track of the coverage level. Elements can be covered
+ * concurrently (e.g., from several threads executing test cases), without locking.
  * 
  * @author Alberto Martin-Lopez
  */
@@ -14,6 +18,7 @@ public class CoverageCriterion {
 
     private CriterionType type;             // Type of coverage criterion: paths, operations, content-type, etc.
     private Map<String, Boolean> elements;  // Keys are the elements to cover and values represent whether they have already been covered or not
+    private final AtomicLong coveredElementsCount = new AtomicLong(); // Number of elements whose value is true
 
     /**
      * The following property's purpose is to locate the criterion inside the API resources hierarchy. There could be several parameter values
@@ -26,7 +31,7 @@ public class CoverageCriterion {
 
     public CoverageCriterion(CriterionType type) {
         this.type = type;
-        this.elements = new HashMap<>();
+        this.elements = new ConcurrentHashMap<>();
         this.rootPath = "";
     }
 
@@ -38,12 +43,27 @@ public class CoverageCriterion {
         this.type = type;
     }
 
+    /**
+     * @return Read-only view of the elements of this criterion. Use {@link #coverElement(String)}
+     * to cover them
+     */
     public Map<String, Boolean> getElements() {
-        return elements;
+        return Collections.unmodifiableMap(elements);
     }
 
+    /**
+     * Set the elements of this criterion. Null elements are ignored, since they can never be covered.
+     * @param elements Map whose keys are the elements to cover and whose values represent whether they
+     *                 have already been covered or not
+     */
     public void setElements(Map<String, Boolean> elements) {
-        this.elements = elements;
+        Map<String, Boolean> newElements = new ConcurrentHashMap<>();
+        elements.forEach((element, isCovered) -> {
+            if (element != null)
+                newElements.put(element, isCovered != null && isCovered);
+        });
+        this.elements = newElements;
+        this.coveredElementsCount.set(newElements.values().stream().filter(e -> e).count());
     }
 
     public String getRootPath() {
@@ -80,18 +100,31 @@ public class CoverageCriterion {
      * @return Number of elements already covered in this criterion
      */
     public long getCoveredElementsCount() {
-        return elements.entrySet().stream()
-                .filter(e -> e.getValue())
-                .count();
+        return coveredElementsCount.get();
     }
 
     /**
-     * Set an element as covered (set value to 'true')
+     * Set an element as covered (set value to 'true'). This method is thread-safe: the element
+     * is atomically switched from 'false' to 'true', so it is counted only once.
      * @param newlyCoveredElement the element to cover
      */
     public void coverElement(String newlyCoveredElement) {
-        if (elements.get(newlyCoveredElement) != null) { // check that the element exists
-            elements.put(newlyCoveredElement, true);
+        if (newlyCoveredElement != null && elements.replace(newlyCoveredElement, false, true)) { // check that the element exists and was not covered yet
+            coveredElementsCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Cover all elements that are already covered in another criterion. Both criteria are
+     * expected to have the same type and rootPath (i.e., to come from the same specification).
+     * Merging is associative and commutative, so partial results can be merged in any order.
+     * @param other the criterion whose covered elements will be covered in this one
+     */
+    public void merge(CoverageCriterion other) {
+        for (Entry<String, Boolean> element: other.getElements().entrySet()) {
+            if (element.getValue()) {
+                coverElement(element.getKey());
+            }
         }
     }
 
@@ -11,6 +11,7 @@ import io.swagger.v3.oas.models.PathItem;
 import io.swagger.v3.oas.models.PathItem.HttpMethod;
 import io.swagger.v3.oas.models.parameters.RequestBody;
 import io.swagger.v3.oas.models.responses.ApiResponse;
+import org.javatuples.Pair;
 
 import static es.us.isa.restest.coverage.CriterionType.*;
 import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.*;
@@ -18,16 +19,24 @@ import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.*;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Given an OpenAPI specification, obtain coverage level needed to reach 100% for
- * each criterion (both input and output criteria)
+ * each criterion (both input and output criteria). Criteria which depend on a single
+ * operation (parameters, status codes, response body properties, etc.) are only
+ * created when the operation is first touched, so that building a CoverageGatherer
+ * for a very large specification is cheap. The number of elements of untouched
+ * operations is still taken into account when computing the coverage.
  * 
  * @author Alberto Martin-Lopez
  */
@@ -36,7 +45,11 @@ public class CoverageGatherer {
     public static final String BOOLEAN_TYPE = "boolean";
     private OpenAPISpecification spec;                  // OpenAPI specification to deduce coverage levels from
     private List<CriterionType> coverageCriterionTypes; // Types of criteria to be covered
-    private List<CoverageCriterion> coverageCriteria;   // Coverage criteria to keep track of
+    private List<CoverageCriterion> coverageCriteria;   // Coverage criteria not bound to a single operation (paths and operations)
+    private Map<String, Pair<Entry<String, PathItem>, Entry<HttpMethod, Operation>>> operations; // Operations of the API, indexed by "{path}->{httpMethod}"
+    private final Map<String, List<CoverageCriterion>> operationCoverageCriteria = new ConcurrentHashMap<>(); // Coverage criteria of the operations touched so far
+    private final Map<String, CoverageCriterion> coverageCriteriaById = new ConcurrentHashMap<>();          // Coverage criteria created so far, indexed by type and rootPath
+    private final Map<String, long[]> operationElementsCount = new ConcurrentHashMap<>();                   // Number of elements of each criterion type, per operation
 //    private int bodyPropertyDepthLevel = 0;
 
     public CoverageGatherer(OpenAPISpecification spec) {
@@ -70,22 +83,199 @@ public class CoverageGatherer {
         this.coverageCriterionTypes = coverageCriterionTypes;
     }
 
+    /**
+     * Returns all coverage criteria of the API. The criteria of operations that have not been
+     * touched yet are created on the fly and not kept, so covering their elements has no effect.
+     * Use {@link #getCoverageCriterion(CriterionType, String)} to find a criterion to update, and
+     * {@link #getElementsCount(List)} to count elements without creating any criteria.
+     *
+     * @return All coverage criteria, sorted by criterion type
+     */
     public List<CoverageCriterion> getCoverageCriteria() {
-        return this.coverageCriteria;
+        List<List<CoverageCriterion>> allOperationCoverageCriteria = new ArrayList<>();
+        for (String operationKey: operations.keySet()) {
+            List<CoverageCriterion> criteria = operationCoverageCriteria.get(operationKey);
+            allOperationCoverageCriteria.add(criteria != null ? criteria : createOperationCoverageCriteria(operationKey));
+        }
+
+        List<CoverageCriterion> criteria = new ArrayList<>();
+        for (CriterionType type: coverageCriterionTypes) {
+            coverageCriteria.stream().filter(c -> c.getType() == type).forEach(criteria::add);
+            allOperationCoverageCriteria.forEach(operationCriteria ->
+                    operationCriteria.stream().filter(c -> c.getType() == type).forEach(criteria::add));
+        }
+        return criteria;
     }
 
+    /**
+     * Replace all coverage criteria. From then on, no criteria are created lazily.
+     * @param coverageCriteria Coverage criteria to keep track of
+     */
     public void setCoverageCriteria(List<CoverageCriterion> coverageCriteria) {
         this.coverageCriteria = coverageCriteria;
+        this.operations = new LinkedHashMap<>();
+        operationCoverageCriteria.clear();
+        operationElementsCount.clear();
+        coverageCriteriaById.clear();
+        coverageCriteria.forEach(this::indexCriterion);
+    }
+
+    /**
+     * Find the coverage criterion identified by a type and a rootPath. If it belongs to an
+     * operation not touched so far, all criteria of that operation are created first. If several
+     * criteria share type and rootPath, only the first one is returned. This method is thread-safe.
+     *
+     * @param type Type of coverage criterion (PATH, STATUS_CODE, etc.)
+     * @param rootPath Path to the criterion, e.g. "/pets-&gt;GET-&gt;type"
+     * @return The coverage criterion, or {@code null} if it does not exist
+     */
+    public CoverageCriterion getCoverageCriterion(CriterionType type, String rootPath) {
+        String criterionId = getCriterionId(type, rootPath);
+        CoverageCriterion criterion = coverageCriteriaById.get(criterionId);
+
+        if (criterion == null && type != PATH && type != OPERATION) {
+            String operationKey = getOperationKey(rootPath);
+            if (operations.containsKey(operationKey)) {
+                getOperationCoverageCriteria(operationKey); // Idempotent, even if another thread created the criteria after the first lookup
+                criterion = coverageCriteriaById.get(criterionId);
+            }
+        }
+
+        return criterion;
+    }
+
+    /**
+     * @param types Types of criteria to consider
+     * @return Number of elements to cover among all coverage criteria of the given types,
+     * including those of the operations not touched so far
+     */
+    public long getElementsCount(List<CriterionType> types) {
+        long elementsCount = coverageCriteria.stream()
+                .filter(c -> types.contains(c.getType()))
+                .mapToLong(CoverageCriterion::getElementsCount)
+                .sum();
+
+        for (String operationKey: operations.keySet()) {
+            long[] elementsCountByType = operationElementsCount.computeIfAbsent(operationKey, this::countOperationElements);
+            for (CriterionType type: types)
+                elementsCount += elementsCountByType[type.ordinal()];
+        }
+
+        return elementsCount;
+    }
+
+    /**
+     * @param types Types of criteria to consider
+     * @return Number of covered elements among all coverage criteria of the given types
+     */
+    public long getCoveredElementsCount(List<CriterionType> types) {
+        return getCreatedCoverageCriteria()
+                .filter(c -> types.contains(c.getType()))
+                .mapToLong(CoverageCriterion::getCoveredElementsCount)
+                .sum();
+    }
+
+    /**
+     * @return Coverage criteria created so far, i.e. those of the API and those of the operations
+     * touched so far. Criteria of untouched operations have no covered elements
+     */
+    Stream<CoverageCriterion> getCreatedCoverageCriteria() {
+        return Stream.concat(coverageCriteria.stream(), operationCoverageCriteria.values().stream().flatMap(List::stream));
+    }
+
+    /**
+     * Merge the coverage state of another CoverageGatherer built from the same specification
+     * into this one. Criteria are matched by type and rootPath. If several criteria share them,
+     * only the first one is considered, as in {@link CoverageMeter}.
+     *
+     * @param other CoverageGatherer whose covered elements will be covered in this one
+     */
+    public void merge(CoverageGatherer other) {
+        other.getCreatedCoverageCriteria()
+                .filter(otherCriterion -> otherCriterion.getCoveredElementsCount() > 0) // untouched criteria of this gatherer are not created
+                .forEach(otherCriterion -> {
+                    CoverageCriterion criterion = getCoverageCriterion(otherCriterion.getType(), otherCriterion.getRootPath());
+                    if (criterion != null) {
+                        criterion.merge(otherCriterion);
+                    }
+                });
     }
 
     /**
-     * Create coverage criteria depending on the criterion types chosen. Usually, there will be more
-     * than one criterion per criterion type.
+     * Create the coverage criteria not bound to a single operation (paths and operations) and
+     * index the operations of the API, whose criteria will be created when first touched.
      */
     private void createCoverageCriteria() {
         for (CriterionType criterionType : coverageCriterionTypes) {
-            coverageCriteria.addAll(getCoverageCriteria(criterionType));
+            if (criterionType == PATH || criterionType == OPERATION)
+                coverageCriteria.addAll(getCoverageCriteria(criterionType));
         }
+        coverageCriteria.forEach(this::indexCriterion);
+
+        operations = new LinkedHashMap<>();
+        for (Entry<String, PathItem> currentPathEntry: spec.getSpecification().getPaths().entrySet()) {
+            for (Entry<HttpMethod, Operation> currentOperationEntry: currentPathEntry.getValue().readOperationsMap().entrySet()) {
+                operations.put(currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString(), Pair.with(currentPathEntry, currentOperationEntry));
+            }
+        }
+    }
+
+    /**
+     * Returns the coverage criteria of an operation, creating them (once) if it was not touched before.
+     */
+    private List<CoverageCriterion> getOperationCoverageCriteria(String operationKey) {
+        return operationCoverageCriteria.computeIfAbsent(operationKey, k -> {
+            List<CoverageCriterion> criteria = createOperationCoverageCriteria(k);
+            criteria.forEach(this::indexCriterion);
+            return criteria;
+        });
+    }
+
+    /**
+     * Creates all coverage criteria of an operation, for every criterion type except paths and operations.
+     */
+    private List<CoverageCriterion> createOperationCoverageCriteria(String operationKey) {
+        List<CoverageCriterion> criteria = new ArrayList<>();
+        collectOperationCoverageCriteria(operationKey, (elementsList, type, rootPath) -> criteria.add(createCriterion(elementsList, type, rootPath)));
+        return criteria;
+    }
+
+    /**
+     * Counts the elements of an operation per criterion type, going through the same parts of
+     * the specification as {@link #createOperationCoverageCriteria(String)} but without creating
+     * the criteria, so that counting does not undo their lazy creation.
+     */
+    private long[] countOperationElements(String operationKey) {
+        long[] elementsCountByType = new long[CriterionType.values().length];
+        collectOperationCoverageCriteria(operationKey, (elementsList, type, rootPath) ->
+                elementsCountByType[type.ordinal()] += elementsList.stream().filter(Objects::nonNull).distinct().count()); // null elements are ignored by the criteria
+        return elementsCountByType;
+    }
+
+    private void collectOperationCoverageCriteria(String operationKey, CriterionCollector criteria) {
+        Pair<Entry<String, PathItem>, Entry<HttpMethod, Operation>> operation = operations.get(operationKey);
+        for (CriterionType type: coverageCriterionTypes) {
+            if (type != PATH && type != OPERATION)
+                getOperationCoverageCriteria(type, criteria, operation.getValue0(), operation.getValue1());
+        }
+    }
+
+    private void indexCriterion(CoverageCriterion criterion) {
+        coverageCriteriaById.putIfAbsent(getCriterionId(criterion.getType(), criterion.getRootPath()), criterion);
+    }
+
+    private static String getCriterionId(CriterionType type, String rootPath) {
+        return type.name() + "/" + rootPath;
+    }
+
+    /**
+     * @param rootPath rootPath of a criterion bound to an operation, e.g. "/pets-&gt;GET-&gt;type"
+     * @return Key of the operation, i.e. "{path}-&gt;{httpMethod}", e.g. "/pets-&gt;GET"
+     */
+    private static String getOperationKey(String rootPath) {
+        int methodIndex = rootPath.indexOf("->");
+        int operationEndIndex = methodIndex != -1 ? rootPath.indexOf("->", methodIndex + 2) : -1;
+        return operationEndIndex != -1 ? rootPath.substring(0, operationEndIndex) : rootPath;
     }
 
     /**
@@ -100,19 +290,20 @@ public class CoverageGatherer {
      */
     private List<CoverageCriterion> getCoverageCriteria(CriterionType type) {
         List<CoverageCriterion> criteria = new ArrayList<>(); // list of criteria to be returned
+        CriterionCollector criteriaCollector = (elementsList, criterionType, rootPath) -> criteria.add(createCriterion(elementsList, criterionType, rootPath));
         
         if (type == PATH) {
             List<String> pathsList = new ArrayList<>(spec.getSpecification().getPaths().keySet()); // list of paths per criterion
-            criteria.add(createCriterion(pathsList, PATH, ""));
+            criteriaCollector.collect(pathsList, PATH, "");
 
         } else {
-            getOperationCoverageCriteria(type, criteria);
+            getOperationCoverageCriteria(type, criteriaCollector);
         }
 
         return criteria;
     }
 
-    private void getOperationCoverageCriteria(CriterionType type, List<CoverageCriterion> criteria) {
+    private void getOperationCoverageCriteria(CriterionType type, CriterionCollector criteria) {
         // iterate over the paths
         Iterator<Entry<String, PathItem>> pathsIterator = spec.getSpecification().getPaths().entrySet().iterator();
         while (pathsIterator.hasNext()) {
@@ -124,60 +315,56 @@ public class CoverageGatherer {
                         .entrySet()) {
                     operationsList.add(operation.getKey().toString()); // collect operations for this path
                 }
-                criteria.add(createCriterion(operationsList, OPERATION, currentPathEntry.getKey()));
+                criteria.collect(operationsList, OPERATION, currentPathEntry.getKey());
 
             } else {
-                getAnotherCoverageCriteria(type, criteria, currentPathEntry);
+                // iterate over the operations of that path
+                for (Entry<HttpMethod, Operation> currentOperationEntry: currentPathEntry.getValue().readOperationsMap().entrySet())
+                    getOperationCoverageCriteria(type, criteria, currentPathEntry, currentOperationEntry);
             }
 
         } // end of iteration of paths
     }
 
-    private void getAnotherCoverageCriteria(CriterionType type, List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry) {
-        // iterate over the operations of that path
-        Iterator<Entry<HttpMethod, Operation>> operationsIterator = currentPathEntry.getValue().readOperationsMap().entrySet().iterator();
-        while (operationsIterator.hasNext()) {
-            Entry<HttpMethod, Operation> currentOperationEntry = operationsIterator.next();
-            RequestBody requestBody = currentOperationEntry.getValue().getRequestBody();
-
-            if (type == PARAMETER) {
-                getParameterCoverageCriteria(criteria, currentPathEntry, currentOperationEntry, requestBody);
-            } else if (type == PARAMETER_VALUE) {
-                getParameterValueCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
-            } else if (type == INPUT_CONTENT_TYPE) {
-                getInputContentTypeCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
-            } else if (type == OUTPUT_CONTENT_TYPE) {
-                getOutputContentTypeCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
-            } else if (type == STATUS_CODE_CLASS) {
-                getStatusCodeClassCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
-            } else if (type == STATUS_CODE) {
-                getStatusCodeCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
-            } else if (type == RESPONSE_BODY_PROPERTIES) {
-                getResponseBodyPropertiesCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
-            } else if (type == AUTHENTICATION) {
-                //TODO: Remove
-//                            List<String> authenticationList = new ArrayList<>(); // list of authentications per criterion
-//                            if (currentOperationEntry.getValue().getSecurity() != null) { // there could be no 'security' property, so check it before
-//                                for (Map<String, List<String>> authenticationScheme : currentOperationEntry.getValue().getSecurity()) {
-//                                    authenticationList.add(authenticationScheme.keySet().iterator().next()); // collect authentications for this operation
-//                                }
-//                                criteria.add(createCriterion(authenticationList, AUTHENTICATION, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString()));
-//                            }
-
-            } else if (type == PARAMETER_CONDITION) {
-                //TODO: Probably remove
-
-            } else if (type == OPERATIONS_FLOW) {
-                //TODO: In a distant future
+    private void getOperationCoverageCriteria(CriterionType type, CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
+        RequestBody requestBody = currentOperationEntry.getValue().getRequestBody();
 
-            } else {
-                throw new IllegalArgumentException("Unknown coverage criterion type: " + type.toString());
-            }
+        if (type == PARAMETER) {
+            getParameterCoverageCriteria(criteria, currentPathEntry, currentOperationEntry, requestBody);
+        } else if (type == PARAMETER_VALUE) {
+            getParameterValueCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
+        } else if (type == INPUT_CONTENT_TYPE) {
+            getInputContentTypeCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
+        } else if (type == OUTPUT_CONTENT_TYPE) {
+            getOutputContentTypeCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
+        } else if (type == STATUS_CODE_CLASS) {
+            getStatusCodeClassCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
+        } else if (type == STATUS_CODE) {
+            getStatusCodeCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
+        } else if (type == RESPONSE_BODY_PROPERTIES) {
+            getResponseBodyPropertiesCoverageCriteria(criteria, currentPathEntry, currentOperationEntry);
+        } else if (type == AUTHENTICATION) {
+            //TODO: Remove
+//                List<String> authenticationList = new ArrayList<>(); // list of authentications per criterion
+//                if (currentOperationEntry.getValue().getSecurity() != null) { // there could be no 'security' property, so check it before
+//                    for (Map<String, List<String>> authenticationScheme : currentOperationEntry.getValue().getSecurity()) {
+//                        authenticationList.add(authenticationScheme.keySet().iterator().next()); // collect authentications for this operation
+//                    }
+//                    criteria.add(createCriterion(authenticationList, AUTHENTICATION, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString()));
+//                }
+
+        } else if (type == PARAMETER_CONDITION) {
+            //TODO: Probably remove
+
+        } else if (type == OPERATIONS_FLOW) {
+            //TODO: In a distant future
 
-        } // end of iteration of operations
+        } else {
+            throw new IllegalArgumentException("Unknown coverage criterion type: " + type.toString());
+        }
     }
 
-    private void getParameterCoverageCriteria(List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry, RequestBody requestBody) {
+    private void getParameterCoverageCriteria(CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry, RequestBody requestBody) {
         List<String> parametersList = new ArrayList<>(); // list of parameters per criterion
 
         if(currentOperationEntry.getValue().getParameters() != null) {
@@ -198,10 +385,10 @@ public class CoverageGatherer {
                 parametersList.add(((Entry<String, Schema>) entry).getKey());
             }
         }
-        criteria.add(createCriterion(parametersList, PARAMETER, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString()));
+        criteria.collect(parametersList, PARAMETER, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString());
     }
 
-    private void getParameterValueCoverageCriteria(List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
+    private void getParameterValueCoverageCriteria(CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
         // iterate over the parameters of that operation
         if(currentOperationEntry.getValue().getParameters() != null) {
             Iterator<Parameter> parametersIterator = currentOperationEntry.getValue().getParameters().iterator();
@@ -213,11 +400,11 @@ public class CoverageGatherer {
                 if (currentParameter.getIn().equals("query") || currentParameter.getIn().equals("header") || currentParameter.getIn().equals("path")) {
                     List<String> parameterValuesList = getSchemaValues(currentParameter.getSchema());
                     if (!parameterValuesList.isEmpty()) { // only if the parameter has enum values or is a boolean
-                        criteria.add(createCriterion(parameterValuesList, PARAMETER_VALUE,
+                        criteria.collect(parameterValuesList, PARAMETER_VALUE,
                                 currentPathEntry.getKey() + "->" +
                                         currentOperationEntry.getKey().toString() + "->" +
                                         currentParameter.getName()
-                        ));
+                        );
                     }
                 }
             }
@@ -255,7 +442,7 @@ public class CoverageGatherer {
 
     }
 
-    private void getFormDataParameterValues(List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry, RequestBody requestBody) {
+    private void getFormDataParameterValues(CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry, RequestBody requestBody) {
         MediaType mediaType = requestBody.getContent().containsKey(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) ?
                 requestBody.getContent().get(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) :
                 requestBody.getContent().get(MEDIA_TYPE_MULTIPART_FORM_DATA);
@@ -264,24 +451,24 @@ public class CoverageGatherer {
             Schema parameterSchema = ((Entry<String, Schema>) entry).getValue();
             List<String> parameterValuesList = getSchemaValues(parameterSchema);
             if (!parameterValuesList.isEmpty()) { // only if the parameter has enum values or is a boolean
-                criteria.add(createCriterion(parameterValuesList, PARAMETER_VALUE,
+                criteria.collect(parameterValuesList, PARAMETER_VALUE,
                         currentPathEntry.getKey() + "->" +
                                 currentOperationEntry.getKey().toString() + "->" +
                                 parameterSchema.getName()
-                ));
+                );
             }
         }
     }
 
-    private void getInputContentTypeCoverageCriteria(List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
+    private void getInputContentTypeCoverageCriteria(CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
         RequestBody requestBody = currentOperationEntry.getValue().getRequestBody();
         List<String> contentTypes = requestBody != null ? new ArrayList<>(requestBody.getContent().keySet()) : null;
         if (contentTypes != null) { // there could be no 'requestBody' property, so check it before
-            criteria.add(createCriterion(new ArrayList<>(contentTypes), INPUT_CONTENT_TYPE, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString()));
+            criteria.collect(new ArrayList<>(contentTypes), INPUT_CONTENT_TYPE, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString());
         }
     }
 
-    private void getOutputContentTypeCoverageCriteria(List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
+    private void getOutputContentTypeCoverageCriteria(CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
         ApiResponse response = null;
         for(String statusCode : currentOperationEntry.getValue().getResponses().keySet()) {
             if(statusCode.startsWith("2")) {
@@ -292,11 +479,11 @@ public class CoverageGatherer {
 
         List<String> contentTypes = response != null && response.getContent() != null ? new ArrayList<>(response.getContent().keySet()) : null;
         if (contentTypes != null && !contentTypes.isEmpty()) { // there could be no 'apiResponse' or 'content' property, so check it before
-            criteria.add(createCriterion(new ArrayList<>(contentTypes), OUTPUT_CONTENT_TYPE, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString()));
+            criteria.collect(new ArrayList<>(contentTypes), OUTPUT_CONTENT_TYPE, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString());
         }
     }
 
-    private void getStatusCodeClassCoverageCriteria(List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
+    private void getStatusCodeClassCoverageCriteria(CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
         List<String> statusCodeClassesList = new ArrayList<>(); // list of statusCodeClasses per criterion
         statusCodeClassesList.add("2XX"); // it is assumed that all API operations should have a successful response
         for (String statusCodeClass : currentOperationEntry.getValue().getResponses().keySet()) {
@@ -305,18 +492,18 @@ public class CoverageGatherer {
                 break;
             }
         }
-        criteria.add(createCriterion(statusCodeClassesList, STATUS_CODE_CLASS, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString()));
+        criteria.collect(statusCodeClassesList, STATUS_CODE_CLASS, currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString());
     }
 
-    private void getStatusCodeCoverageCriteria(List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
-        criteria.add(createCriterion(
+    private void getStatusCodeCoverageCriteria(CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
+        criteria.collect(
                 new ArrayList<>(currentOperationEntry.getValue().getResponses().keySet()), // list of status codes for that operation
                 STATUS_CODE,
                 currentPathEntry.getKey() + "->" + currentOperationEntry.getKey().toString()
-        ));
+        );
     }
 
-    private void getResponseBodyPropertiesCoverageCriteria(List<CoverageCriterion> criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
+    private void getResponseBodyPropertiesCoverageCriteria(CriterionCollector criteria, Entry<String, PathItem> currentPathEntry, Entry<HttpMethod, Operation> currentOperationEntry) {
         // iterate over the responses of that operation
         for (Entry<String, ApiResponse> currentResponseEntry : currentOperationEntry.getValue().getResponses().entrySet()) {
 
@@ -347,11 +534,11 @@ public class CoverageGatherer {
      * all sub-properties of an object.
      *
      * @param mediaTypeSchema OpenAPI property to check if it contains sub-properties to cover
-     * @param criteria List of coverage criteria where to include the RESPONSE_BODY_PROPERTIES criteria
+     * @param criteria Collector of coverage criteria where to include the RESPONSE_BODY_PROPERTIES criteria
      * @param baseRootPath Initial rootPath: "{path}->{httpMethod}->{statusCode}->". Example of
      *                     baseRootPath after 2 iterations: "{path}->{httpMethod}->{statusCode}->{prop1[{prop2"
      */
-    private void addResponseBodyPropertiesCriterion(Schema mediaTypeSchema, List<CoverageCriterion> criteria, String baseRootPath) {
+    private void addResponseBodyPropertiesCriterion(Schema mediaTypeSchema, CriterionCollector criteria, String baseRootPath) {
         String rootPathSuffix = "";
         String currentResponseRef = null;
         Map<String, Schema> openApiProperties = null;
@@ -390,7 +577,7 @@ public class CoverageGatherer {
 
             if (openApiProperties != null) { // if there are properties to cover in this iteration, add new criterion
                 baseRootPath += rootPathSuffix; // update rootPath with the suffix, since a new criterion will be added
-                criteria.add(createCriterion(new ArrayList<>(openApiProperties.keySet()), RESPONSE_BODY_PROPERTIES, baseRootPath));
+                criteria.collect(new ArrayList<>(openApiProperties.keySet()), RESPONSE_BODY_PROPERTIES, baseRootPath);
                 for (Entry<String, Schema> openApiProperty: openApiProperties.entrySet()) { // Recursively add criteria for each property
                     addResponseBodyPropertiesCriterion(openApiProperty.getValue(), criteria, baseRootPath+openApiProperty.getKey()); // update rootPath with the name of the property
                 }
@@ -424,6 +611,15 @@ public class CoverageGatherer {
         return criterion;
     }
 
+    /**
+     * Receives the elements of each coverage criterion found in the specification, either to
+     * create the criterion or just to count its elements.
+     */
+    @FunctionalInterface
+    private interface CriterionCollector {
+        void collect(List<String> elementsList, CriterionType type, String rootPath);
+    }
+
     /**
      * Dumb function to set all types of criteria to be covered
      */
@@ -2,10 +2,23 @@ package es.us.isa.restest.coverage;
 
 import static es.us.isa.restest.coverage.CriterionType.*;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.util.*;
 import java.util.Map.Entry;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 import es.us.isa.restest.testcases.TestCase;
 import es.us.isa.restest.testcases.TestResult;
@@ -28,9 +41,13 @@ import org.apache.logging.log4j.Logger;
 public class CoverageMeter {
 
     private static final Logger log = LogManager.getLogger(CoverageMeter.class);
+    private static final ObjectMapper objectMapper = new ObjectMapper(); // thread-safe once configured, shared to parse response bodies
+    private static final int SNAPSHOT_MAGIC_NUMBER = 0x52544353;        // "RTCS" (RESTest coverage snapshot)
+    private static final int SNAPSHOT_VERSION = 1;
     private CoverageGatherer coverageGatherer;  // coverage gatherer already containing all criteria to be covered
     private Collection<TestCase> testSuite;     // full set of abstract test cases addressing the API
     private Collection<TestResult> testResults; // test outputs generated after running the test suite against the API
+    private boolean keepTestData = true;        // if false, test cases and test results added only update the coverage, and are not kept
 
     public CoverageMeter(CoverageGatherer coverageGatherer) {
         this.coverageGatherer = coverageGatherer;
@@ -65,7 +82,7 @@ public class CoverageMeter {
     }
 
     public void addTestSuite(Collection<TestCase> testSuite) {
-        this.testSuite.addAll(testSuite);
+        addToTestSuiteAndResults(testSuite, Collections.emptyList());
         setCoveredInputElements(testSuite);
     }
 
@@ -74,16 +91,38 @@ public class CoverageMeter {
         setCoveredInputElements(testSuite); // after setting testSuite, update covered input elements from all criteria
     }
 
+    /**
+     * Whether to keep the test cases and test results added, or only update the coverage with them,
+     * e.g., in long test campaigns whose coverage is updated incrementally. If they are not kept,
+     * {@link #getAPosteriorCoverageMeter()} only considers the test cases and test results set
+     * afterwards with {@link #setTestSuite(Collection)} and {@link #setTestResults(Collection, Collection)}.
+     * @param keepTestData false to release the test cases and test results once they are counted
+     */
+    public void setKeepTestData(boolean keepTestData) {
+        this.keepTestData = keepTestData;
+    }
+
     public void resetCoverage() {
         this.coverageGatherer = new CoverageGatherer(this.coverageGatherer.getSpec());
     }
 
+    /**
+     * Merge the criteria covered by another CoverageMeter (built from the same specification)
+     * into {@code this} one. Only the coverage state is merged, the test cases and test results
+     * of {@code other} are not added to {@code this} CoverageMeter.
+     *
+     * @param other CoverageMeter whose coverage will be merged into {@code this} one
+     */
+    public void merge(CoverageMeter other) {
+        coverageGatherer.merge(other.getCoverageGatherer());
+    }
+
     public Collection<TestResult> getTestResults() {
         return this.testResults;
     }
 
     public void addTestResults(Collection<TestResult> testResults, Collection<TestCase> testSuite) {
-        this.testResults.addAll(testResults);
+        addToTestSuiteAndResults(Collections.emptyList(), testResults);
         setCoveredOutputElements(testResults, testSuite);
     }
 
@@ -92,6 +131,20 @@ public class CoverageMeter {
         setCoveredOutputElements(testResults, testSuite); // after setting testResults, update covered output elements from all criteria
     }
 
+    /**
+     * Test cases and test results may be added concurrently (e.g., from the REST-Assured filters
+     * of test cases executed in parallel), so the collections are only modified in this method.
+     * Coverage criteria are updated afterwards, without locking.
+     */
+    private synchronized void addToTestSuiteAndResults(Collection<TestCase> newTestCases, Collection<TestResult> newTestResults) {
+        if (!keepTestData)
+            return;
+        if (!newTestCases.isEmpty())
+            this.testSuite.addAll(newTestCases);
+        if (!newTestResults.isEmpty())
+            this.testResults.addAll(newTestResults);
+    }
+
     public long getAllTotalElements() {
         return getAllElements(null);
     }
@@ -123,10 +176,7 @@ public class CoverageMeter {
      * @return Number of elements collected among all coverage criteria
      */
     private long getAllElements(String criterionType) {
-        return coverageGatherer.getCoverageCriteria().stream()
-                .filter(c -> CriterionType.getTypes(criterionType).contains(c.getType()))
-                .mapToLong(CoverageCriterion::getElementsCount)
-                .sum();
+        return coverageGatherer.getElementsCount(CriterionType.getTypes(criterionType));
     }
 
     /**
@@ -136,10 +186,7 @@ public class CoverageMeter {
      * @return Number of covered elements collected among all coverage criteria
      */
     private long getCoveredElements(String criterionType) {
-        return coverageGatherer.getCoverageCriteria().stream()
-                .filter(c -> CriterionType.getTypes(criterionType).contains(c.getType()))
-                .mapToLong(CoverageCriterion::getCoveredElementsCount)
-                .sum();
+        return coverageGatherer.getCoveredElementsCount(CriterionType.getTypes(criterionType));
     }
 
     /**
@@ -185,19 +232,13 @@ public class CoverageMeter {
      * @return Coverage percentage
      */
     public float getCriterionTypeCoverage(CriterionType type) {
-        long allElements = coverageGatherer.getCoverageCriteria().stream()
-                .filter(c -> c.getType() == type)
-                .mapToLong(CoverageCriterion::getElementsCount)
-                .sum();
+        long allElements = coverageGatherer.getElementsCount(Collections.singletonList(type));
 
         if (allElements == 0) {
             return 100;
         }
 
-        long coveredElements = coverageGatherer.getCoverageCriteria().stream()
-                .filter(c -> c.getType() == type)
-                .mapToLong(CoverageCriterion::getCoveredElementsCount)
-                .sum();
+        long coveredElements = coverageGatherer.getCoveredElementsCount(Collections.singletonList(type));
 
         return 100 * (float) coveredElements / (float) allElements;
     }
@@ -210,10 +251,7 @@ public class CoverageMeter {
      * @return Coverage percentage
      */
     public float getCriterionCoverage(CriterionType type, String rootPath) {
-        CoverageCriterion criterion = coverageGatherer.getCoverageCriteria().stream() // find criterion
-                .filter(c -> c.getType() == type && c.getRootPath().equals(rootPath))
-                .findFirst()
-                .orElse(null);
+        CoverageCriterion criterion = coverageGatherer.getCoverageCriterion(type, rootPath); // find criterion
 
         if (criterion != null) {
             return criterion.getCoverage();
@@ -236,36 +274,24 @@ public class CoverageMeter {
         CoverageMeter aPosterioriCoverageMeter = new CoverageMeter(new CoverageGatherer(coverageGatherer.getSpec()));
 
         if(testResults != null) {
-            List<String> tcIds = testSuite.stream().map(TestCase::getId).collect(Collectors.toList());
-            List<String> trIds = testResults.stream().map(TestResult::getId).collect(Collectors.toList());
-            List<TestCase> orderedTestSuite = new ArrayList<>(testSuite).stream()
+            Set<String> tcIds = testSuite.stream().map(TestCase::getId).collect(Collectors.toSet());
+            Set<String> trIds = testResults.stream().map(TestResult::getId).collect(Collectors.toSet());
+            List<TestCase> orderedTestSuite = testSuite.stream()
                     .filter(tc -> trIds.contains(tc.getId()))
                     .sorted(Comparator.comparing(TestCase::getId))
                     .collect(Collectors.toList());
-            List<TestResult> orderedTestResults = new ArrayList<>(testResults).stream()
+            List<TestResult> orderedTestResults = testResults.stream()
                     .filter(tr -> tcIds.contains(tr.getId()))
                     .sorted(Comparator.comparing(TestResult::getId))
                     .collect(Collectors.toList());
 
-            aPosterioriCoverageMeter.testSuite = orderedTestSuite;
-            aPosterioriCoverageMeter.testResults = orderedTestResults;
             int totalSize = orderedTestSuite.size();
 
             for (int i=0; i*maxTestSuiteSize < totalSize; i++) {
                 int upperLimit = Math.min((i + 1) * maxTestSuiteSize, totalSize);
-                Collection<TestCase> testSuiteFragment = orderedTestSuite.subList(i*maxTestSuiteSize, upperLimit);
-                Collection<TestResult> testResultsFragment = orderedTestResults.subList(i*maxTestSuiteSize, upperLimit);
-
-                List<String> invalidResponseResultsIds = new ArrayList<>(testResultsFragment).stream()
-                        .filter(testResult -> Integer.parseInt(testResult.getStatusCode()) >= 400)
-                        .map(TestResult::getId)
-                        .collect(Collectors.toList());
-
-                aPosterioriCoverageMeter.setCoveredOutputElements(testResultsFragment, testSuiteFragment);
-                testSuiteFragment = testSuiteFragment.stream()
-                        .filter(testCase -> !invalidResponseResultsIds.contains(testCase.getId()))
-                        .collect(Collectors.toList());
-                aPosterioriCoverageMeter.setCoveredInputElements(testSuiteFragment);
+                aPosterioriCoverageMeter.addAPosterioriTestResults(
+                        orderedTestResults.subList(i*maxTestSuiteSize, upperLimit),
+                        orderedTestSuite.subList(i*maxTestSuiteSize, upperLimit));
 
                 if (maxTestSuiteSize != Integer.MAX_VALUE)
                     log.info("Creating a posteriori coverage meter. Progress: {}/{}", upperLimit, totalSize);
@@ -275,6 +301,40 @@ public class CoverageMeter {
         return aPosterioriCoverageMeter;
     }
 
+    /**
+     * Folds new test cases and their test results into {@code this} CoverageMeter, considering it
+     * an a posteriori coverage meter, i.e., input elements are only covered by those test cases
+     * whose response was successful (status code lower than 400). Test cases without a test result
+     * (and vice versa) are ignored. Unlike {@link #getAPosteriorCoverageMeter()}, this allows to keep
+     * an a posteriori coverage meter up to date across iterations, processing only the new data.
+     *
+     * @param testResults New test results
+     * @param testSuite New test cases, i.e., those that produced the test results
+     */
+    public void addAPosterioriTestResults(Collection<TestResult> testResults, Collection<TestCase> testSuite) {
+        Set<String> trIds = testResults.stream().map(TestResult::getId).collect(Collectors.toSet());
+        Map<String, TestCase> testCasesById = getTestCasesById(testSuite);
+
+        List<TestCase> executedTestSuite = testSuite.stream()
+                .filter(tc -> trIds.contains(tc.getId()))
+                .collect(Collectors.toList());
+        List<TestResult> matchedTestResults = testResults.stream()
+                .filter(tr -> testCasesById.containsKey(tr.getId()))
+                .collect(Collectors.toList());
+
+        Set<String> invalidResponseResultsIds = matchedTestResults.stream()
+                .filter(testResult -> Integer.parseInt(testResult.getStatusCode()) >= 400)
+                .map(TestResult::getId)
+                .collect(Collectors.toSet());
+
+        addToTestSuiteAndResults(executedTestSuite, matchedTestResults);
+
+        setCoveredOutputElements(matchedTestResults, executedTestSuite);
+        setCoveredInputElements(executedTestSuite.stream()
+                .filter(testCase -> !invalidResponseResultsIds.contains(testCase.getId()))
+                .collect(Collectors.toList()));
+    }
+
     /**
      * Set 'coveredElements' field of every input CoverageCriterion
      * @param testSuite
@@ -308,8 +368,12 @@ public class CoverageMeter {
     }
 
     private void setCoveredOutputElements(Collection<TestResult> testResults, Collection<TestCase> testSuite) {
+        Map<String, TestCase> testCasesById = getTestCasesById(testSuite);
+
         // Traverse all test results and, for each one, modify the coverage criteria it affects, by adding new covered elements
         for (TestResult testResult: testResults) {
+            TestCase testCase = findTestCase(testResult.getId(), testCasesById);
+            String operationRootPath = testCase.getPath() + "->" + testCase.getMethod().toString();
 
             String statusCodeClass = null;
             if(testResult.getStatusCode().charAt(0) == '4') {
@@ -319,17 +383,14 @@ public class CoverageMeter {
             }
 
             if (statusCodeClass != null)
-                updateCriterion(STATUS_CODE_CLASS, findTestCase(testResult.getId(), testSuite).getPath() + "->" + findTestCase(testResult.getId(), testSuite).getMethod().toString(), statusCodeClass, coverageGatherer);
-            updateCriterion(STATUS_CODE, findTestCase(testResult.getId(), testSuite).getPath() + "->" + findTestCase(testResult.getId(), testSuite).getMethod().toString(), testResult.getStatusCode(), coverageGatherer);
-            updateCriterion(OUTPUT_CONTENT_TYPE, findTestCase(testResult.getId(), testSuite).getPath() + "->" + findTestCase(testResult.getId(), testSuite).getMethod().toString(), outputContentTypeTranslator(testResult.getOutputFormat()), coverageGatherer);
+                updateCriterion(STATUS_CODE_CLASS, operationRootPath, statusCodeClass, coverageGatherer);
+            updateCriterion(STATUS_CODE, operationRootPath, testResult.getStatusCode(), coverageGatherer);
+            updateCriterion(OUTPUT_CONTENT_TYPE, operationRootPath, outputContentTypeTranslator(testResult.getOutputFormat()), coverageGatherer);
 
             // Response body properties criteria
-            ObjectMapper objectMapper = new ObjectMapper();
             try {
-                JsonNode jsonResponse = objectMapper.readTree(testResult.getResponseBody());
-                String baseRootPath = findTestCase(testResult.getId(), testSuite).getPath() +
-                        "->" + findTestCase(testResult.getId(), testSuite).getMethod().toString() +
-                        "->" + testResult.getStatusCode() + "->"; // note the final arrow, since new elements will be added to the rootPath
+                JsonNode jsonResponse = testResult.getResponseBodyJson() != null ? testResult.getResponseBodyJson() : objectMapper.readTree(testResult.getResponseBody());
+                String baseRootPath = operationRootPath + "->" + testResult.getStatusCode() + "->"; // note the final arrow, since new elements will be added to the rootPath
                 iterateOverJsonNode(jsonResponse, baseRootPath, coverageGatherer, null, null, null);
             } catch (IOException e) {
 //                System.out.println("Error setting response body properties coverage criteria: response body is text/html; expected application/json.");
@@ -438,10 +499,7 @@ public class CoverageMeter {
      */
     private static void updateCriterion(CriterionType type, String rootPath, String element, CoverageGatherer covGath) {
         // Find unique criterion by type and rootPath
-        CoverageCriterion criterion = covGath.getCoverageCriteria().stream()
-                .filter(c -> c.getType() == type && c.getRootPath().equals(rootPath))
-                .findFirst()
-                .orElse(null);
+        CoverageCriterion criterion = covGath.getCoverageCriterion(type, rootPath);
 
         if (criterion != null) { // if the criterion exists
             criterion.coverElement(element); // add element to the already covered elements of the criterion
@@ -451,14 +509,25 @@ public class CoverageMeter {
     /**
      * Given a test case ID (or test result ID), return the test case
      * @param id ID of the test case
-     * @param testSuite collection of test cases where to look for the ID
+     * @param testCasesById test cases where to look for the ID, indexed by ID
      * @return Test case matching the ID passed in
      */
-    private TestCase findTestCase(String id, Collection<TestCase> testSuite) {
-        return testSuite.stream()
-                .filter(tc -> Objects.equals(tc.getId(), id))
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("There is no test case with id <" + id + ">"));
+    private TestCase findTestCase(String id, Map<String, TestCase> testCasesById) {
+        TestCase testCase = testCasesById.get(id);
+        if (testCase == null)
+            throw new IllegalArgumentException("There is no test case with id <" + id + ">");
+        return testCase;
+    }
+
+    /**
+     * Index a collection of test cases by ID. If several test cases share the same ID, only
+     * the first one is kept.
+     */
+    private static Map<String, TestCase> getTestCasesById(Collection<TestCase> testSuite) {
+        Map<String, TestCase> testCasesById = new HashMap<>();
+        for (TestCase testCase: testSuite)
+            testCasesById.putIfAbsent(testCase.getId(), testCase);
+        return testCasesById;
     }
 
     /**
@@ -481,6 +550,132 @@ public class CoverageMeter {
                 );
     }
 
+    /**
+     * Export the coverage state (i.e., the covered elements of every criterion) to a compact binary
+     * file, which can be loaded back with {@link #importCoverageSnapshot(String)}. The file is written
+     * to a temporary file first and then moved, so a previous snapshot is never left half-written.
+     *
+     * @param path Path where to save the snapshot
+     * @throws IOException if the snapshot could not be written
+     */
+    public void exportCoverageSnapshot(String path) throws IOException {
+        exportCoverageSnapshot(getCoverageSnapshot(), path);
+    }
+
+    /**
+     * Coverage state (i.e., the covered elements of every criterion) in the binary format of
+     * {@link #exportCoverageSnapshot(String)}, e.g., to save it later while the coverage keeps changing.
+     *
+     * @return The coverage snapshot
+     */
+    public byte[] getCoverageSnapshot() {
+        List<CoverageCriterion> coveredCriteria = coverageGatherer.getCreatedCoverageCriteria()
+                .filter(criterion -> criterion.getCoveredElementsCount() > 0)
+                .collect(Collectors.toList());
+
+        ByteArrayOutputStream snapshot = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(snapshot)))) {
+            out.writeInt(SNAPSHOT_MAGIC_NUMBER);
+            out.writeInt(SNAPSHOT_VERSION);
+            out.writeInt(coveredCriteria.size());
+            for (CoverageCriterion criterion: coveredCriteria) {
+                Set<String> coveredElements = criterion.getCoveredElements().keySet();
+                writeSnapshotString(out, criterion.getType().name());
+                writeSnapshotString(out, criterion.getRootPath());
+                out.writeLong(criterion.getElementsCount());
+                out.writeInt(coveredElements.size());
+                for (String element: coveredElements)
+                    writeSnapshotString(out, element);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("The coverage snapshot could not be serialized", e);
+        }
+        return snapshot.toByteArray();
+    }
+
+    /**
+     * Save a coverage snapshot obtained with {@link #getCoverageSnapshot()}. The file is written to a
+     * temporary file first and then moved, so a previous snapshot is never left half-written.
+     *
+     * @param snapshot Coverage snapshot
+     * @param path Path where to save the snapshot
+     * @throws IOException if the snapshot could not be written
+     */
+    public static void exportCoverageSnapshot(byte[] snapshot, String path) throws IOException {
+        Path snapshotPath = Paths.get(path);
+        Path tmpSnapshotPath = Paths.get(path + ".tmp");
+        Files.write(tmpSnapshotPath, snapshot);
+
+        try {
+            Files.move(tmpSnapshotPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tmpSnapshotPath, snapshotPath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Load a coverage snapshot previously exported with {@link #exportCoverageSnapshot(String)}, covering
+     * all its covered elements in {@code this} CoverageMeter. Loading is a merge, so snapshots of different
+     * runs (or machines) can be loaded one after another. The snapshot is validated against the coverage
+     * criteria of {@code this} CoverageMeter before loading anything: if some criterion or element does not
+     * exist, or some criterion has a different number of elements (i.e., the snapshot was exported with
+     * another specification or test configuration), the snapshot is rejected.
+     *
+     * @param path Path to the snapshot
+     * @throws IOException if the snapshot could not be read, it is not a coverage snapshot or it does not
+     * match the current coverage criteria
+     */
+    public void importCoverageSnapshot(String path) throws IOException {
+        Map<CoverageCriterion, List<String>> coveredElements = new LinkedHashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(Files.newInputStream(Paths.get(path)))))) {
+            if (in.readInt() != SNAPSHOT_MAGIC_NUMBER)
+                throw new IOException("The file " + path + " is not a coverage snapshot");
+            int version = in.readInt();
+            if (version != SNAPSHOT_VERSION)
+                throw new IOException("Unsupported version of coverage snapshot: " + version);
+
+            int criteriaCount = in.readInt();
+            for (int i = 0; i < criteriaCount; i++) {
+                String typeName = readSnapshotString(in);
+                String rootPath = readSnapshotString(in);
+                long criterionElementsCount = in.readLong();
+                int elementsCount = in.readInt();
+
+                CriterionType type = Arrays.stream(CriterionType.values()).filter(t -> t.name().equals(typeName)).findFirst().orElse(null);
+                CoverageCriterion criterion = type != null ? coverageGatherer.getCoverageCriterion(type, rootPath) : null;
+                if (criterion == null || criterion.getElementsCount() != criterionElementsCount)
+                    throw new IOException("The coverage snapshot " + path + " does not match the current specification and test configuration (criterion " + typeName + " " + rootPath + ")");
+
+                List<String> elements = new ArrayList<>(elementsCount);
+                for (int j = 0; j < elementsCount; j++) {
+                    String element = readSnapshotString(in);
+                    if (!criterion.getElements().containsKey(element))
+                        throw new IOException("The coverage snapshot " + path + " does not match the current specification and test configuration (element " + element + " of criterion " + typeName + " " + rootPath + ")");
+                    elements.add(element);
+                }
+                coveredElements.put(criterion, elements);
+            }
+        }
+
+        coveredElements.forEach((criterion, elements) -> elements.forEach(criterion::coverElement));
+    }
+
+    // Strings are written as length-prefixed UTF-8 bytes, since elements (e.g., parameter values) may be longer than 64 KB
+    private static void writeSnapshotString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readSnapshotString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0)
+            throw new IOException("Corrupted coverage snapshot");
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
     public static void exportCoverageOfTestCaseToCSV(String path, TestCase tc) {
         if (!checkIfExists(path)) // If the file doesn't exist, create it (only once)
             createCSVwithHeader(path, "testCaseId,criterionType,rootPath,element");
@@ -551,7 +746,6 @@ public class CoverageMeter {
         writeCSVRow(path, row);
 
         // Response body properties criteria
-        ObjectMapper objectMapper = new ObjectMapper();
         try {
             JsonNode jsonResponse = objectMapper.readTree(tr.getResponseBody());
             iterateOverJsonNode(jsonResponse, "", null, path, tr.getId(), new ArrayList<>());
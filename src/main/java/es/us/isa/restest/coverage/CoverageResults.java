@@ -172,7 +172,7 @@ public class CoverageResults {
         List<CoverageCriterion> criteria = covMeter.getCoverageGatherer().getCoverageCriteria();
         for(CoverageCriterion c : criteria) {
             String typeAndRootPath = c.getType().name()+ "/" + c.getRootPath();
-            CoverageCriterionResult res = new CoverageCriterionResult(typeAndRootPath, covMeter.getCriterionCoverage(c.getType(), c.getRootPath()));
+            CoverageCriterionResult res = new CoverageCriterionResult(typeAndRootPath, c.getCoverage()); // criteria of untouched operations are not created
             coverageOfCoverageCriteria.add(res);
         }
     }
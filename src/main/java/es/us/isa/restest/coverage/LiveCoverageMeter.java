@@ -0,0 +1,106 @@
+package es.us.isa.restest.coverage;
+
+import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.testcases.TestResult;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the a priori and a posteriori coverage of a test campaign up to date while test
+ * cases are being executed. Test results are fed one by one, as soon as the responses are
+ * received (see {@link es.us.isa.restest.writers.restassured.filters.CoverageFilter CoverageFilter}),
+ * so the current coverage can be queried at any moment, without post-processing the CSV files
+ * of test results. All methods are thread-safe.
+ *
+ * Live coverage meters are registered by test suite ID, which the generated test classes share
+ * with the runner, while the test cases of the test suite are being executed. Test suite IDs are
+ * unique (see {@link es.us.isa.restest.util.IDGenerator#generateTimeId()}), so several test
+ * campaigns can run in the same JVM without sharing their coverage.
+ */
+public class LiveCoverageMeter {
+
+    private static final Map<String, LiveCoverageMeter> liveCoverageMeters = new ConcurrentHashMap<>(); // Indexed by test suite ID
+
+    private final CoverageMeter coverageMeter;                  // A priori coverage (input and output)
+    private final CoverageMeter aPosterioriCoverageMeter;       // A posteriori coverage
+    private final Map<String, TestCase> testCases;              // Test cases being executed, indexed by ID
+
+    /**
+     * The coverage meters passed in only keep the coverage, not the test cases and test results
+     * they are fed (see {@link CoverageMeter#setKeepTestData(boolean)}), so that memory does not
+     * grow with the length of the test campaign.
+     * @param coverageMeter A priori coverage meter
+     * @param aPosterioriCoverageMeter A posteriori coverage meter
+     */
+    public LiveCoverageMeter(CoverageMeter coverageMeter, CoverageMeter aPosterioriCoverageMeter) {
+        this.coverageMeter = coverageMeter;
+        this.aPosterioriCoverageMeter = aPosterioriCoverageMeter;
+        this.testCases = new ConcurrentHashMap<>();
+        coverageMeter.setKeepTestData(false);
+        aPosterioriCoverageMeter.setKeepTestData(false);
+    }
+
+    /**
+     * @param testId Test suite ID
+     * @return The live coverage meter of the test suite being executed, or {@code null} if there is
+     * none (e.g., when the test class is run standalone)
+     */
+    public static LiveCoverageMeter getLiveCoverageMeter(String testId) {
+        return testId != null ? liveCoverageMeters.get(testId) : null;
+    }
+
+    /**
+     * Add test cases about to be executed. Their input elements are covered (a priori) right
+     * away, and their test results will be accepted by {@link #addTestResult(TestResult)}.
+     * The live coverage meter is registered for the test suite, so that the filters of its
+     * test classes can update it.
+     * @param testId Test suite ID, or {@code null} if the test results are fed directly
+     * @param testCases Test cases to be executed
+     */
+    public void addTestCases(String testId, Collection<TestCase> testCases) {
+        coverageMeter.addTestSuite(testCases);
+        for (TestCase testCase: testCases)
+            this.testCases.putIfAbsent(testCase.getId(), testCase);
+        if (testId != null)
+            liveCoverageMeters.put(testId, this);
+    }
+
+    /**
+     * Forget test cases whose test results have already been received, and unregister the live
+     * coverage meter for their test suite. Test cases are only kept while they are executed.
+     * @param testId Test suite ID, or {@code null} if the test results were fed directly
+     * @param testCases Test cases already executed
+     */
+    public void removeTestCases(String testId, Collection<TestCase> testCases) {
+        if (testId != null)
+            liveCoverageMeters.remove(testId, this);
+        for (TestCase testCase: testCases)
+            this.testCases.remove(testCase.getId());
+    }
+
+    /**
+     * Update the coverage with a new test result. Test results of unknown test cases are ignored.
+     * If the response body was already parsed as JSON, the JSON tree is shared by both coverage
+     * meters, and released afterwards.
+     * @param testResult Test result, whose ID matches the one of a test case previously added
+     */
+    public void addTestResult(TestResult testResult) {
+        TestCase testCase = testResult.getId() != null ? testCases.get(testResult.getId()) : null;
+        if (testCase != null) {
+            coverageMeter.addTestResults(Collections.singletonList(testResult), Collections.singletonList(testCase));
+            aPosterioriCoverageMeter.addAPosterioriTestResults(Collections.singletonList(testResult), Collections.singletonList(testCase));
+        }
+        testResult.setResponseBodyJson(null);
+    }
+
+    public CoverageMeter getCoverageMeter() {
+        return coverageMeter;
+    }
+
+    public CoverageMeter getAPosterioriCoverageMeter() {
+        return aPosterioriCoverageMeter;
+    }
+}
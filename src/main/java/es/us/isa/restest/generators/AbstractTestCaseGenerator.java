@@ -2,10 +2,12 @@ package es.us.isa.restest.generators;
 
 import java.util.*;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import es.us.isa.restest.configuration.pojos.Generator;
 import es.us.isa.restest.inputs.stateful.BodyGenerator;
 import es.us.isa.restest.inputs.stateful.ParameterGenerator;
+import es.us.isa.restest.mutation.InvalidBodyMutation;
 import es.us.isa.restest.mutation.TestCaseMutation;
 import es.us.isa.restest.specification.OpenAPISpecificationVisitor;
 import es.us.isa.restest.util.*;
@@ -25,10 +27,10 @@ import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.specification.OpenAPIParameter;
 import es.us.isa.restest.testcases.TestCase;
 import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.media.MediaType;
 
 import static es.us.isa.restest.configuration.TestConfigurationVisitor.hasStatefulGenerators;
 import static es.us.isa.restest.configuration.TestConfigurationVisitor.isArteEnabled;
-import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.MEDIA_TYPE_APPLICATION_JSON_REGEX;
 
 /**
  * Abstract class to be implemented by test case generators
@@ -62,6 +64,8 @@ public abstract class AbstractTestCaseGenerator {
 	protected int nFaulty;													// Number of faulty test cases generated for the current operation
 	protected int nNominal;													// Number of nominal test cases generated for the current operation
 
+	private final Map<String, InvalidBodyMutation> invalidBodyMutations = new HashMap<>();	// Mutations of the JSON request bodies, indexed by operation
+	private final Map<String, TestCaseMutation> testCaseMutations = new HashMap<>();		// Mutations of individual parameters, indexed by operation
 	private boolean hasStatefulGenerators;
 	private boolean checkTestCases;
 
@@ -154,16 +158,9 @@ public abstract class AbstractTestCaseGenerator {
 		List<TestCase> testCases = new ArrayList<>();
 
 		// Generate test cases for each path and method
-		for(TestConfigurationFilter filter:filters) {
-
-			if (filter.getPath()==null) {
-				throw new IllegalArgumentException("Specify the path(s) to be tested");
-			}
-
-			for(HttpMethod method: filter.getMethods()) {
-				// Generate test cases for the operation
-				testCases.addAll(generate(filter.getPath(), method));
-			}
+		for(Pair<String, HttpMethod> operation: getOperations(filters)) {
+			// Generate test cases for the operation
+			testCases.addAll(generate(operation.getValue0(), operation.getValue1()));
 		}
 
 		return testCases;
@@ -175,6 +172,68 @@ public abstract class AbstractTestCaseGenerator {
 	 * @throws RESTestException if the test HTTP method is other than 'get', 'post', 'put' or 'delete'
 	 */
 	public Collection<TestCase> generate() throws RESTestException {
+		return generate(getFilters());
+	}
+
+	/**
+	 * Generate test cases on demand, one at a time, so that they can be written, exported or executed
+	 * while the next ones are generated. The test cases are the same as those returned by {@link #generate(Collection)}.
+	 * The generator must not be used for anything else until the iterator is exhausted.
+	 * @param filters Set the paths and HTTP methods to be tested
+	 * @return Iterator over the generated test cases (duplicates are possible). If a test case cannot be
+	 * generated, the iterator throws an IllegalStateException whose cause is the RESTestException thrown
+	 */
+	public Iterator<TestCase> iterator(Collection<TestConfigurationFilter> filters) {
+		return new TestCaseIterator(getOperations(filters));
+	}
+
+	/**
+	 * Generate test cases on demand for the whole configuration file (all paths, all operations)
+	 * @return Iterator over the generated test cases (duplicates are possible)
+	 * @throws RESTestException if the test HTTP method is other than 'get', 'post', 'put' or 'delete'
+	 * @see #iterator(Collection)
+	 */
+	public Iterator<TestCase> iterator() throws RESTestException {
+		return iterator(getFilters());
+	}
+
+	/**
+	 * Sequential stream of test cases generated on demand
+	 * @param filters Set the paths and HTTP methods to be tested
+	 * @return Stream of the generated test cases (duplicates are possible)
+	 * @see #iterator(Collection)
+	 */
+	public Stream<TestCase> stream(Collection<TestConfigurationFilter> filters) {
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator(filters), Spliterator.ORDERED), false);
+	}
+
+	/**
+	 * Sequential stream of test cases generated on demand for the whole configuration file (all paths, all operations)
+	 * @return Stream of the generated test cases (duplicates are possible)
+	 * @throws RESTestException if the test HTTP method is other than 'get', 'post', 'put' or 'delete'
+	 * @see #iterator(Collection)
+	 */
+	public Stream<TestCase> stream() throws RESTestException {
+		return stream(getFilters());
+	}
+
+	// Paths and methods to be tested, in order
+	private List<Pair<String, HttpMethod>> getOperations(Collection<TestConfigurationFilter> filters) {
+		List<Pair<String, HttpMethod>> operations = new ArrayList<>();
+		for(TestConfigurationFilter filter:filters) {
+
+			if (filter.getPath()==null) {
+				throw new IllegalArgumentException("Specify the path(s) to be tested");
+			}
+
+			for(HttpMethod method: filter.getMethods())
+				operations.add(Pair.with(filter.getPath(), method));
+		}
+		return operations;
+	}
+
+	// Filters for all the operations in the configuration file
+	private List<TestConfigurationFilter> getFilters() throws RESTestException {
 		List<TestConfigurationFilter> filters = new ArrayList<>();
 
 		// Create filters for all the operations in the API
@@ -218,12 +277,36 @@ public abstract class AbstractTestCaseGenerator {
 
 		}
 
-		return generate(filters);
+		return filters;
 	}
 
 
 	/* Generate test cases for testOperation */
-	protected abstract Collection<TestCase> generateOperationTestCases(Operation testOperation) throws RESTestException;
+	protected Collection<TestCase> generateOperationTestCases(Operation testOperation) throws RESTestException {
+
+		List<TestCase> testCases = new ArrayList<>();
+
+		startOperation(testOperation);
+
+		while (hasNext())
+			testCases.add(generateOperationTestCase(testOperation));
+
+		return testCases;
+	}
+
+	/* Prepare the generation of test cases for testOperation, once its test data generators have been created */
+	protected void startOperation(Operation testOperation) throws RESTestException {
+		// Reset counters for the current operation
+		resetOperation();
+	}
+
+	/* Generate the next test case for testOperation, set its authentication data and update the indexes */
+	protected TestCase generateOperationTestCase(Operation testOperation) throws RESTestException {
+		TestCase test = generateNextTestCase(testOperation);
+		authenticateTestCase(test);
+		updateIndexes(test);
+		return test;
+	}
 
 	/**
 	 * Generate the next test case and update the generation index. To be implemented on each subclass.
@@ -233,6 +316,11 @@ public abstract class AbstractTestCaseGenerator {
 
 	/* Generate test cases for the operation defined by path/method */
 	protected Collection<TestCase> generate(String path, HttpMethod method) throws RESTestException {
+		return generateOperationTestCases(setUpOperation(path, method));
+	}
+
+	/* Get the operation defined by path/method and create its test data generators */
+	private Operation setUpOperation(String path, HttpMethod method) {
 
 		// Get test configuration object for the operation
 		Operation testOperation = TestConfigurationVisitor.getOperation(conf, path, method.name());
@@ -243,8 +331,43 @@ public abstract class AbstractTestCaseGenerator {
 		// Update these booleans, which may differ for every operation
 		hasStatefulGenerators = hasStatefulGenerators(testOperation);
 
+		return testOperation;
+	}
+
+	/* Test cases generated on demand, operation by operation */
+	private class TestCaseIterator implements Iterator<TestCase> {
 
-		return generateOperationTestCases(testOperation);
+		private final Iterator<Pair<String, HttpMethod>> operations;	// Operations not started yet
+		private Operation testOperation;								// Operation being generated, null if none
+
+		private TestCaseIterator(List<Pair<String, HttpMethod>> operations) {
+			this.operations = operations.iterator();
+		}
+
+		@Override
+		public boolean hasNext() {
+			try {
+				while ((testOperation == null || !AbstractTestCaseGenerator.this.hasNext()) && operations.hasNext()) {
+					Pair<String, HttpMethod> operation = operations.next();
+					testOperation = setUpOperation(operation.getValue0(), operation.getValue1());
+					startOperation(testOperation);
+				}
+			} catch (RESTestException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+			return testOperation != null && AbstractTestCaseGenerator.this.hasNext();
+		}
+
+		@Override
+		public TestCase next() {
+			if (!hasNext())
+				throw new NoSuchElementException();
+			try {
+				return generateOperationTestCase(testOperation);
+			} catch (RESTestException e) {
+				throw new IllegalStateException(e.getMessage(), e);
+			}
+		}
 	}
 
 
@@ -290,7 +413,7 @@ public abstract class AbstractTestCaseGenerator {
 	 */
 	protected void checkTestCaseValidity(TestCase test) throws RESTestException {
 		if (!test.getFaulty() && checkTestCases && !hasStatefulGenerators) {
-			List<String> errors = test.getValidationErrors(OASAPIValidator.getValidator(spec));
+			List<String> errors = OASAPIValidator.getOperationValidator(spec, test.getPath(), test.getMethod()).getValidationErrors(test);
 			if (!errors.isEmpty()) {
 				throw new RESTestException("The test case generated does not conform to the specification: " + errors);
 			}
@@ -375,7 +498,8 @@ public abstract class AbstractTestCaseGenerator {
 				makeTestCaseFaultyDueToInvalidRequestBody(testCase, testOperation, bodyGenerator);
 			}
 			if (originalTest.equals(testCase)) { // Valid test case and mutate it
-				String mutationDescription = TestCaseMutation.mutate(testCase, testOperation.getOpenApiOperation());
+				String mutationDescription = testCaseMutations.computeIfAbsent(testOperation.getMethod() + " " + testOperation.getTestPath(),
+						k -> new TestCaseMutation(testOperation.getOpenApiOperation())).mutate(testCase);
 				if (!mutationDescription.equals("")) { // A mutation has been applied
 					testCase.setFaulty(true);
 					testCase.setFaultyReason(INDIVIDUAL_PARAMETER_CONSTRAINT + ":" + mutationDescription);
@@ -402,31 +526,64 @@ public abstract class AbstractTestCaseGenerator {
 		TestParameter bodyParam = testOperation.getTestParameters().stream().filter(x -> x.getName().equals("body")).findFirst().orElse(null);
 		List<String> errors = new ArrayList<>();
 
+		String violation = null;
+
 		if (bodyGenerator != null && bodyParam != null) {
+			OperationRequestValidator validator = OASAPIValidator.getOperationValidator(spec, testCase.getPath(), testCase.getMethod());
 			errors = new ArrayList<>();
+
+			// Violate a constraint of the schema of the current body, as long as the validator confirms it
+			InvalidBodyMutation bodyMutation = getInvalidBodyMutation(testOperation);
+			if (bodyMutation != null) {
+				List<String> mutationErrors = new ArrayList<>();
+				Pair<String, String> mutation = bodyMutation.mutate(testCase.getBodyParameter(), body -> {
+					testCase.addParameter(bodyParam, body);
+					mutationErrors.addAll(validator.getValidationErrors(testCase));
+					return !mutationErrors.isEmpty();
+				});
+				if (mutation != null) {
+					violation = mutation.getValue1();
+					errors = mutationErrors;
+				}
+			}
+
+			// Otherwise, generate bodies with the mutated schema or the perturbator until one is invalid
 			for (int i = 0; i < maxTriesPerTestCase && errors.isEmpty(); i++) {
 				if (bodyGenerator instanceof BodyGenerator)
 					testCase.addParameter(bodyParam, ((BodyGenerator) bodyGenerator).nextValueAsString(true));
 				else if (bodyGenerator instanceof ObjectPerturbator)
 					testCase.addParameter(bodyParam, bodyGenerator.nextValueAsString());
-				errors = testCase.getValidationErrors(OASAPIValidator.getValidator(spec));
+				errors = validator.getValidationErrors(testCase);
 			}
 			// No invalid body generated. Return null and try to generate faulty test case in different way
 			if (errors.isEmpty()) {
 				logger.warn("Maximum number of tries reached when trying to generate invalid JSON body for the operation {}", testOperation.getOpenApiOperation().getOperationId());
-				testCase = originalTest;
+				testCase.addParameter(bodyParam, originalTest.getBodyParameter());
 			}
 		}
 
 		if (!originalTest.equals(testCase)) {
 			testCase.setFaulty(true);
 			String errorsMsg = String.join(" --- ", errors);
-			testCase.setFaultyReason(INDIVIDUAL_PARAMETER_CONSTRAINT + ':' + " invalid request body: " + errorsMsg);
+			testCase.setFaultyReason(INDIVIDUAL_PARAMETER_CONSTRAINT + ':' + " invalid request body: " + (violation != null ? violation + " --- " : "") + errorsMsg);
 		}
 
 		return !originalTest.equals(testCase);
 	}
 
+	// Mutation of the JSON request body of an operation, null if the operation has no JSON request body
+	private InvalidBodyMutation getInvalidBodyMutation(Operation testOperation) {
+		String key = testOperation.getMethod() + " " + testOperation.getTestPath();
+		if (!invalidBodyMutations.containsKey(key)) {
+			InvalidBodyMutation bodyMutation = null;
+			MediaType mediaType = OpenAPISpecificationVisitor.getOperationFeatures(testOperation.getOpenApiOperation()).getJsonMediaType();
+			if (mediaType != null && mediaType.getSchema() != null)
+				bodyMutation = new InvalidBodyMutation(mediaType.getSchema(), spec.getSpecification(), rand);
+			invalidBodyMutations.put(key, bodyMutation);
+		}
+		return invalidBodyMutations.get(key);
+	}
+
 
     /* Try to perturbate input objects using the ObjectPerturbator. If not possible, set the parameter to the original object provided in the test configuration file */
 	private void perturbate(TestCase test, Operation testOperation) {
@@ -434,10 +591,11 @@ public abstract class AbstractTestCaseGenerator {
 		for (TestParameter confParam : testOperation.getTestParameters()) {
 			ITestDataGenerator generator = getRandomGenerator(nominalGenerators.get(Pair.with(confParam.getName(), confParam.getIn())));
 			if (generator instanceof ObjectPerturbator) {
+				OperationRequestValidator validator = OASAPIValidator.getOperationValidator(spec, test.getPath(), test.getMethod());
 				boolean valid = false;
 				for(int i=0;i<maxTriesPerTestCase && !valid; i++) {
 					test.addParameter(confParam, generator.nextValueAsString());
-					valid = test.isValid(OASAPIValidator.getValidator(spec));
+					valid = validator.isValid(test);
 				}
 
 				// No valid perturbations generated. Set original object
@@ -454,7 +612,7 @@ public abstract class AbstractTestCaseGenerator {
 		if (operation.getRequestBody() != null) {
 			if (operation.getRequestBody().getContent().containsKey("application/x-www-form-urlencoded"))
 				test.setInputFormat("application/x-www-form-urlencoded");
-			else if (operation.getRequestBody().getContent().keySet().stream().noneMatch(x -> x.matches(MEDIA_TYPE_APPLICATION_JSON_REGEX)))
+			else if (OpenAPISpecificationVisitor.getOperationFeatures(operation).getJsonMediaType() == null)
 				test.setInputFormat(operation.getRequestBody().getContent().keySet().stream().findFirst().get());
 		}
 	}
@@ -537,6 +695,7 @@ public abstract class AbstractTestCaseGenerator {
 						((BodyGenerator) gen).setSpec(spec);
 						((BodyGenerator) gen).setOpenApiOperation(operation.getOpenApiOperation());
 						((BodyGenerator) gen).setOperation("GET", operation.getTestPath());
+						((BodyGenerator) gen).setRandom(rand);
 					}
 					if (gen instanceof ParameterGenerator) {
 						((ParameterGenerator) gen).setDataDirPath(spec.getPath().substring(0, spec.getPath().lastIndexOf('/')));
@@ -545,6 +704,9 @@ public abstract class AbstractTestCaseGenerator {
 						((ParameterGenerator) gen).setParameterName(param.getName());
 						((ParameterGenerator) gen).setParameterType(OpenAPISpecificationVisitor.findParameterFeatures(operation.getOpenApiOperation(), param.getName(), param.getIn()).getType());
 					}
+					if (gen instanceof ObjectPerturbator) {
+						((ObjectPerturbator) gen).setRandom(rand);
+					}
 
 					if(g.isValid()) nomGens.add(gen);
 					else faultyGens.add(gen);
@@ -28,7 +28,6 @@ import java.util.*;
 import static es.us.isa.restest.inputs.fuzzing.FuzzingDictionary.getFuzzingValues;
 import static es.us.isa.restest.inputs.fuzzing.FuzzingDictionary.getNodeFromValue;
 import static es.us.isa.restest.util.SchemaManager.generateFullyResolvedSchema;
-import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.MEDIA_TYPE_APPLICATION_JSON_REGEX;
 
 /**
  * This class implements a generator of fuzzing test cases. It uses a customizable dictionary to obtain
@@ -41,6 +40,7 @@ public class FuzzingTestCaseGenerator extends AbstractTestCaseGenerator {
 
     private final ITestDataGenerator commonFuzzingGenerator; // Random strings to be used for all parameters
     private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Schema> bodySchemas = new HashMap<>();    // Fully resolved schemas of the JSON request bodies, indexed by operation
 
     private static Logger logger = LogManager.getLogger(FuzzingTestCaseGenerator.class.getName());
 
@@ -50,9 +50,7 @@ public class FuzzingTestCaseGenerator extends AbstractTestCaseGenerator {
     }
 
     @Override
-    protected Collection<TestCase> generateOperationTestCases(Operation testOperation) {
-
-        List<TestCase> testCases = new ArrayList<>();
+    protected void startOperation(Operation testOperation) {
 
         resetOperation();
 
@@ -69,18 +67,17 @@ public class FuzzingTestCaseGenerator extends AbstractTestCaseGenerator {
                 }
             }
         }
+    }
 
-        while (hasNext()) {
-            TestCase test = generateNextTestCase(testOperation);
-            test.setFulfillsDependencies(false);
-            test.setFaulty(false);
-
-            authenticateTestCase(test);
-            testCases.add(test);
-            updateIndexes(test);
-        }
-
-        return testCases;
+    @Override
+    protected TestCase generateOperationTestCase(Operation testOperation) {
+        TestCase test = generateNextTestCase(testOperation);
+        test.setFulfillsDependencies(false);
+        test.setFaulty(false);
+
+        authenticateTestCase(test);
+        updateIndexes(test);
+        return test;
     }
 
     @Override
@@ -102,15 +99,13 @@ public class FuzzingTestCaseGenerator extends AbstractTestCaseGenerator {
     }
 
     private void generateFuzzingBody(TestCase tc, TestParameter testParam, Operation testOperation) {
-        Map.Entry<String, MediaType> mediaTypeEntry = testOperation.getOpenApiOperation().getRequestBody().getContent().entrySet()
-                .stream().filter(x -> x.getKey().matches(MEDIA_TYPE_APPLICATION_JSON_REGEX)).findFirst().orElse(null);
-        MediaType requestBody = null;
-        if (mediaTypeEntry != null)
-            requestBody = mediaTypeEntry.getValue();
+        MediaType requestBody = OpenAPISpecificationVisitor.getOperationFeatures(testOperation.getOpenApiOperation()).getJsonMediaType();
 
         if (requestBody != null) {
             JsonNode node = null;
-            Schema schema = generateFullyResolvedSchema(requestBody.getSchema(), spec.getSpecification());
+            MediaType jsonRequestBody = requestBody;
+            Schema schema = bodySchemas.computeIfAbsent(testOperation.getMethod() + " " + testOperation.getTestPath(),
+                    k -> generateFullyResolvedSchema(jsonRequestBody.getSchema(), spec.getSpecification()));
             if ("array".equals(schema.getType()))
                 node = objectMapper.createArrayNode();
             else
@@ -144,7 +139,6 @@ public class FuzzingTestCaseGenerator extends AbstractTestCaseGenerator {
                     || (requiredProperties != null && requiredProperties.contains(entry.getKey())) // Req. property
                     || ((requiredProperties == null || !requiredProperties.contains(entry.getKey())) && rand.nextBoolean())) { // Optional property (50% prob.)
                 JsonNode childNode = null;
-                entry.setValue(generateFullyResolvedSchema(entry.getValue(), spec.getSpecification()));
                 if ("object".equals(entry.getValue().getType())) {
                     childNode = objectMapper.createObjectNode();
                     generateFuzzingBody(entry.getValue(), childNode, entry.getValue().getRequired());
@@ -2,10 +2,6 @@ package es.us.isa.restest.generators;
 
 import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.hasDependencies;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.List;
-
 import es.us.isa.restest.configuration.pojos.Operation;
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.specification.OpenAPISpecification;
@@ -21,40 +17,37 @@ public class RandomTestCaseGenerator extends AbstractTestCaseGenerator {
 	
 	public static final String INDIVIDUAL_PARAMETER_CONSTRAINT = "individual_parameter_constraint";
 
+	private boolean fulfillsDependencies;		// Whether the test cases of the current operation fulfill its dependencies
+
 	public RandomTestCaseGenerator(OpenAPISpecification spec, TestConfigurationObject conf, int nTests) {
 		super(spec, conf, nTests);
 	}
 
 	@Override
-	protected Collection<TestCase> generateOperationTestCases(Operation testOperation) throws RESTestException {
-
-		List<TestCase> testCases = new ArrayList<>();
+	protected void startOperation(Operation testOperation) throws RESTestException {
 
 		// Reset counters for the current operation
 		resetOperation();
 
-		boolean fulfillsDependencies = !hasDependencies(testOperation.getOpenApiOperation());
-		
-		while (hasNext()) {
+		fulfillsDependencies = !hasDependencies(testOperation.getOpenApiOperation());
+	}
 
-			// Create test case with specific parameters and values
-			//Timer.startCounting(TEST_CASE_GENERATION);
-			TestCase test = generateNextTestCase(testOperation);
-			test.setFulfillsDependencies(fulfillsDependencies);
-			//Timer.stopCounting(TEST_CASE_GENERATION);
+	@Override
+	protected TestCase generateOperationTestCase(Operation testOperation) throws RESTestException {
 
-			// Set authentication data (if any)
-			authenticateTestCase(test);
+		// Create test case with specific parameters and values
+		//Timer.startCounting(TEST_CASE_GENERATION);
+		TestCase test = generateNextTestCase(testOperation);
+		test.setFulfillsDependencies(fulfillsDependencies);
+		//Timer.stopCounting(TEST_CASE_GENERATION);
 
-			// Add test case to the collection
-			testCases.add(test);
+		// Set authentication data (if any)
+		authenticateTestCase(test);
 
-			// Update indexes
-			updateIndexes(test);
+		// Update indexes
+		updateIndexes(test);
 
-		}
-		
-		return testCases;
+		return test;
 	}
 	
 
@@ -9,8 +9,8 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
-import java.security.SecureRandom;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 
@@ -19,71 +19,63 @@ import java.util.Random;
  * an original, valid JSON object (generally used as input for an API operation)
  * and transform it into another JSON object (possibly invalid, but not guaranteed).
  * For the moment, only single-order perturbations are applied, i.e., only one
- * mutation is applied at a time.
+ * mutation is applied at a time. The original objects are never modified (the
+ * JsonMutator mutates a copy of them), so they are not copied before perturbing
+ * them, and their string representations are computed only once.
  *
  * @author Alberto Martin-Lopez
  */
 public class ObjectPerturbator implements ITestDataGenerator {
 
     private List<JsonNode> originalObjects;
+    private List<String> originalStringObjects; // String representations of the original objects
     private JsonMutator jsonMutator;
     private ObjectMapper objectMapper;
     private Boolean singleOrder = true; // True if single order mutation, false otherwise
-    private Random random = new SecureRandom();
+    private Random random = new Random();
 
-    private static final String LOGGER_ERROR_MSG = "An error occurred when deserializing JSON:";
+    private static final String DESERIALIZATION_ERROR_MSG = "An error occurred when deserializing JSON:";
     private static Logger logger = LogManager.getLogger(ObjectPerturbator.class.getName());
 
     public ObjectPerturbator() {
         this.objectMapper = new ObjectMapper();
         this.jsonMutator = new JsonMutator();
         this.originalObjects = new ArrayList<>();
+        this.originalStringObjects = new ArrayList<>();
     }
 
     public ObjectPerturbator(JsonNode originalObject) {
         this();
-        this.originalObjects.add(originalObject);
+        addOriginalObject(originalObject);
     }
 
     public ObjectPerturbator(Object originalObject) {
         this();
-        JsonNode jsonObject = objectMapper.valueToTree(originalObject);
-        originalObjects.add(jsonObject);
+        addOriginalObject(originalObject);
     }
 
+    /**
+     * @param originalObject JSON object
+     * @throws IllegalArgumentException if the object is not a valid JSON
+     */
     public ObjectPerturbator(String originalObject) {
         this();
-        try {
-            JsonNode jsonObject = objectMapper.readTree(originalObject);
-            originalObjects.add(jsonObject);
-        } catch (IOException e) {
-            logger.error(LOGGER_ERROR_MSG);
-            logger.error(e.getMessage(), e);
-            System.exit(1);
-        }
+        addOriginalObject(originalObject);
     }
 
+    /**
+     * @param stringObjects JSON objects
+     * @throws IllegalArgumentException if any of the objects is not a valid JSON
+     */
     public ObjectPerturbator(List<String> stringObjects) {
         this();
-        try {
-            for(String stringObject : stringObjects) {
-                JsonNode jsonObject = objectMapper.readTree(stringObject);
-                this.originalObjects.add(jsonObject);
-            }
-        } catch (IOException e) {
-            logger.error(LOGGER_ERROR_MSG);
-            logger.error(e.getMessage(), e);
-            System.exit(1);
-        }
+        setOriginalObjects(stringObjects);
     }
 
     @Override
     public JsonNode nextValue() {
         int index = random.nextInt(originalObjects.size());
-        JsonNode beforeMutating = originalObjects.get(index).deepCopy();
-        JsonNode afterMutating = jsonMutator.mutateJson(originalObjects.get(index), singleOrder);
-        originalObjects.set(index, beforeMutating);
-        return afterMutating;
+        return jsonMutator.mutateJson(originalObjects.get(index), singleOrder);
     }
 
     @Override
@@ -97,7 +89,7 @@ public class ObjectPerturbator implements ITestDataGenerator {
     }
 
     public List<JsonNode> getOriginalObjects() {
-        return originalObjects;
+        return Collections.unmodifiableList(originalObjects);
     }
 
     public JsonNode getRandomOriginalObject() {
@@ -106,54 +98,51 @@ public class ObjectPerturbator implements ITestDataGenerator {
     }
 
     public List<String> getOriginalStringObjects() {
-        List<String> stringObjects = new ArrayList<>();
-        try {
-            for(JsonNode originalObject : originalObjects) {
-                stringObjects.add(objectMapper.writeValueAsString(originalObject));
-            }
-        } catch (JsonProcessingException e) {
-            logger.error(e.getMessage(), e);
-        }
-        return stringObjects;
+        return new ArrayList<>(originalStringObjects);
     }
 
     public String getRandomOriginalStringObject() {
+        return originalStringObjects.get(random.nextInt(originalStringObjects.size()));
+    }
+
+    public void addOriginalObject(JsonNode originalObject) {
+        String stringObject = null;
         try {
-            return objectMapper.writeValueAsString(getRandomOriginalObject());
+            stringObject = objectMapper.writeValueAsString(originalObject);
         } catch (JsonProcessingException e) {
             logger.error(e.getMessage(), e);
         }
-        return null;
-    }
-
-    public void addOriginalObject(JsonNode originalObject) {
         this.originalObjects.add(originalObject);
+        this.originalStringObjects.add(stringObject);
     }
 
     public void addOriginalObject(Object originalObject) {
-        this.originalObjects.add(objectMapper.valueToTree(originalObject));
+        addOriginalObject((JsonNode) objectMapper.valueToTree(originalObject));
     }
 
+    /**
+     * @param originalObject JSON object
+     * @throws IllegalArgumentException if the object is not a valid JSON
+     */
     public void addOriginalObject(String originalObject) {
-        try {
-            this.originalObjects.add(objectMapper.readTree(originalObject));
-        } catch (IOException e) {
-            logger.error(LOGGER_ERROR_MSG);
-            logger.error(e.getMessage(), e);
-            System.exit(1);
-        }
+        addOriginalObject(readJson(originalObject));
     }
 
+    /**
+     * @param stringObjects JSON objects
+     * @throws IllegalArgumentException if any of the objects is not a valid JSON
+     */
     public void setOriginalObjects(List<String> stringObjects) {
+        for(String stringObject : stringObjects) {
+            addOriginalObject(stringObject);
+        }
+    }
+
+    private JsonNode readJson(String stringObject) {
         try {
-            for(String stringObject : stringObjects) {
-                JsonNode jsonObject = objectMapper.readTree(stringObject);
-                this.originalObjects.add(jsonObject);
-            }
+            return objectMapper.readTree(stringObject);
         } catch (IOException e) {
-            logger.error(LOGGER_ERROR_MSG);
-            logger.error(e.getMessage(), e);
-            System.exit(1);
+            throw new IllegalArgumentException(DESERIALIZATION_ERROR_MSG + " " + e.getMessage(), e);
         }
     }
 
@@ -164,4 +153,12 @@ public class ObjectPerturbator implements ITestDataGenerator {
     public void setSingleOrder(Boolean singleOrder) {
         this.singleOrder = singleOrder;
     }
+
+    /**
+     * Set the random source used to choose the objects to perturb (e.g., the seeded random
+     * source of the test case generator, for reproducibility).
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+    }
 }
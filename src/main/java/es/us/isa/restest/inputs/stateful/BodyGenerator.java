@@ -26,7 +26,7 @@ import static es.us.isa.restest.inputs.fuzzing.FuzzingDictionary.getNodeFuzzingV
 import static es.us.isa.restest.inputs.stateful.DataMatching.getParameterValue;
 import static es.us.isa.restest.util.FileManager.checkIfExists;
 import static es.us.isa.restest.util.SchemaManager.resolveSchema;
-import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.MEDIA_TYPE_APPLICATION_JSON_REGEX;
+import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.getOperationFeatures;
 
 
 public class BodyGenerator implements ITestDataGenerator {
@@ -43,6 +43,8 @@ public class BodyGenerator implements ITestDataGenerator {
     Random random;
     ObjectMapper objectMapper = new ObjectMapper();
 
+    private SchemaMutation schemaMutation;  // Mutation of the schema of the request body, created once
+
     private static final Logger logger = LogManager.getLogger(BodyGenerator.class);
     private static final String DOT_CONVERSION = "(dot)";
 
@@ -64,14 +66,10 @@ public class BodyGenerator implements ITestDataGenerator {
         }
 
         ObjectNode dictNode = operationPath != null && FileManager.checkIfExists(jsonPath)? (ObjectNode) JSONManager.readJSON(jsonPath) : objectMapper.createObjectNode();
-        Map.Entry<String, MediaType> mediaTypeEntry = openApiOperation.getRequestBody().getContent().entrySet()
-                .stream().filter(x -> x.getKey().matches(MEDIA_TYPE_APPLICATION_JSON_REGEX)).findFirst().orElse(null);
-        MediaType requestBody = null;
-        if (mediaTypeEntry != null)
-            requestBody = mediaTypeEntry.getValue();
+        MediaType requestBody = getRequestBody();
 
         if (requestBody != null) {
-            Schema mutatedSchema = mutate? new SchemaMutation(requestBody.getSchema(), spec.getSpecification()).mutate() : resolveSchema(requestBody.getSchema(), spec.getSpecification());
+            Schema mutatedSchema = mutate? getSchemaMutation(requestBody).mutate() : resolveSchema(requestBody.getSchema(), spec.getSpecification());
             JsonNode rootNode = null;
             if ("array".equals(mutatedSchema.getType()))
                 rootNode = objectMapper.createArrayNode();
@@ -141,11 +139,7 @@ public class BodyGenerator implements ITestDataGenerator {
 
     private JsonNode createNodeFromExample(Schema<?> schema, String prefix) {
         JsonNode node = objectMapper.getNodeFactory().nullNode();
-        Map.Entry<String, MediaType> mediaTypeEntry = openApiOperation.getRequestBody().getContent().entrySet()
-                .stream().filter(x -> x.getKey().matches(MEDIA_TYPE_APPLICATION_JSON_REGEX)).findFirst().orElse(null);
-        MediaType requestBody = null;
-        if (mediaTypeEntry != null)
-            requestBody = mediaTypeEntry.getValue();
+        MediaType requestBody = getRequestBody();
 
         //Looking for parameter example
         if (schema.getExample() != null) {
@@ -211,6 +205,16 @@ public class BodyGenerator implements ITestDataGenerator {
         return node;
     }
 
+    private MediaType getRequestBody() {
+        return getOperationFeatures(openApiOperation).getJsonMediaType();
+    }
+
+    private SchemaMutation getSchemaMutation(MediaType requestBody) {
+        if (schemaMutation == null)
+            schemaMutation = new SchemaMutation(requestBody.getSchema(), spec.getSpecification(), random);
+        return schemaMutation;
+    }
+
     @Override
     public String nextValueAsString() {
         String value = null;
@@ -237,10 +241,21 @@ public class BodyGenerator implements ITestDataGenerator {
 
     public void setOpenApiOperation(Operation operation) {
         this.openApiOperation = operation;
+        this.schemaMutation = null;
     }
 
     public void setSpec(OpenAPISpecification spec) {
         this.spec = spec;
+        this.schemaMutation = null;
+    }
+
+    /**
+     * Set the random source used to generate the bodies and to mutate their schemas (e.g., the
+     * seeded random source of the test case generator, for reproducibility).
+     */
+    public void setRandom(Random random) {
+        this.random = random;
+        this.schemaMutation = null;
     }
 
     public void setDefaultValue(String defaultValue) {
@@ -60,6 +60,8 @@ public class TestGenerationAndExecution {
 	private static Boolean logToFile;									// If 'true', log messages will be printed to external files
 	private static boolean executeTestCases;							// If 'false', test cases will be generated but not executed
 	private static boolean allureReports;								// If 'true', Allure reports will be generated
+	private static boolean allureReportsAsync;							// If 'true', Allure reports will be generated in the background
+	private static int allureReportsInterval;							// Minimum number of seconds between two Allure reports generated in the background
 	private static boolean checkTestCases;								// If 'true', test cases will be checked with OASValidator before executing them
 	private static String proxy;										// Proxy to use for all requests in format host:port
 
@@ -137,6 +139,8 @@ public class TestGenerationAndExecution {
 			iteration++;
 		}
 
+		runner.finishReports();
+
 		Timer.stopCounting(ALL);
 
 		generateTimeReport(iteration-1);
@@ -231,6 +235,8 @@ public class TestGenerationAndExecution {
 			arm = new AllureReportManager(allureResultsDir, allureReportDir, authProperties);
 			arm.setEnvironmentProperties(propertiesFilePath);
 			arm.setHistoryTrend(true);
+			arm.setAsync(allureReportsAsync);
+			arm.setReportInterval(allureReportsInterval);
 		}
 		return arm;
 	}
@@ -252,8 +258,14 @@ public class TestGenerationAndExecution {
 
 		CoverageMeter coverageMeter = enableInputCoverage || enableOutputCoverage ? new CoverageMeter(new CoverageGatherer(spec)) : null;
 
-		return new StatsReportManager(testDataDir, coverageDataDir, enableCSVStats, enableInputCoverage,
+		StatsReportManager statsReportManager = new StatsReportManager(testDataDir, coverageDataDir, enableCSVStats, enableInputCoverage,
 					enableOutputCoverage, coverageMeter);
+
+		// Update output coverage while test cases are executed
+		if (enableOutputCoverage && executeTestCases)
+			statsReportManager.enableLiveCoverage();
+
+		return statsReportManager;
 	}
 
 	private static void generateTimeReport(Integer iterations) {
@@ -317,6 +329,13 @@ public class TestGenerationAndExecution {
 		}
 		logger.info("Allure reports: {}", allureReports);
 
+		allureReportsAsync = Boolean.parseBoolean(readParameterValue("allure.report.async"));
+		logger.info("Allure reports in the background: {}", allureReportsAsync);
+
+		if (readParameterValue("allure.report.interval") != null)
+			allureReportsInterval = Integer.parseInt(readParameterValue("allure.report.interval"));
+		logger.info("Allure reports interval: {}", allureReportsInterval);
+
 		if (readParameterValue("proxy") != null) {
 			proxy = readParameterValue("proxy");
 			if ("null".equals(proxy) || proxy.split(":").length != 2)
@@ -0,0 +1,254 @@
+package es.us.isa.restest.mutation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.ArraySchema;
+import io.swagger.v3.oas.models.media.Schema;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.javatuples.Pair;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static es.us.isa.restest.util.SchemaManager.generateFullyResolvedSchema;
+
+/**
+ * Makes a JSON request body invalid by violating one of the constraints of its schema (type,
+ * enum, minimum/maximum, length, number of items, required and additional properties). Unlike
+ * {@link SchemaMutation}, the violation is chosen among the constraints applicable to the body
+ * passed in, so the body returned violates the schema by construction. Constraints under
+ * combinators (allOf, anyOf, oneOf) and untyped schemas are never violated.
+ */
+public class InvalidBodyMutation {
+
+    private static final String UNEXPECTED_PROPERTY = "restestUnexpectedProperty";
+
+    private final Random random;
+    private final Schema<?> schema;                     // Fully resolved schema of the body
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
+    public InvalidBodyMutation(Schema<?> schema, OpenAPI spec) {
+        this(schema, spec, new SecureRandom());
+    }
+
+    public InvalidBodyMutation(Schema<?> schema, OpenAPI spec, Random random) {
+        this.schema = generateFullyResolvedSchema(schema, spec);
+        this.random = random;
+    }
+
+    /**
+     * Violate one of the constraints of the schema applicable to a body.
+     * @param body Valid JSON body
+     * @return The invalid body and the description of the constraint violated, or {@code null}
+     * if the body is not JSON or no constraint can be violated
+     */
+    public Pair<String, String> mutate(String body) {
+        return mutate(body, b -> true);
+    }
+
+    /**
+     * Violate one of the constraints of the schema applicable to a body, trying the constraints
+     * in random order until the invalid body is accepted (e.g., confirmed invalid by a validator).
+     * @param body Valid JSON body
+     * @param accept Condition the invalid body must fulfill
+     * @return The invalid body and the description of the constraint violated, or {@code null}
+     * if the body is not JSON or no invalid body is accepted
+     */
+    public Pair<String, String> mutate(String body, Predicate<String> accept) {
+        JsonNode root;
+        try {
+            root = body != null ? objectMapper.readTree(body) : null;
+        } catch (IOException e) {
+            return null;
+        }
+        if (root == null)
+            return null;
+
+        List<Violation> violations = new ArrayList<>();
+        collectViolations(schema, root, "body", null, violations);
+        Collections.shuffle(violations, random);
+
+        for (Violation violation: violations) {
+            String mutatedBody = violation.apply(root.deepCopy()).toString();
+            if (accept.test(mutatedBody))
+                return Pair.with(mutatedBody, violation.description);
+        }
+        return null;
+    }
+
+    private void collectViolations(Schema<?> schema, JsonNode node, String location, List<Object> path, List<Violation> violations) {
+        String type = schema.getType();
+        if (type == null || (node.isNull() && Boolean.TRUE.equals(schema.getNullable())))
+            return;
+        List<Object> nodePath = path != null ? path : new ArrayList<>();
+
+        violations.add(new Violation(nodePath, n -> invalidType(type), "Changed " + location + " to a value of a type different from '" + type + "'"));
+
+        if (schema.getEnum() != null && !schema.getEnum().isEmpty() && "string".equals(type)) {
+            String value = randomAlphabetic(10 + random.nextInt(10));
+            if (schema.getEnum().stream().noneMatch(e -> value.equals(String.valueOf(e))))
+                violations.add(new Violation(nodePath, n -> nodeFactory.textNode(value), "Changed " + location + " to a value out of its enum"));
+        }
+
+        switch (type) {
+            case "integer":
+            case "number":
+                addNumericViolations(schema, type, location, nodePath, violations);
+                break;
+            case "string":
+                addStringViolations(schema, location, nodePath, violations);
+                break;
+            case "array":
+                if (node.isArray() && schema instanceof ArraySchema)
+                    addArrayViolations((ArraySchema) schema, (ArrayNode) node, location, nodePath, violations);
+                break;
+            case "object":
+                if (node.isObject())
+                    addObjectViolations(schema, (ObjectNode) node, location, nodePath, violations);
+                break;
+            default:
+        }
+    }
+
+    private void addNumericViolations(Schema<?> schema, String type, String location, List<Object> path, List<Violation> violations) {
+        if (schema.getMaximum() != null) {
+            BigDecimal value = schema.getMaximum().add(BigDecimal.valueOf(random.nextInt(10) + 1));
+            violations.add(new Violation(path, n -> numberNode(value, type), "Violated 'maximum' constraint of " + location));
+        }
+        if (schema.getMinimum() != null) {
+            BigDecimal value = schema.getMinimum().subtract(BigDecimal.valueOf(random.nextInt(10) + 1));
+            violations.add(new Violation(path, n -> numberNode(value, type), "Violated 'minimum' constraint of " + location));
+        }
+    }
+
+    private void addStringViolations(Schema<?> schema, String location, List<Object> path, List<Violation> violations) {
+        if (schema.getEnum() != null && !schema.getEnum().isEmpty())
+            return;
+        if (schema.getMaxLength() != null) {
+            String value = randomAlphabetic(schema.getMaxLength() + random.nextInt(10) + 1);
+            violations.add(new Violation(path, n -> nodeFactory.textNode(value), "Violated 'maxLength' constraint of " + location));
+        }
+        if (schema.getMinLength() != null && schema.getMinLength() > 0) {
+            String value = randomAlphabetic(schema.getMinLength() - 1);
+            violations.add(new Violation(path, n -> nodeFactory.textNode(value), "Violated 'minLength' constraint of " + location));
+        }
+    }
+
+    private void addArrayViolations(ArraySchema schema, ArrayNode node, String location, List<Object> path, List<Violation> violations) {
+        if (node.size() > 0) {
+            if (schema.getMaxItems() != null || Boolean.TRUE.equals(schema.getUniqueItems())) {
+                int size = schema.getMaxItems() != null ? Math.max(schema.getMaxItems() + 1, node.size() + 1) : node.size() + 1;
+                violations.add(new Violation(path, n -> {
+                    ArrayNode array = (ArrayNode) n;
+                    while (array.size() < size)
+                        array.add(array.get(0).deepCopy());
+                    return array;
+                }, "Violated '" + (schema.getMaxItems() != null ? "maxItems" : "uniqueItems") + "' constraint of " + location));
+            }
+            if (schema.getMinItems() != null && schema.getMinItems() > 0 && node.size() >= schema.getMinItems()) {
+                int size = schema.getMinItems() - 1;
+                violations.add(new Violation(path, n -> {
+                    ArrayNode array = (ArrayNode) n;
+                    while (array.size() > size)
+                        array.remove(array.size() - 1);
+                    return array;
+                }, "Violated 'minItems' constraint of " + location));
+            }
+        }
+
+        if (schema.getItems() != null)
+            for (int i = 0; i < node.size(); i++)
+                collectViolations(schema.getItems(), node.get(i), location + "[" + i + "]", childPath(path, i), violations);
+    }
+
+    private void addObjectViolations(Schema<?> schema, ObjectNode node, String location, List<Object> path, List<Violation> violations) {
+        if (schema.getRequired() != null)
+            for (String required: schema.getRequired())
+                if (node.has(required))
+                    violations.add(new Violation(path, n -> {
+                        ((ObjectNode) n).remove(required);
+                        return n;
+                    }, "Removed required property " + location + "." + required));
+
+        if (Boolean.FALSE.equals(schema.getAdditionalProperties()) && !node.has(UNEXPECTED_PROPERTY))
+            violations.add(new Violation(path, n -> ((ObjectNode) n).put(UNEXPECTED_PROPERTY, "value"),
+                    "Added property " + location + "." + UNEXPECTED_PROPERTY + " not allowed by 'additionalProperties'"));
+
+        if (schema.getProperties() != null)
+            for (Map.Entry<String, Schema> property: schema.getProperties().entrySet())
+                if (node.has(property.getKey()))
+                    collectViolations(property.getValue(), node.get(property.getKey()), location + "." + property.getKey(), childPath(path, property.getKey()), violations);
+    }
+
+    private JsonNode invalidType(String type) {
+        switch (type) {
+            case "string":
+                return random.nextBoolean() ? nodeFactory.numberNode(random.nextInt(10000)) : nodeFactory.booleanNode(random.nextBoolean());
+            case "object":
+                return random.nextBoolean() ? nodeFactory.arrayNode() : nodeFactory.textNode(randomAlphabetic(10 + random.nextInt(10)));
+            case "array":
+                return random.nextBoolean() ? nodeFactory.objectNode() : nodeFactory.textNode(randomAlphabetic(10 + random.nextInt(10)));
+            default:
+                return random.nextBoolean() ? nodeFactory.textNode(randomAlphabetic(10 + random.nextInt(10))) : nodeFactory.arrayNode();
+        }
+    }
+
+    private JsonNode numberNode(BigDecimal value, String type) {
+        return "integer".equals(type) ? nodeFactory.numberNode(value.toBigInteger()) : nodeFactory.numberNode(value);
+    }
+
+    // Alphabetic strings drawn from the random source of the mutation, so that mutations can be reproduced
+    private String randomAlphabetic(int length) {
+        return RandomStringUtils.random(length, 0, 0, true, false, null, random);
+    }
+
+    private static List<Object> childPath(List<Object> path, Object child) {
+        List<Object> childPath = new ArrayList<>(path);
+        childPath.add(child);
+        return childPath;
+    }
+
+    // Replacement of the node found at a path (property names and array indexes) of the body
+    private static class Violation {
+        private final List<Object> path;
+        private final Function<JsonNode, JsonNode> replacement;
+        private final String description;
+
+        private Violation(List<Object> path, Function<JsonNode, JsonNode> replacement, String description) {
+            this.path = path;
+            this.replacement = replacement;
+            this.description = description;
+        }
+
+        private JsonNode apply(JsonNode root) {
+            if (path.isEmpty())
+                return replacement.apply(root);
+
+            JsonNode parent = root;
+            for (Object part: path.subList(0, path.size() - 1))
+                parent = part instanceof Integer ? parent.get((Integer) part) : parent.get((String) part);
+
+            Object last = path.get(path.size() - 1);
+            if (last instanceof Integer) {
+                int index = (Integer) last;
+                ((ArrayNode) parent).set(index, replacement.apply(parent.get(index)));
+            } else {
+                ((ObjectNode) parent).set((String) last, replacement.apply(parent.get((String) last)));
+            }
+            return root;
+        }
+    }
+}
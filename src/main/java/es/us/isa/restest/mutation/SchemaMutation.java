@@ -2,36 +2,46 @@ package es.us.isa.restest.mutation;
 
 import es.us.isa.restest.mutation.pipelines.DropSelectTypePipeline;
 import es.us.isa.restest.mutation.rules.DuplicateRule;
-import es.us.isa.restest.util.SchemaManager;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.media.Schema;
 
 import java.security.SecureRandom;
 import java.util.Random;
 
+import static es.us.isa.restest.util.SchemaManager.copyFullyResolvedSchema;
 import static es.us.isa.restest.util.SchemaManager.generateFullyResolvedSchema;
 
+/**
+ * Mutates a schema with the DROP_SELECT_TYPE and DUPLICATE pipelines. The schema is fully
+ * resolved once, when the mutation is created, and each mutated variant is applied on a copy
+ * of it, so the same mutation should be reused for all the schemas generated for an operation.
+ */
 public class SchemaMutation {
 
-    private final Random random = new SecureRandom();
+    private final Random random;
 
-    private Schema schema;
+    private Schema resolvedSchema;          // Fully resolved schema, never mutated
     private OpenAPI spec;
 
     public SchemaMutation(Schema schema, OpenAPI spec) {
-        this.schema = schema;
+        this(schema, spec, new SecureRandom());
+    }
+
+    public SchemaMutation(Schema schema, OpenAPI spec, Random random) {
+        this.resolvedSchema = generateFullyResolvedSchema(schema, spec);
         this.spec = spec;
+        this.random = random;
     }
 
     public Schema mutate() {
         MutationPipeline mutation = MutationPipeline.values()[random.nextInt(MutationPipeline.values().length)];
-        Schema mutatedSchema = generateFullyResolvedSchema(schema, spec);
+        Schema mutatedSchema = copyFullyResolvedSchema(resolvedSchema);
         switch (mutation) {
             case DUPLICATE:
-                DuplicateRule.getInstance().apply(mutatedSchema, true, spec);
+                DuplicateRule.getInstance().apply(mutatedSchema, true, spec, random);
                 break;
             case DROP_SELECT_TYPE:
-                DropSelectTypePipeline.getInstance().apply(mutatedSchema, spec);
+                DropSelectTypePipeline.getInstance().apply(mutatedSchema, spec, random);
                 break;
             default:
         }
@@ -43,5 +53,3 @@ public class SchemaMutation {
         DROP_SELECT_TYPE, DUPLICATE
     }
 }
-
-
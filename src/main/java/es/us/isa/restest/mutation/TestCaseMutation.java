@@ -1,13 +1,19 @@
 package es.us.isa.restest.mutation;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.function.BiFunction;
 
 import es.us.isa.restest.mutation.operators.invalidvalue.InvalidParameterValue;
 import es.us.isa.restest.mutation.operators.RemoveRequiredParameter;
+import es.us.isa.restest.specification.OpenAPIParameter;
 import es.us.isa.restest.testcases.TestCase;
 import io.swagger.v3.oas.models.Operation;
+import org.javatuples.Pair;
+
+import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.getRequiredNotPathParametersFeatures;
 
 /**
  * This class implements method for mutating a test case based on a set of mutation operators.
@@ -19,7 +25,19 @@ public class TestCaseMutation {
 	private static final String INVALID_VALUE = "INVALID_VALUE";
 	private static final String REMOVE_REQUIRED_PARAMETER = "REMOVE_REQUIRED_PARAMETER";
 	private static final String[] mutationOperators= {INVALID_VALUE, REMOVE_REQUIRED_PARAMETER};
-	
+
+	private final List<Pair<OpenAPIParameter, BiFunction<TestCase, OpenAPIParameter, String>>> invalidValueCandidates; // Parameters that can be changed for invalid values, and their operators
+	private final List<OpenAPIParameter> removableParameters;	// Required parameters that can be removed (i.e., not in path)
+
+	/**
+	 * Precomputes the parameters of an operation that can be mutated, so that all the test cases
+	 * of the operation can be mutated without analyzing its parameters again.
+	 * @param specOperation OpenAPI operation of the test cases to mutate.
+	 */
+	public TestCaseMutation(Operation specOperation) {
+		this.invalidValueCandidates = InvalidParameterValue.getCandidates(specOperation);
+		this.removableParameters = getRequiredNotPathParametersFeatures(specOperation);
+	}
 
     /**
      * Given a valid (nominal) test case, if possible, mutate it and convert it into an invalid (faulty) test case.
@@ -36,20 +54,29 @@ public class TestCaseMutation {
      * @return a string indicating the mutation operator applied, empty if none.
      */
 	public static String mutate(TestCase testCase, Operation specOperation) {
+		return new TestCaseMutation(specOperation).mutate(testCase);
+	}
+
+	/**
+	 * Same as {@link #mutate(TestCase, Operation)}, for a test case of the operation of this mutation.
+	 * @param testCase Original valid test case. It should be cloned before calling this method.
+	 * @return a string indicating the mutation operator applied, empty if none.
+	 */
+	public String mutate(TestCase testCase) {
 		String mutationApplied = "";
 
 		// Shuffle list of operators
-		List<String> operators = Arrays.asList(mutationOperators);
+		List<String> operators = new ArrayList<>(Arrays.asList(mutationOperators));
 		Collections.shuffle(operators);
 		
 		int index = 0;
 		while (index<operators.size() && mutationApplied.equals("")) {
 			switch(operators.get(index)) {
 				case INVALID_VALUE:
-					mutationApplied = InvalidParameterValue.mutate(testCase, specOperation);
+					mutationApplied = InvalidParameterValue.mutate(testCase, invalidValueCandidates);
 					break;
 				case REMOVE_REQUIRED_PARAMETER:
-					mutationApplied = RemoveRequiredParameter.mutate(testCase, specOperation);
+					mutationApplied = RemoveRequiredParameter.mutate(testCase, removableParameters);
 					break;
 				default:
 			}
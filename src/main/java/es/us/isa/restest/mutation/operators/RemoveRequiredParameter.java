@@ -26,8 +26,18 @@ public class RemoveRequiredParameter extends AbstractMutationOperator {
      * @return True if the mutation was applied, false otherwise.
      */
     public static String mutate(TestCase tc, Operation specOperation) {
-        List<OpenAPIParameter> candidateParameters = getRequiredNotPathParametersFeatures(specOperation); // Path parameters cannot be removed
-        
+        return mutate(tc, getRequiredNotPathParametersFeatures(specOperation)); // Path parameters cannot be removed
+    }
+
+    /**
+     * Same as {@link #mutate(TestCase, Operation)}, but selecting the parameter among
+     * candidates previously computed (e.g., with getRequiredNotPathParametersFeatures).
+     *
+     * @param tc Test case to mutate.
+     * @param candidateParameters Required parameters that can be removed.
+     * @return Description of the mutation applied, "" if none applied.
+     */
+    public static String mutate(TestCase tc, List<OpenAPIParameter> candidateParameters) {
         // No required parameters. Mutation not applicable
         if (candidateParameters.isEmpty())
         	return "";
@@ -4,9 +4,12 @@ import es.us.isa.restest.mutation.operators.AbstractMutationOperator;
 import es.us.isa.restest.specification.OpenAPIParameter;
 import es.us.isa.restest.testcases.TestCase;
 import io.swagger.v3.oas.models.Operation;
+import org.javatuples.Pair;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BiFunction;
 
 import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.getParametersFeaturesSubjectToInvalidValueChange;
 
@@ -32,25 +35,54 @@ public class InvalidParameterValue extends AbstractMutationOperator {
      * @return Description of the mutation applied, "" if none applied.
      */
     public static String mutate(TestCase tc, Operation specOperation) {
-        List<OpenAPIParameter> candidateParameters = getParametersFeaturesSubjectToInvalidValueChange(specOperation); // Parameters that can be mutated to create a faulty test case
-        
+        return mutate(tc, getCandidates(specOperation));
+    }
+
+    /**
+     * Same as {@link #mutate(TestCase, Operation)}, but selecting the parameter among
+     * candidates previously computed with {@link #getCandidates(Operation)}.
+     *
+     * @param tc Test case to mutate.
+     * @param candidateParameters Parameters that can be mutated, and the operators to mutate them.
+     * @return Description of the mutation applied, "" if none applied.
+     */
+    public static String mutate(TestCase tc, List<Pair<OpenAPIParameter, BiFunction<TestCase, OpenAPIParameter, String>>> candidateParameters) {
         if (candidateParameters.isEmpty())
         	return "";
-        	
-        OpenAPIParameter selectedParam = candidateParameters.get(ThreadLocalRandom.current().nextInt(0, candidateParameters.size())); // Select one randomly
-
-        if (selectedParam.getEnumValues() != null) // Value of enum range
-            return EnumToInvalid.mutate(tc, selectedParam);
-        else if (selectedParam.getType().equals(BOOLEAN_TYPE)) // Boolean
-            return BooleanToInvalid.mutate(tc, selectedParam);
-        else if (selectedParam.getType().equals(INTEGER_TYPE)) // Integer
-            return IntegerToInvalid.mutate(tc, selectedParam);
-        else if (selectedParam.getType().equals(NUMBER_TYPE)) // Number
-            return NumberToInvalid.mutate(tc, selectedParam);
-        else if (selectedParam.getType().equals(STRING_TYPE)) // String
-            return StringToInvalid.mutate(tc, selectedParam);
-
-        return "";
-        
+
+        Pair<OpenAPIParameter, BiFunction<TestCase, OpenAPIParameter, String>> selectedParam = candidateParameters.get(ThreadLocalRandom.current().nextInt(0, candidateParameters.size())); // Select one randomly
+        return selectedParam.getValue1().apply(tc, selectedParam.getValue0());
+    }
+
+    /**
+     * Returns the parameters of an operation that can be mutated to create a faulty test
+     * case, along with the operator that inserts invalid values into each of them.
+     *
+     * @param specOperation OpenAPI operation.
+     * @return Parameters that can be mutated, and the operators to mutate them.
+     */
+    public static List<Pair<OpenAPIParameter, BiFunction<TestCase, OpenAPIParameter, String>>> getCandidates(Operation specOperation) {
+        List<Pair<OpenAPIParameter, BiFunction<TestCase, OpenAPIParameter, String>>> candidateParameters = new ArrayList<>();
+        for (OpenAPIParameter param: getParametersFeaturesSubjectToInvalidValueChange(specOperation)) {
+            BiFunction<TestCase, OpenAPIParameter, String> operator = getOperator(param);
+            if (operator != null)
+                candidateParameters.add(Pair.with(param, operator));
+        }
+        return candidateParameters;
+    }
+
+    private static BiFunction<TestCase, OpenAPIParameter, String> getOperator(OpenAPIParameter param) {
+        if (param.getEnumValues() != null) // Value of enum range
+            return EnumToInvalid::mutate;
+        else if (param.getType().equals(BOOLEAN_TYPE)) // Boolean
+            return BooleanToInvalid::mutate;
+        else if (param.getType().equals(INTEGER_TYPE)) // Integer
+            return IntegerToInvalid::mutate;
+        else if (param.getType().equals(NUMBER_TYPE)) // Number
+            return NumberToInvalid::mutate;
+        else if (param.getType().equals(STRING_TYPE)) // String
+            return StringToInvalid::mutate;
+
+        return null;
     }
 }
@@ -25,12 +25,20 @@ public class DropSelectTypePipeline {
     private static final Random random = new SecureRandom();
 
     public void apply(Schema<?> schema, OpenAPI spec) {
-        DropRule.getInstance().apply(schema, spec);
+        apply(schema, spec, random);
+    }
+
+    /**
+     * Apply the pipeline drawing all its random choices (including the ones of the rules) from
+     * the given random source.
+     */
+    public void apply(Schema<?> schema, OpenAPI spec, Random random) {
+        DropRule.getInstance().apply(schema, spec, random);
         if (random.nextDouble() > 0.5) {
-            SelectRule.getInstance().apply(schema, spec);
+            SelectRule.getInstance().apply(schema, spec, random);
         }
         if (random.nextDouble() > 0.1) {
-            TypeRule.getInstance().apply(schema, false, spec);
+            TypeRule.getInstance().apply(schema, false, spec, random);
         }
     }
 }
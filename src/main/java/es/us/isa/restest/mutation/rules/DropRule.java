@@ -19,7 +19,7 @@ public class DropRule extends PathRule {
         return instance;
     }
 
-    protected void applyNodeFuzzingRule(Schema<?> schema, String objectChild) {
+    protected void applyNodeFuzzingRule(Schema<?> schema, String objectChild, Random random) {
         List<String> propertyNames = new ArrayList<>(schema.getProperties().keySet());
         propertyNames.remove(objectChild);
         if (propertyNames.size() > 0) {
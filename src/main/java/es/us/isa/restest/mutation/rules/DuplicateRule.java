@@ -5,6 +5,7 @@ import io.swagger.v3.oas.models.media.Schema;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static es.us.isa.restest.util.SchemaManager.generateFullyResolvedSchema;
 
@@ -24,7 +25,7 @@ public class DuplicateRule extends SingleRule {
     }
 
     @Override
-    protected void applyNodeFuzzingRule(Schema<?> schema, OpenAPI spec) {
+    protected void applyNodeFuzzingRule(Schema<?> schema, OpenAPI spec, Random random) {
         List<String> propertyNames = new ArrayList<>(schema.getProperties().keySet());
         if (propertyNames.size() > 0) {
             String duplicatedProperty = propertyNames.get(random.nextInt(propertyNames.size()));
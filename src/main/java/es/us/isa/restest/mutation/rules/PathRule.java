@@ -14,14 +14,22 @@ public abstract class PathRule {
     protected PathRule() {}
 
     public void apply(Schema<?> schema, OpenAPI spec) {
+        apply(schema, spec, random);
+    }
+
+    /**
+     * Apply the rule drawing its random choices from the given random source (e.g., the
+     * seeded random source of the test case generator).
+     */
+    public void apply(Schema<?> schema, OpenAPI spec, Random random) {
         if ("array".equals(schema.getType())) {
-            apply(((ArraySchema) schema).getItems(), spec);
+            apply(((ArraySchema) schema).getItems(), spec, random);
         } else if (schema.getProperties() != null) {
             List<Map.Entry<String, Schema>> objectNodes = new ArrayList<>();
 
             for (Map.Entry<String, Schema> entry : schema.getProperties().entrySet()) {
                 if ("array".equals(entry.getValue().getType())) {
-                    apply(((ArraySchema) entry.getValue()).getItems(), spec);
+                    apply(((ArraySchema) entry.getValue()).getItems(), spec, random);
                 } else if ("object".equals(entry.getValue().getType())) {
                     objectNodes.add(entry);
                 }
@@ -31,12 +39,12 @@ public abstract class PathRule {
             if (!objectNodes.isEmpty()) {
                 Map.Entry<String, Schema> entry = objectNodes.get(random.nextInt(objectNodes.size()));
                 objectChild = entry.getKey();
-                apply(entry.getValue(), spec);
+                apply(entry.getValue(), spec, random);
             }
 
-            applyNodeFuzzingRule(schema, objectChild);
+            applyNodeFuzzingRule(schema, objectChild, random);
         }
     }
 
-    protected abstract void applyNodeFuzzingRule(Schema<?> schema, String objectChild);
+    protected abstract void applyNodeFuzzingRule(Schema<?> schema, String objectChild, Random random);
 }
@@ -5,6 +5,7 @@ import io.swagger.v3.oas.models.media.Schema;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 public class SelectRule extends PathRule {
 
@@ -21,7 +22,7 @@ public class SelectRule extends PathRule {
         return instance;
     }
 
-    protected void applyNodeFuzzingRule(Schema<?> schema, String objectChild) {
+    protected void applyNodeFuzzingRule(Schema<?> schema, String objectChild, Random random) {
         List<String> propertyNames = new ArrayList<>(schema.getProperties().keySet());
         propertyNames.remove(objectChild);
 
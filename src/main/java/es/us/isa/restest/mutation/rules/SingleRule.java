@@ -19,26 +19,34 @@ public abstract class SingleRule {
     protected SingleRule() {}
 
     public void apply(Schema<?> schema, boolean internalNode, OpenAPI spec) {
+        apply(schema, internalNode, spec, random);
+    }
+
+    /**
+     * Apply the rule drawing its random choices from the given random source (e.g., the
+     * seeded random source of the test case generator).
+     */
+    public void apply(Schema<?> schema, boolean internalNode, OpenAPI spec, Random random) {
         if ("array".equals(schema.getType())) {
-            apply(((ArraySchema)schema).getItems(), internalNode, spec);
+            apply(((ArraySchema)schema).getItems(), internalNode, spec, random);
         } else if (schema.getProperties() != null) {
-            List<Schema> objectNodes = getAllObjectNodes(schema, internalNode, spec);
+            List<Schema> objectNodes = getAllObjectNodes(schema, internalNode, spec, random);
             Schema s = objectNodes.get(random.nextInt(objectNodes.size()));
 
-            applyNodeFuzzingRule(s, spec);
+            applyNodeFuzzingRule(s, spec, random);
         }
     }
 
-    private List<Schema> getAllObjectNodes(Schema<?> schema, boolean internalNode, OpenAPI spec) {
+    private List<Schema> getAllObjectNodes(Schema<?> schema, boolean internalNode, OpenAPI spec, Random random) {
         List<Schema> objectNodes = new ArrayList<>();
 
         objectNodes.add(schema);
 
         for(Map.Entry<String, Schema> entry : schema.getProperties().entrySet()) {
             if ("array".equals(entry.getValue().getType())) {
-                apply(((ArraySchema) entry.getValue()).getItems(), internalNode, spec);
+                apply(((ArraySchema) entry.getValue()).getItems(), internalNode, spec, random);
             } else if ("object".equals(entry.getValue().getType())) {
-                objectNodes.addAll(getAllObjectNodes(entry.getValue(), internalNode, spec));
+                objectNodes.addAll(getAllObjectNodes(entry.getValue(), internalNode, spec, random));
             } else if (!internalNode) {
                 objectNodes.add(entry.getValue());
             }
@@ -47,5 +55,5 @@ public abstract class SingleRule {
         return objectNodes;
     }
 
-    protected abstract void applyNodeFuzzingRule(Schema<?> schema, OpenAPI spec);
+    protected abstract void applyNodeFuzzingRule(Schema<?> schema, OpenAPI spec, Random random);
 }
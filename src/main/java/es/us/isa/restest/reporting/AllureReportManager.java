@@ -2,8 +2,18 @@ package es.us.isa.restest.reporting;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import es.us.isa.restest.inputs.random.RandomObjectGenerator;
 import es.us.isa.restest.util.AllureAuthManager;
@@ -14,7 +24,17 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 /**
- * Class for managing the generation of test reports with Allure
+ * Class for managing the generation of test reports with Allure. Reports can be generated
+ * synchronously or requested asynchronously ({@link #requestReport()}), in which case they are
+ * generated by a background worker that coalesces all requests received while a report is being
+ * generated, so that Allure never blocks the generation and execution of test cases.
+ *
+ * Reports are never generated from the results directory, where the test cases being executed
+ * may be writing new results, but from a snapshot of it ({@link #snapshotResults()}), taken when
+ * the report is requested. Result files are hard-linked into the snapshot (or copied, if links
+ * are not supported), so taking a snapshot is cheap. Auth properties are censored from the
+ * snapshot when the report is generated, which also censors the results directory, since the
+ * files are redacted in place.
  * 
  * @author Sergio Segura
  */
@@ -22,10 +42,21 @@ public class AllureReportManager {
 
 	private String resultsDirPath;
 	private String reportDirPath;
+	private final Set<String> snapshotFiles = new HashSet<>();	// Result files already in the snapshot (none if no snapshot was taken yet)
 	private List<String> authProperties;
 	private String allureCommand;
 	private Boolean historyTrend = false;					// If true, it show history information by copying the 'history' directory from previous report
 	private Boolean loadCategories = true;					// If true, it uses the custom categories defined in the properties file located in src/main/resources
+	private Boolean async = false;							// If true, reports requested with requestReport() are generated in the background
+	private Integer reportInterval = 0;						// Minimum number of seconds between two reports generated in the background (-1 for generating the report only at the end)
+
+	private ExecutorService reportExecutor;					// Background worker generating the reports (created on demand)
+	private Future<?> scheduledReport;						// Report being generated (or waiting to be generated) in the background
+	private final AtomicBoolean reportPending = new AtomicBoolean(false);	// Whether new test results have been produced since the last report
+	private long lastReportTime = 0;						// Time when the last report generated in the background started
+	private volatile boolean finishing = false;				// If true, the report interval is not respected anymore, since the run is over
+	private final Object intervalLock = new Object();
+	private final Object reportGenerationLock = new Object();
 
 	private static final Logger logger = LogManager.getLogger(AllureReportManager.class.getName());
 	
@@ -46,35 +77,218 @@ public class AllureReportManager {
 			allureCommand = PropertyManager.readProperty("allure.command.unix");
 	}
 	
+	/**
+	 * Generate a report of the test results in the last snapshot taken (see {@link #snapshotResults()}).
+	 * If no snapshot was taken yet, a snapshot of the test results produced so far is taken first.
+	 */
 	public void generateReport() {
-		
-		// If history trend is enabled, we must copy the "history" directory from the current report to the allure results directory
-		if (historyTrend)
-			copyHistoryDirectory();
+		synchronized (reportGenerationLock) { // Reports requested in the background and at the end of the run must not overlap
+			if (snapshotFiles.isEmpty()) {
+				logger.warn("No snapshot of the test results was taken before generating the report. Taking it now");
+				snapshotResults();
+			}
+
+			String snapshotDirPath = getSnapshotDirPath();
+			if (!new File(snapshotDirPath).isDirectory())
+				return; // No results to report
+
+			// If history trend is enabled, we must copy the "history" directory from the current report to the allure results directory
+			if (historyTrend)
+				copyHistoryDirectory(snapshotDirPath);
 	
-		// If category loading is enabled, we must copy the file "allure-categories.json" to the allure results directory.
-		if (loadCategories)
-			copyCategoryFile();
+			// If category loading is enabled, we must copy the file "allure-categories.json" to the allure results directory.
+			if (loadCategories)
+				copyCategoryFile(snapshotDirPath);
 		
-		// Generate report
-		Runtime rt = Runtime.getRuntime();
+			// Generate report
+			Runtime rt = Runtime.getRuntime();
+			try {
+				AllureAuthManager.confidentialityFilter(authProperties, snapshotDirPath);
+				Process proc = rt.exec(allureCommand + " generate -c " + snapshotDirPath  + " -o " + reportDirPath);
+				proc.waitFor();
+				AllureAuthManager.confidentialityFilter(authProperties, reportDirPath + "/data/attachments");
+			} catch (IOException e) {
+				logger.error("Error generating report");
+				logger.error("Exception: ", e);
+			} catch (InterruptedException e) {
+				logger.error("Error generating test report");
+				logger.error("Exception: ", e);
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+	
+	/**
+	 * Request a new report including the test results produced so far. In synchronous mode, the
+	 * report is generated right away. In asynchronous mode, the report is generated in the
+	 * background, respecting the report interval. Requests received while a report is pending are
+	 * coalesced into a single report.
+	 */
+	public void requestReport() {
+		snapshotResults();
+		requestSnapshotReport();
+	}
+
+	/**
+	 * Same as {@link #requestReport()}, but reporting the test results of the last snapshot taken,
+	 * e.g., when the report is requested while the test cases of the next iteration are being executed.
+	 */
+	public void requestSnapshotReport() {
+		if (!async) {
+			generateReport();
+			return;
+		}
+
+		reportPending.set(true);
+
+		if (reportInterval >= 0)
+			scheduleReport();
+	}
+
+	/**
+	 * Add the test results produced so far to the snapshot reported by {@link #generateReport()}.
+	 * To be called when no test case is being executed, so that all result files are complete.
+	 * The first snapshot replaces any snapshot left by a previous run.
+	 */
+	public void snapshotResults() {
+		File resultsDir = new File(resultsDirPath);
+		File[] resultFiles = resultsDir.listFiles(File::isFile);
+		if (resultFiles == null)
+			return;
+
+		synchronized (reportGenerationLock) { // Not while a report is generated from the snapshot
+			try {
+				File snapshotDir = new File(getSnapshotDirPath());
+				if (snapshotFiles.isEmpty())
+					FileUtils.deleteDirectory(snapshotDir);
+				Files.createDirectories(snapshotDir.toPath());
+
+				for (File resultFile: resultFiles) {
+					Path snapshotFile = snapshotDir.toPath().resolve(resultFile.getName());
+					if (snapshotFiles.add(resultFile.getName()) || !Files.exists(snapshotFile))
+						linkOrCopy(resultFile.toPath(), snapshotFile);
+					else if (resultFile.lastModified() != snapshotFile.toFile().lastModified() && !Files.isSameFile(resultFile.toPath(), snapshotFile))
+						Files.copy(resultFile.toPath(), snapshotFile, StandardCopyOption.REPLACE_EXISTING); // Copied file modified since (e.g., environment properties)
+				}
+			} catch (IOException e) {
+				logger.error("Error taking a snapshot of the test results");
+				logger.error("Exception: ", e);
+			}
+		}
+	}
+
+	private static void linkOrCopy(Path source, Path target) throws IOException {
+		Files.deleteIfExists(target);
 		try {
-			Process proc = rt.exec(allureCommand + " generate -c " + resultsDirPath  + " -o " + reportDirPath);
-			proc.waitFor();
-			AllureAuthManager.confidentialityFilter(authProperties, resultsDirPath);
-			AllureAuthManager.confidentialityFilter(authProperties, reportDirPath + "/data/attachments");
-		} catch (IOException e) {
-			logger.error("Error generating report");
-			logger.error("Exception: ", e);
+			Files.createLink(target, source);
+		} catch (IOException | UnsupportedOperationException e) {
+			Files.copy(source, target, StandardCopyOption.COPY_ATTRIBUTES);
+		}
+	}
+
+	/**
+	 * Directory of the snapshot of the test results reported, next to the results directory
+	 */
+	public String getSnapshotDirPath() {
+		return resultsDirPath + "-snapshot";
+	}
+
+	/**
+	 * Wait for the report being generated in the background (if any) and generate the last one, if
+	 * there are results not reported yet. To be called at the end of the run. In synchronous mode,
+	 * this method does nothing.
+	 */
+	public void awaitReports() {
+		if (!async)
+			return;
+
+		finishing = true;
+		synchronized (intervalLock) {
+			intervalLock.notifyAll(); // Do not wait for the report interval
+		}
+
+		waitForScheduledReport();
+		if (reportPending.getAndSet(false))
+			generateReport();
+
+		synchronized (this) {
+			if (reportExecutor != null) {
+				reportExecutor.shutdown();
+				reportExecutor = null;
+			}
+		}
+		finishing = false;
+	}
+
+	private synchronized void scheduleReport() {
+		if (scheduledReport != null)
+			return; // The pending request will be served by the scheduled report
+
+		if (reportExecutor == null) {
+			reportExecutor = Executors.newSingleThreadExecutor(r -> {
+				Thread t = new Thread(r, "allure-report");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+
+		scheduledReport = reportExecutor.submit(this::generatePendingReports);
+	}
+
+	// Generate reports in the background while there are pending requests, waiting the report interval between two reports
+	private void generatePendingReports() {
+		try {
+			while (true) {
+				synchronized (this) {
+					if (!reportPending.get()) { // Checked while holding the lock, so that no request is missed
+						scheduledReport = null;
+						return;
+					}
+				}
+
+				synchronized (intervalLock) {
+					long waitTime = lastReportTime + TimeUnit.SECONDS.toMillis(reportInterval) - System.currentTimeMillis();
+					if (waitTime > 0 && !finishing)
+						intervalLock.wait(waitTime);
+				}
+
+				if (reportPending.getAndSet(false)) {
+					lastReportTime = System.currentTimeMillis();
+					logger.info("Generating test report in the background");
+					generateReport();
+				}
+			}
 		} catch (InterruptedException e) {
+			logger.warn("Background generation of test report interrupted");
+			synchronized (this) {
+				scheduledReport = null;
+			}
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private void waitForScheduledReport() {
+		Future<?> report;
+		synchronized (this) {
+			report = scheduledReport;
+		}
+
+		if (report == null)
+			return;
+
+		try {
+			report.get();
+		} catch (InterruptedException e) {
+			logger.error("Interrupted while waiting for the test report");
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
 			logger.error("Error generating test report");
 			logger.error("Exception: ", e);
-			Thread.currentThread().interrupt();
 		}
 	}
-	
+
 	// Copy the files allure-categories.json file from the resource directory to the allure results directory
-	private void copyCategoryFile() {
+	private void copyCategoryFile(String resultsDirPath) {
 		
 		File sourceFile = new File(PropertyManager.readProperty("allure.categories.path"));
 		File targetFile = new File(resultsDirPath + "/categories.json");
@@ -103,7 +317,7 @@ public class AllureReportManager {
 	
 
 	// Copy the history subfolder of the allure report to the allure results directory to enable the trend view.
-	private void copyHistoryDirectory() {
+	private void copyHistoryDirectory(String resultsDirPath) {
 		
 		// Check if there exist some report already, otherwise return
 		File reportDir = new File(reportDirPath);
@@ -130,6 +344,22 @@ public class AllureReportManager {
 		this.historyTrend = historyTrend;
 	}
 	
+	public Boolean async() {
+		return async;
+	}
+
+	public void setAsync(Boolean async) {
+		this.async = async;
+	}
+
+	public Integer getReportInterval() {
+		return reportInterval;
+	}
+
+	public void setReportInterval(Integer reportInterval) {
+		this.reportInterval = reportInterval;
+	}
+
 	public Boolean loadCategories() {
 		return loadCategories;
 	}
@@ -144,6 +374,7 @@ public class AllureReportManager {
 	
 	public void setResultsDir(String resultsDir) {
 		this.resultsDirPath = resultsDir;
+		snapshotFiles.clear();
 	}
 	
 	public String getReportDir() {
@@ -160,6 +391,7 @@ public class AllureReportManager {
 
 	public void setResultsDirPath(String resultsDirPath) {
 		this.resultsDirPath = resultsDirPath;
+		snapshotFiles.clear();
 	}
 
 	public String getReportDirPath() {
@@ -1,7 +1,9 @@
 package es.us.isa.restest.reporting;
 
+import es.us.isa.restest.coverage.CoverageGatherer;
 import es.us.isa.restest.coverage.CoverageMeter;
 import es.us.isa.restest.coverage.CoverageResults;
+import es.us.isa.restest.coverage.LiveCoverageMeter;
 import es.us.isa.restest.testcases.TestCase;
 import es.us.isa.restest.testcases.TestResult;
 import es.us.isa.restest.util.PropertyManager;
@@ -10,9 +12,11 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
 
+import static es.us.isa.restest.util.FileManager.checkIfExists;
 import static es.us.isa.restest.util.FileManager.copyFile;
 
 
@@ -29,6 +33,8 @@ public class StatsReportManager {
     private boolean enableInputCoverage = true;
     private boolean enableOutputCoverage = true;
     private CoverageMeter coverageMeter;
+    private CoverageMeter aPosterioriCoverageMeter;     // Updated incrementally with the test cases and test results of every iteration
+    private LiveCoverageMeter liveCoverageMeter;        // If not null, coverage is updated during the test execution instead of afterwards
     Collection<TestCase> testCases = null;
 
     private static final Logger logger = LogManager.getLogger(StatsReportManager.class.getName());
@@ -40,7 +46,7 @@ public class StatsReportManager {
         this.enableInputCoverage = enableInputCoverage;
         this.enableOutputCoverage = enableOutputCoverage;
         this.coverageMeter = coverageMeter;
-
+        resumeCoverage(coverageMeter, "data.coverage.snapshot.priori.file");
     }
 
     public StatsReportManager(String testDataDir, String coverageDataDir) {
@@ -50,56 +56,129 @@ public class StatsReportManager {
 
     // Generate statistics
     public void generateReport(String testId, boolean executeTestCases) {
+        generateReport(testId, executeTestCases, testCases);
+    }
+
+    /**
+     * Generate the statistics of some test cases, instead of the last ones set with {@link #setTestCases(Collection)}.
+     * Reports must be generated one at a time.
+     */
+    public void generateReport(String testId, boolean executeTestCases, Collection<TestCase> testCases) {
+        prepareReport(testId, executeTestCases, testCases).run();
+    }
+
+    /**
+     * Update the coverage with some test cases (and their test results) and take a copy of the coverage
+     * data to be reported, so that the returned task generates the statistics of these test cases, e.g., while
+     * the test cases of the next iteration are being executed and the coverage keeps changing. Reports must
+     * be prepared one at a time, in the calling thread; the returned tasks may run in any other thread.
+     * @return Task writing the statistics (CSV files and coverage snapshots)
+     */
+    public Runnable prepareReport(String testId, boolean executeTestCases, Collection<TestCase> testCases) {
+        List<Runnable> tasks = new ArrayList<>();
 
         // Generate CVS stats
         if (enableCSVStats)
-            generateCSVStats(testId);
+            tasks.add(() -> generateCSVStats(testId, testCases));
 
         // Generate coverage stats
         if (enableInputCoverage || enableOutputCoverage)
-            generateCoverageStats(testId, executeTestCases);
+            tasks.add(prepareCoverageStats(testId, executeTestCases, testCases));
 
+        return () -> tasks.forEach(Runnable::run);
     }
 
 
     // Generate CSV statistics (test cases to CSV)
-    private void generateCSVStats(String testId) {
+    private void generateCSVStats(String testId, Collection<TestCase> testCases) {
         logger.info("Exporting test cases to CSV");
         String csvTcPath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testcases.file") + "_" + testId + ".csv";
         testCases.forEach(tc -> tc.exportToCSV(csvTcPath));
     }
 
-    // Generate coverage statistics
-    private void generateCoverageStats(String testId, boolean executeTestCases) {
+    // Update the coverage and take the coverage results and snapshots to be saved
+    private Runnable prepareCoverageStats(String testId, boolean executeTestCases, Collection<TestCase> testCases) {
 
-        // Add test cases
-        getCoverageMeter().addTestSuite(testCases);
+        // Add test cases (already added before their execution if coverage is updated live)
+        if (liveCoverageMeter == null)
+            getCoverageMeter().addTestSuite(testCases);
 
-        if (enableOutputCoverage && executeTestCases) {
-            // Update CoverageMeter with the test results
+        List<TestResult> trs = null;
+        if (enableOutputCoverage && executeTestCases && liveCoverageMeter == null) {
+            // Update CoverageMeter with the test results of this iteration
             String csvTrPath = testDataDir + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_" + testId + ".csv";
-            List<TestResult> trs = TestManager.getTestResults(csvTrPath);
+            trs = TestManager.getTestResults(csvTrPath);
             coverageMeter.addTestResults(trs, testCases);
         }
 
-        if (enableInputCoverage || enableOutputCoverage) {
-            // Generate coverage report (input coverage a priori)
-            exportCoverageReport(coverageMeter, coverageDataDir + "/" + PropertyManager.readProperty("data.coverage.computation.priori.file") + "_" + testId + ".csv");
-            logger.info("Coverage report a priori generated.");
+        // Coverage report (input coverage a priori) and snapshot, so that the coverage can be resumed in a later run
+        String aPrioriPath = coverageDataDir + "/" + PropertyManager.readProperty("data.coverage.computation.priori.file") + "_" + testId + ".csv";
+        CoverageResults aPrioriResults = getCoverageResults(coverageMeter);
+        byte[] aPrioriSnapshot = coverageMeter.getCoverageSnapshot();
+
+        // Coverage report (input coverage a posteriori) and snapshot, folding in only the new test cases and test results
+        String aPosterioriPath = coverageDataDir + "/" + PropertyManager.readProperty("data.coverage.computation.posteriori.file") + "_" + testId + ".csv";
+        CoverageResults aPosterioriResults = null;
+        byte[] aPosterioriSnapshot = null;
+        if (executeTestCases) {
+            if (trs != null)
+                getAPosterioriCoverageMeter().addAPosterioriTestResults(trs, testCases);
+            aPosterioriResults = getCoverageResults(getAPosterioriCoverageMeter());
+            aPosterioriSnapshot = getAPosterioriCoverageMeter().getCoverageSnapshot();
+        }
 
-            if(executeTestCases) {
-                // Generate coverage report (input coverage a posteriori)
-                exportCoverageReport(coverageMeter.getAPosteriorCoverageMeter(), coverageDataDir + "/" + PropertyManager.readProperty("data.coverage.computation.posteriori.file") + "_" + testId + ".csv");
+        if (liveCoverageMeter != null)
+            liveCoverageMeter.removeTestCases(testId, testCases);
+
+        CoverageResults finalAPosterioriResults = aPosterioriResults;
+        byte[] finalAPosterioriSnapshot = aPosterioriSnapshot;
+        return () -> {
+            aPrioriResults.exportCoverageReportToCSV(aPrioriPath);
+            logger.info("Coverage report a priori generated.");
+            if (finalAPosterioriResults != null) {
+                finalAPosterioriResults.exportCoverageReportToCSV(aPosterioriPath);
                 logger.info("Coverage report a posteriori generated.");
             }
-        }
+
+            saveCoverageSnapshot(aPrioriSnapshot, "data.coverage.snapshot.priori.file");
+            if (finalAPosterioriSnapshot != null)
+                saveCoverageSnapshot(finalAPosterioriSnapshot, "data.coverage.snapshot.posteriori.file");
+        };
     }
 
-    private void exportCoverageReport(CoverageMeter coverageMeter, String path) {
+    private CoverageResults getCoverageResults(CoverageMeter coverageMeter) {
         CoverageResults results = new CoverageResults(coverageMeter);
         results.setCoverageOfCoverageCriteriaFromCoverageMeter(coverageMeter);
         results.setCoverageOfCriterionTypeFromCoverageMeter(coverageMeter);
-        results.exportCoverageReportToCSV(path);
+        return results;
+    }
+
+    private void saveCoverageSnapshot(byte[] snapshot, String snapshotFileProperty) {
+        String path = coverageDataDir + "/" + PropertyManager.readProperty(snapshotFileProperty);
+        try {
+            CoverageMeter.exportCoverageSnapshot(snapshot, path);
+        } catch (IOException e) {
+            logger.warn("The coverage snapshot {} could not be saved: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * If a coverage snapshot from a previous run exists (i.e., previous results were not deleted),
+     * load it, so that the coverage keeps accumulating instead of starting from scratch.
+     */
+    private void resumeCoverage(CoverageMeter coverageMeter, String snapshotFileProperty) {
+        if (coverageMeter == null || coverageDataDir == null)
+            return;
+
+        String path = coverageDataDir + "/" + PropertyManager.readProperty(snapshotFileProperty);
+        if (checkIfExists(path)) {
+            try {
+                coverageMeter.importCoverageSnapshot(path);
+                logger.info("Coverage resumed from snapshot {}", path);
+            } catch (IOException e) {
+                logger.warn("The coverage snapshot {} could not be loaded: {}", path, e.getMessage());
+            }
+        }
     }
 
     public String getTestDataDir() {
@@ -148,10 +227,51 @@ public class StatsReportManager {
 
     public void setCoverageMeter(CoverageMeter coverageMeter) {
         this.coverageMeter = coverageMeter;
+        this.aPosterioriCoverageMeter = null;
+        resumeCoverage(coverageMeter, "data.coverage.snapshot.priori.file");
+    }
+
+    /**
+     * CoverageMeter containing the a posteriori coverage of all test cases executed so far. It is
+     * created the first time it is needed, and then updated after every iteration.
+     */
+    public CoverageMeter getAPosterioriCoverageMeter() {
+        if (aPosterioriCoverageMeter == null && coverageMeter != null) {
+            aPosterioriCoverageMeter = new CoverageMeter(new CoverageGatherer(coverageMeter.getCoverageGatherer().getSpec()));
+            resumeCoverage(aPosterioriCoverageMeter, "data.coverage.snapshot.posteriori.file");
+        }
+        return aPosterioriCoverageMeter;
     }
 
     public void setTestCases(Collection<TestCase> testCases) {
+        setTestCases(null, testCases);
+    }
+
+    /**
+     * Set the test cases of a test suite about to be executed. If live coverage is enabled, the
+     * filters of the test classes of the test suite update its coverage while it is executed.
+     * @param testId Test suite ID, or {@code null} if it is unknown (coverage is then only updated a priori)
+     * @param testCases Test cases of the test suite
+     */
+    public void setTestCases(String testId, Collection<TestCase> testCases) {
         this.testCases = testCases;
+        if (liveCoverageMeter != null)
+            liveCoverageMeter.addTestCases(testId, testCases);
+    }
+
+    /**
+     * Update the coverage while test cases are being executed, fed by the CoverageFilter of
+     * the generated test classes, instead of reading the CSV files of test results afterwards.
+     * Only applies if output coverage is enabled. Test cases must then be set with their test suite
+     * ID, see {@link #setTestCases(String, Collection)}.
+     */
+    public void enableLiveCoverage() {
+        if (enableOutputCoverage && coverageMeter != null)
+            liveCoverageMeter = new LiveCoverageMeter(coverageMeter, getAPosterioriCoverageMeter());
+    }
+
+    public LiveCoverageMeter getLiveCoverageMeter() {
+        return liveCoverageMeter;
     }
 
 }
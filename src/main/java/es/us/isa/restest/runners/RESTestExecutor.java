@@ -6,6 +6,7 @@ import es.us.isa.restest.util.ClassLoader;
 import es.us.isa.restest.util.Timer;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import es.us.isa.restest.writers.restassured.filters.ResponseValidationFilter;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Result;
 
@@ -50,6 +51,7 @@ public class RESTestExecutor {
         junit.addListener(new io.qameta.allure.junit4.AllureJunit4());
         Timer.startCounting(TEST_SUITE_EXECUTION);
         Result result = junit.run(testClass);
+        ResponseValidationFilter.awaitPendingValidations(); // Responses may still be being validated in the background
         Timer.stopCounting(TEST_SUITE_EXECUTION);
         int successfulTests = result.getRunCount() - result.getFailureCount() - result.getIgnoreCount();
         logger.info("{} tests run in {} seconds. Successful: {}, Failures: {}, Ignored: {}", result.getRunCount(), result.getRunTime()/1000, successfulTests, result.getFailureCount(), result.getIgnoreCount());
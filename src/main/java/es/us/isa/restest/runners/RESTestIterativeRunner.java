@@ -3,6 +3,7 @@ package es.us.isa.restest.runners;
 import es.us.isa.restest.generators.AbstractTestCaseGenerator;
 import es.us.isa.restest.reporting.AllureReportManager;
 import es.us.isa.restest.reporting.StatsReportManager;
+import es.us.isa.restest.runners.RESTestWorkflow.GeneratedTestSuite;
 import es.us.isa.restest.util.IDGenerator;
 import es.us.isa.restest.util.PropertyManager;
 import es.us.isa.restest.util.RESTestException;
@@ -13,7 +14,15 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import static es.us.isa.restest.util.FileManager.createDir;
 import static es.us.isa.restest.util.Timer.TestStep.ALL;
@@ -75,6 +84,11 @@ public class RESTestIterativeRunner extends RESTestLoader {
 
 		Timer.startCounting(ALL);
 
+		if (pipelined) {
+			runPipelined();
+			return;
+		}
+
 		// Main loop
 		int iteration = 1;
 		while (totalNumTestCases == -1 || workflow.getNumTestCases() < totalNumTestCases) {
@@ -85,7 +99,7 @@ public class RESTestIterativeRunner extends RESTestLoader {
 
 			// Generate unique test class name to avoid the same class being loaded everytime
 			String id = IDGenerator.generateTimeId();
-			String className = testClassName + "_" + id;
+			String className = getTestClassName(id);
 			((RESTAssuredWriter) writer).setClassName(className);
 			((RESTAssuredWriter) writer).setTestId(id);
 			workflow.setTestClassName(className);
@@ -98,10 +112,115 @@ public class RESTestIterativeRunner extends RESTestLoader {
 			iteration++;
 		}
 
+		workflow.finishReports();
+
+		Timer.stopCounting(ALL);
+
+		generateTimeReport(iteration-1);
+
+	}
+
+	/*
+	 * Pipelined main loop: the test suites of the next iterations are generated and compiled in the background
+	 * while the current one is executed, and the reports of each iteration are generated while the next one is
+	 * executed. The bounded queue of test suites stops the generation when it gets too far ahead of the execution.
+	 */
+	private void runPipelined() throws RESTestException {
+		BlockingQueue<GeneratedTestSuite> testSuites = new ArrayBlockingQueue<>(Math.max(pipelineCapacity, 1));
+		GeneratedTestSuite endOfGeneration = new GeneratedTestSuite(null, Collections.emptyList(), null, null);
+		AtomicBoolean stopped = new AtomicBoolean(false);	// Set when the test suites are no longer taken, e.g., after an error
+		ExecutorService generation = Executors.newSingleThreadExecutor(r -> newPipelineThread(r, "restest-generation"));
+		ExecutorService reporting = Executors.newSingleThreadExecutor(r -> newPipelineThread(r, "restest-reporting"));
+
+		Future<?> generated = generation.submit(() -> {
+			try {
+				while (!stopped.get() && (totalNumTestCases == -1 || workflow.getNumTestCases() < totalNumTestCases))
+					offer(testSuites, generateTestSuite(), stopped);
+			} finally {
+				offer(testSuites, endOfGeneration, stopped);
+			}
+			return null;
+		});
+
+		int iteration = 1;
+		int numExecutedTestCases = 0;
+		Future<?> report = null;
+		try {
+			for (GeneratedTestSuite testSuite = testSuites.take(); testSuite != endOfGeneration; testSuite = testSuites.take()) {
+
+				// Introduce optional delay
+				if (iteration != 1 && timeDelay != -1)
+					delay(timeDelay);
+
+				// Test case execution, while the next test suites are generated
+				workflow.executeTestSuite(testSuite);
+
+				// Test report generation, while the next test suite is executed. The data to be reported is taken
+				// before, so that the report does not include any test result of the next test suite
+				awaitStage(report);
+				report = reporting.submit(workflow.prepareReport(testSuite));
+
+				numExecutedTestCases += testSuite.size();
+				logger.info("Iteration {}. {} test cases executed.", iteration, numExecutedTestCases);
+				iteration++;
+			}
+			awaitStage(report);
+			awaitStage(generated);
+		} catch (InterruptedException e) {
+			logger.error("Pipelined workflow interrupted", e);
+			Thread.currentThread().interrupt();
+		} finally {
+			stopped.set(true);
+			generation.shutdownNow();
+			reporting.shutdown();		// The reports of the test suites already executed are still generated, even after an error
+		}
+
+		workflow.finishReports();
+
 		Timer.stopCounting(ALL);
 
 		generateTimeReport(iteration-1);
+	}
+
+	// Add a test suite to the queue, waiting for space unless the test suites are no longer taken
+	private static void offer(BlockingQueue<GeneratedTestSuite> testSuites, GeneratedTestSuite testSuite, AtomicBoolean stopped) throws InterruptedException {
+		while (!stopped.get() && !testSuites.offer(testSuite, 100, TimeUnit.MILLISECONDS));
+	}
 
+	// Threads of the pipelined workflow never keep the JVM alive, e.g., if the main loop fails
+	private static Thread newPipelineThread(Runnable r, String name) {
+		Thread thread = new Thread(r, name);
+		thread.setDaemon(true);
+		return thread;
+	}
+
+	// Generate the test suite of the next iteration, with a unique test class name to avoid the same class being loaded everytime
+	private GeneratedTestSuite generateTestSuite() throws RESTestException {
+		String id = IDGenerator.generateTimeId();
+		String className = getTestClassName(id);
+		((RESTAssuredWriter) writer).setClassName(className);
+		((RESTAssuredWriter) writer).setTestId(id);
+		return workflow.generateTestSuite(className, id);
+	}
+
+	// Data-driven test classes keep the same name, since only their data files change (one per test suite)
+	private String getTestClassName(String id) {
+		return ((RESTAssuredWriter) writer).isDataDriven() ? testClassName : testClassName + "_" + id;
+	}
+
+	// Wait for a stage of the pipelined workflow, rethrowing its exception (if any)
+	private static void awaitStage(Future<?> stage) throws RESTestException, InterruptedException {
+		if (stage == null)
+			return;
+		try {
+			stage.get();
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RESTestException)
+				throw (RESTestException) e.getCause();
+			if (e.getCause() instanceof RuntimeException)
+				throw (RuntimeException) e.getCause();
+			throw new IllegalStateException(e.getCause());
+		}
 	}
 
 	// Introduce delay
@@ -19,9 +19,11 @@ import org.apache.logging.log4j.core.LoggerContext;
 import java.io.File;
 import java.io.PrintStream;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 
 import static es.us.isa.restest.configuration.TestConfigurationIO.loadConfiguration;
+import static es.us.isa.restest.configuration.TestConfigurationIO.readTestPaths;
 import static es.us.isa.restest.util.FileManager.createDir;
 import static es.us.isa.restest.util.FileManager.deleteDir;
 
@@ -36,10 +38,13 @@ public class RESTestLoader {
 	String OAISpecPath; 								// Path to OAS specification file
 	OpenAPISpecification spec; 							// OAS specification
 	String confPath; 									// Path to test configuration file
+	boolean partialSpecLoading;							// Set to 'true' for loading only the paths of the OAS tested
 	String targetDirJava; 								// Directory where tests will be generated.
 	String packageName; 								// Package name used on the generated test cases.
 	String experimentName; 								// Used as identifier for folders, etc.
 	String testClassName; 								// Name prefix of the class to be generated
+	Boolean dataDrivenTestClass;						// If 'true', test cases are written to data files executed by a test class compiled once
+	Integer testClassShardSize;							// Maximum number of test cases per test class (-1 for no limit)
 	Boolean enableInputCoverage; 						// Set to 'true' for generating input coverage report.
 	Boolean enableOutputCoverage; 						// Set to 'true' for generating output coverage report.
 	Boolean enableCSVStats; 							// Set to 'true' for generating statistics in a CSV file.
@@ -47,10 +52,14 @@ public class RESTestLoader {
 	Float faultyRatio; 									// Percentage of faulty test cases to generate. Defaults to 0.1
 	Integer totalNumTestCases; 							// Total number of test cases to be generated.
 	Integer timeDelay; 									// Delay between requests in seconds (-1 for no delay)
+	Boolean pipelined;									// If 'true', iterations are generated and compiled while the previous one is executed
+	Integer pipelineCapacity;							// Maximum number of iterations generated and waiting to be executed
 	String generator; 									// Generator (RT: Random testing, CBT:Constraint-based testing...)
 	Boolean logToFile;									// If 'true', log messages will be printed to external files
 	Boolean executeTestCases;							// If 'false', test cases will be generated but not executed
 	Boolean allureReports;								// If 'true', Allure reports will be generated
+	Boolean allureReportsAsync;							// If 'true', Allure reports will be generated in the background
+	Integer allureReportsInterval;						// Minimum number of seconds between two Allure reports generated in the background
 	String allureReportsPath;							// Path to Allure reports
 	Boolean checkTestCases;								// If 'true', test cases will be checked with OASValidator before executing them
 	String proxy;										// Proxy to use for all requests in format host:port
@@ -78,8 +87,9 @@ public class RESTestLoader {
 
 	// Create a test case generator
 	public AbstractTestCaseGenerator createGenerator() throws RESTestException {
-		// Load specification
-		spec = new OpenAPISpecification(OAISpecPath);
+		// Load specification (only the paths tested if partial loading is enabled)
+		Set<String> testPaths = partialSpecLoading ? readTestPaths(confPath) : null;
+		spec = testPaths != null ? new OpenAPISpecification(OAISpecPath, testPaths) : new OpenAPISpecification(OAISpecPath);
 
 		// Load configuration
 		TestConfigurationObject conf = loadConfiguration(confPath, spec);
@@ -123,7 +133,7 @@ public class RESTestLoader {
 	// Create RESTAssured writer
 	public IWriter createWriter() {
 		String basePath = spec.getSpecification().getServers().get(0).getUrl();
-		RESTAssuredWriter writer = new RESTAssuredWriter(OAISpecPath, confPath, targetDirJava, testClassName, packageName,
+		RESTAssuredWriter writer = new RESTAssuredWriter(spec, confPath, targetDirJava, testClassName, packageName,
 				basePath, logToFile);
 		writer.setAllureReport(allureReports);
 		writer.setEnableStats(enableCSVStats);
@@ -131,6 +141,8 @@ public class RESTestLoader {
 		writer.setAPIName(experimentName);
 		writer.setTestId(experimentName);
 		writer.setProxy(proxy);
+		writer.setDataDriven(dataDrivenTestClass);
+		writer.setShardSize(testClassShardSize);
 		return writer;
 	}
 
@@ -153,6 +165,8 @@ public class RESTestLoader {
 			arm = new AllureReportManager(allureResultsDir, allureReportDir, authProperties);
 			arm.setEnvironmentProperties(userPropertiesFilePath);
 			arm.setHistoryTrend(true);
+			arm.setAsync(allureReportsAsync);
+			arm.setReportInterval(allureReportsInterval);
 		}
 		return arm;
 	}
@@ -174,8 +188,14 @@ public class RESTestLoader {
 
 		CoverageMeter coverageMeter = enableInputCoverage || enableOutputCoverage ? new CoverageMeter(new CoverageGatherer(spec)) : null;
 
-		return new StatsReportManager(testDataDir, coverageDataDir, enableCSVStats, enableInputCoverage,
+		StatsReportManager statsReportManager = new StatsReportManager(testDataDir, coverageDataDir, enableCSVStats, enableInputCoverage,
 					enableOutputCoverage, coverageMeter);
+
+		// Update output coverage while test cases are executed
+		if (enableOutputCoverage && executeTestCases)
+			statsReportManager.enableLiveCoverage();
+
+		return statsReportManager;
 	}
 
 	// Read the parameter values from the .properties file. If the value is not found, the system looks for it in the global .properties file (config.properties)
@@ -196,6 +216,9 @@ public class RESTestLoader {
 		
 		confPath = readProperty("conf.path");
 		logger.info("Test configuration path: {}", confPath);
+
+		partialSpecLoading = Boolean.parseBoolean(readProperty("oas.partial.loading"));
+		logger.info("Partial OAS loading: {}", partialSpecLoading);
 		
 		targetDirJava = readProperty("test.target.dir");
 		logger.info("Target dir for test classes: {}", targetDirJava);
@@ -213,6 +236,15 @@ public class RESTestLoader {
 		}
 		logger.info("Allure reports: {}", allureReports);
 
+		allureReportsAsync = Boolean.parseBoolean(readProperty("allure.report.async"));
+		logger.info("Allure reports in the background: {}", allureReportsAsync);
+
+		if (readProperty("allure.report.interval") != null)
+			allureReportsInterval = Integer.parseInt(readProperty("allure.report.interval"));
+		else
+			allureReportsInterval = 0;
+		logger.info("Allure reports interval: {}", allureReportsInterval);
+
 
 		allureReportsPath = readProperty("allure.report.dir");
 		logger.info("Allure reports path: {}", allureReportsPath);
@@ -233,6 +265,15 @@ public class RESTestLoader {
 		testClassName = readProperty("testclass.name");
 		logger.info("Test class name: {}", testClassName);
 
+		dataDrivenTestClass = Boolean.parseBoolean(readProperty("testclass.datadriven"));
+		logger.info("Data-driven test class: {}", dataDrivenTestClass);
+
+		if (readProperty("testclass.shard.size") != null)
+			testClassShardSize = Integer.parseInt(readProperty("testclass.shard.size"));
+		else
+			testClassShardSize = -1;
+		logger.info("Max number of test cases per test class: {}", testClassShardSize);
+
 		packageName = readProperty("test.target.package");
 		logger.info("Package name: {}", packageName);
 
@@ -248,6 +289,15 @@ public class RESTestLoader {
 			timeDelay = Integer.parseInt(readProperty("delay"));
 		logger.info("Time delay: {}", timeDelay);
 
+		pipelined = Boolean.parseBoolean(readProperty("iterative.pipeline"));
+		logger.info("Pipelined iterations: {}", pipelined);
+
+		if (readProperty("iterative.pipeline.capacity") != null)
+			pipelineCapacity = Integer.parseInt(readProperty("iterative.pipeline.capacity"));
+		else
+			pipelineCapacity = 1;
+		logger.info("Iterations waiting to be executed: {}", pipelineCapacity);
+
 		if (readProperty("reloadinputdataevery") != null)
 			reloadInputDataEvery = Integer.parseInt(readProperty("reloadinputdataevery"));
 		logger.info("Input data reloading  (CBT): {}", reloadInputDataEvery);
@@ -72,6 +72,7 @@ public class RESTestRunner extends RESTestLoader {
 
 		logger.info("Running workflow (generation -> execution -> reporting)...");
 		workflow.run();										// Run RESTest workflow
+		workflow.finishReports();
 
 	}
 
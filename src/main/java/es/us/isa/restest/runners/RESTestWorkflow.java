@@ -1,13 +1,19 @@
 package es.us.isa.restest.runners;
 
+import java.io.File;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.util.*;
 import es.us.isa.restest.util.ClassLoader;
+import es.us.isa.restest.writers.restassured.RESTAssuredDataDrivenTest;
 import es.us.isa.restest.writers.restassured.RESTAssuredWriter;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
+import es.us.isa.restest.writers.restassured.filters.ResponseValidationFilter;
 import org.junit.runner.JUnitCore;
 import org.junit.runner.Result;
 
@@ -36,7 +42,10 @@ public class RESTestWorkflow {
 	protected StatsReportManager statsReportManager;	// Stats report manager
 	private boolean executeTestCases = true;			// Whether to execute test cases
 	private boolean allureReports = true;				// Whether to actually generate reports or not (folder "allure-reports")
-	private int numTestCases = 0;						// Number of test cases generated so far
+	private volatile int numTestCases = 0;				// Number of test cases generated so far
+	private String testCasesFile;						// Data file written last (data-driven test class only)
+	private String compiledTestClassKey;				// Source file and version of the data-driven test class compiled last
+	private Class<?> compiledTestClass;					// Data-driven test class compiled last
 
 	private OpenAPISpecification spec;
 	private String confPath;
@@ -66,6 +75,7 @@ public class RESTestWorkflow {
 			// Test execution
 			logger.info("Running tests");
 			System.setProperty("allure.results.directory", allureReportManager.getResultsDirPath());
+			useTestCasesFile(testCasesFile);
 			testExecution(getTestClass());
 		}
 
@@ -77,7 +87,7 @@ public class RESTestWorkflow {
 		if(executeTestCases && allureReports) {
 			// Generate test report
 			logger.info("Generating test report");
-			allureReportManager.generateReport();
+			allureReportManager.requestReport();
 		}
 
 		// Generate coverage report
@@ -85,15 +95,74 @@ public class RESTestWorkflow {
 		statsReportManager.generateReport(testId, executeTestCases);
 	}
 
+	/**
+	 * Wait for the test reports still being generated in the background, if any, and generate
+	 * the last one. To be called once, at the end of the run.
+	 */
+	public void finishReports() {
+		if(executeTestCases && allureReports) {
+			logger.info("Waiting for the last test report");
+			allureReportManager.awaitReports();
+		}
+	}
+
 	protected Class<?> getTestClass() {
+		return loadTestClass(testClassName);
+	}
+
+	private Class<?> loadTestClass(String testClassName) {
 		// Load test class
 		String filePath = targetDir + "/" + testClassName + ".java";
 		String className = packageName + "." + testClassName;
-		logger.info("Compiling and loading test class {}.java", className);
-		return ClassLoader.loadClass(filePath, className);
+
+		// Data-driven test classes only change when the settings of the writer change
+		String key = isDataDriven() ? filePath + " " + new File(filePath).lastModified() : null;
+		if (key != null && key.equals(compiledTestClassKey)) {
+			logger.info("Reusing test class {}, already compiled", className);
+			return compiledTestClass;
+		}
+
+		Class<?> testClass;
+		List<String> shards = writer instanceof RESTAssuredWriter ? ((RESTAssuredWriter) writer).getShardClassNames() : Collections.emptyList();
+		if (!shards.isEmpty()) {
+			// Test suite split into several test classes, compiled in parallel
+			logger.info("Compiling {} test classes in parallel and loading test suite {}.java", shards.size(), className);
+			List<String> shardPaths = shards.stream().map(shard -> targetDir + "/" + shard + ".java").collect(Collectors.toList());
+			testClass = ClassLoader.loadClass(filePath, className, shardPaths);
+		} else {
+			logger.info("Compiling and loading test class {}.java", className);
+			testClass = ClassLoader.loadClass(filePath, className);
+		}
+		if (key != null) {
+			compiledTestClassKey = key;
+			compiledTestClass = testClass;
+		}
+		return testClass;
+	}
+
+	private boolean isDataDriven() {
+		return writer instanceof RESTAssuredWriter && ((RESTAssuredWriter) writer).isDataDriven();
+	}
+
+	// Data file of the test cases executed by the data-driven test class, if any
+	private void useTestCasesFile(String testCasesFile) {
+		if (testCasesFile != null)
+			System.setProperty(RESTAssuredDataDrivenTest.TEST_CASES_FILE_PROPERTY, testCasesFile);
+		else
+			System.clearProperty(RESTAssuredDataDrivenTest.TEST_CASES_FILE_PROPERTY);
 	}
 
 	private void testGeneration() throws RESTestException {
+
+		// Generate and write test cases
+		Collection<TestCase> testCases = generateAndWrite(testClassName);
+
+        // Pass test cases to the statistic report manager (CSV writing, coverage)
+        statsReportManager.setTestCases(testId, testCases);
+
+	}
+
+	private Collection<TestCase> generateAndWrite(String testClassName) throws RESTestException {
 	    
 		// Generate test cases
 		logger.info("Generating tests");
@@ -101,15 +170,74 @@ public class RESTestWorkflow {
 		Collection<TestCase> testCases = generator.generate();
 		Timer.stopCounting(TEST_SUITE_GENERATION);
         this.numTestCases += testCases.size();
-
-        // Pass test cases to the statistic report manager (CSV writing, coverage)
-        statsReportManager.setTestCases(testCases);
         
         // Write test cases
         String filePath = targetDir + "/" + testClassName + ".java";
         logger.info("Writing {} test cases to test class {}", testCases.size(), filePath);
         writer.write(testCases);
+        testCasesFile = isDataDriven() ? ((RESTAssuredWriter) writer).getTestCasesFile() : null;
 
+        return testCases;
+	}
+
+	/**
+	 * Generate, write and compile the test suite of an iteration of the pipelined workflow, i.e.,
+	 * while the test suite of the previous iteration is being executed. The writer must already be
+	 * set up to write the test class.
+	 * @param testClassName Name of the test class written
+	 * @param testId Test suite ID
+	 * @return The test suite, to be executed with {@link #executeTestSuite(GeneratedTestSuite)}
+	 * @throws RESTestException if the test cases cannot be generated
+	 */
+	GeneratedTestSuite generateTestSuite(String testClassName, String testId) throws RESTestException {
+		Collection<TestCase> testCases = generateAndWrite(testClassName);
+		Class<?> testClass = executeTestCases ? loadTestClass(testClassName) : null;
+		return new GeneratedTestSuite(testId, testCases, testClass, testCasesFile);
+	}
+
+	/**
+	 * Execute the test suite of an iteration of the pipelined workflow (if test execution is enabled).
+	 * Test suites must be executed one at a time.
+	 */
+	void executeTestSuite(GeneratedTestSuite testSuite) {
+		// Test cases are passed before their execution, for the live coverage
+		statsReportManager.setTestCases(testSuite.testId, testSuite.testCases);
+
+		if(executeTestCases) {
+			// Test execution
+			logger.info("Running tests");
+			System.setProperty("allure.results.directory", allureReportManager.getResultsDirPath());
+			useTestCasesFile(testSuite.testCasesFile);
+			testExecution(testSuite.testClass);
+		}
+	}
+
+	/**
+	 * Prepare the reports of an iteration of the pipelined workflow, once its test suite has been
+	 * executed, i.e., take a copy of the test results and coverage to be reported before the test suite
+	 * of the next iteration is executed. Reports must be prepared one at a time, in the thread executing
+	 * the test suites, and the returned tasks must run one at a time, e.g., in another thread while the
+	 * test suite of the next iteration is executed.
+	 * @return Task generating the reports
+	 */
+	Runnable prepareReport(GeneratedTestSuite testSuite) {
+		boolean allureReport = executeTestCases && allureReports;
+		if(allureReport)
+			allureReportManager.snapshotResults();
+
+		Runnable statsReport = statsReportManager.prepareReport(testSuite.testId, executeTestCases, testSuite.testCases);
+
+		return () -> {
+			if(allureReport) {
+				// Generate test report
+				logger.info("Generating test report");
+				allureReportManager.requestSnapshotReport();
+			}
+
+			// Generate coverage report
+			logger.info("Generating CSV data");
+			statsReport.run();
+		};
 	}
 
 	protected void testExecution(Class<?> testClass)  {
@@ -119,6 +247,7 @@ public class RESTestWorkflow {
 		junit.addListener(new io.qameta.allure.junit4.AllureJunit4());
 		Timer.startCounting(TEST_SUITE_EXECUTION);
 		Result result = junit.run(testClass);
+		ResponseValidationFilter.awaitPendingValidations();	// Responses may still be being validated in the background
 		Timer.stopCounting(TEST_SUITE_EXECUTION);
 		int successfulTests = result.getRunCount() - result.getFailureCount() - result.getIgnoreCount();
 		logger.info("{} tests run in {} seconds. Successful: {}, Failures: {}, Ignored: {}", result.getRunCount(), result.getRunTime()/1000, successfulTests, result.getFailureCount(), result.getIgnoreCount());
@@ -161,4 +290,26 @@ public class RESTestWorkflow {
 	public void setAllureReport(boolean allureReports) {
 		this.allureReports = allureReports;
 	}
+
+	/**
+	 * Test suite generated in an iteration of the pipelined workflow, with its test class compiled
+	 */
+	static class GeneratedTestSuite {
+
+		private final String testId;					// Test suite ID
+		private final Collection<TestCase> testCases;	// Test cases of the test suite
+		private final Class<?> testClass;				// Test class, null if test cases are not executed
+		private final String testCasesFile;				// Data file of the test cases (data-driven test class only)
+
+		GeneratedTestSuite(String testId, Collection<TestCase> testCases, Class<?> testClass, String testCasesFile) {
+			this.testId = testId;
+			this.testCases = testCases;
+			this.testClass = testClass;
+			this.testCasesFile = testCasesFile;
+		}
+
+		int size() {
+			return testCases.size();
+		}
+	}
 }
@@ -0,0 +1,177 @@
+package es.us.isa.restest.specification;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.media.Encoding;
+import io.swagger.v3.oas.models.media.MediaType;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.parameters.Parameter;
+
+import static es.us.isa.restest.specification.OpenAPISpecificationVisitor.*;
+
+/**
+ * Features of the parameters and request body of an operation, computed once and indexed, so
+ * that they can be looked up for every test case generated without walking the operation again.
+ * Instances are obtained with {@link OpenAPISpecificationVisitor#getOperationFeatures}. They are
+ * immutable, and the parameters and lists returned are shared, so they must not be modified.
+ */
+public class OpenAPIOperationFeatures {
+
+	private static final String BOOLEAN_TYPE = "boolean";
+
+	private final Map<String, OpenAPIParameter> parameters;				// Header, path and query parameters, indexed by name (case insensitive)
+	private final Map<String, OpenAPIParameter> formDataParameters;		// Form data parameters, indexed by name (case insensitive)
+	private final OpenAPIParameter bodyParameter;							// null if the body is neither JSON nor plain text
+	private final MediaType jsonMediaType;									// First JSON media type of the request body, null if none
+	private final MediaType formDataMediaType;								// URL encoded or multipart media type of the request body, null if none
+	private final List<OpenAPIParameter> requiredParameters;
+	private final List<OpenAPIParameter> requiredNotPathParameters;
+	private final List<OpenAPIParameter> parametersSubjectToInvalidValueChange;
+
+	OpenAPIOperationFeatures(Operation operation) {
+		Map<String, MediaType> content = operation.getRequestBody() != null ? operation.getRequestBody().getContent() : null;
+
+		jsonMediaType = content == null ? null : content.entrySet().stream()
+				.filter(x -> x.getKey().matches(MEDIA_TYPE_APPLICATION_JSON_REGEX)).map(Map.Entry::getValue).findFirst().orElse(null);
+		formDataMediaType = content == null ? null : content.containsKey(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) ?
+				content.get(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) : content.get(MEDIA_TYPE_MULTIPART_FORM_DATA);
+
+		// The first parameter with each name is kept, as parameters used to be searched in order
+		parameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		List<OpenAPIParameter> allParameters = new ArrayList<>();
+		if (operation.getParameters() != null) {
+			for (Parameter p: operation.getParameters()) {
+				if (p.getSchema() == null)		// Parameters defined with "content" are not supported
+					continue;
+				OpenAPIParameter param = new OpenAPIParameter(p);
+				allParameters.add(param);
+				parameters.putIfAbsent(p.getName(), param);
+			}
+		}
+
+		formDataParameters = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+		List<OpenAPIParameter> allFormDataParameters = new ArrayList<>();
+		if (formDataMediaType != null && formDataMediaType.getSchema() != null && formDataMediaType.getSchema().getProperties() != null) {
+			for (Object o: formDataMediaType.getSchema().getProperties().entrySet()) {
+				Map.Entry<String, Schema> formDataEntry = (Map.Entry<String, Schema>) o;
+				formDataParameters.putIfAbsent(formDataEntry.getKey(), new OpenAPIParameter(formDataEntry.getKey(), formDataEntry.getValue(), isRequiredFormData(formDataEntry.getKey())));
+				allFormDataParameters.add(new OpenAPIParameter(formDataEntry.getKey(), formDataEntry.getValue(), isRequiredFormData(formDataEntry.getValue().getName())));
+			}
+		}
+
+		bodyParameter = content != null && (jsonMediaType != null || content.keySet().stream().anyMatch(x -> x.matches(MEDIA_TYPE_TEXT_PLAIN_REGEX))) ?
+				new OpenAPIParameter("body", "body", operation.getRequestBody().getRequired()) : null;
+
+		requiredParameters = Collections.unmodifiableList(computeRequiredParameters(operation, allParameters, allFormDataParameters));
+		List<OpenAPIParameter> notPath = new ArrayList<>();
+		for (OpenAPIParameter p: requiredParameters)
+			if (!p.getIn().equals("path"))
+				notPath.add(p);
+		requiredNotPathParameters = Collections.unmodifiableList(notPath);
+
+		List<OpenAPIParameter> invalidValueChange = new ArrayList<>();
+		for (OpenAPIParameter p: allParameters)
+			if (isSubjectToInvalidValueChange(p))
+				invalidValueChange.add(p);
+		for (OpenAPIParameter p: allFormDataParameters)
+			if (isSubjectToInvalidValueChange(p))
+				invalidValueChange.add(p);
+		parametersSubjectToInvalidValueChange = Collections.unmodifiableList(invalidValueChange);
+	}
+
+	/**
+	 * Returns the parameter with name "paramName"
+	 * @param paramName Parameter's name (case insensitive)
+	 * @param in Parameter's type (header, path, query, body or formData)
+	 * @return the parameter, or null if the operation has no such parameter
+	 */
+	public OpenAPIParameter getParameter(String paramName, String in) {
+		switch(in) {
+			case "header":
+			case "path":
+			case "query":
+				return parameters.get(paramName);
+			case "body":
+				return bodyParameter;
+			case "formData":
+				OpenAPIParameter param = formDataParameters.get(paramName);
+				return param != null || !paramName.contains("[") ? param : findDeepObjectParameter(paramName);
+			default:
+				throw new IllegalArgumentException("Parameter type not supported: " + in);
+		}
+	}
+
+	public List<OpenAPIParameter> getRequiredParameters() {
+		return requiredParameters;
+	}
+
+	public List<OpenAPIParameter> getRequiredNotPathParameters() {
+		return requiredNotPathParameters;
+	}
+
+	public List<OpenAPIParameter> getParametersSubjectToInvalidValueChange() {
+		return parametersSubjectToInvalidValueChange;
+	}
+
+	public MediaType getJsonMediaType() {
+		return jsonMediaType;
+	}
+
+	public MediaType getFormDataMediaType() {
+		return formDataMediaType;
+	}
+
+	// Properties of form data objects and arrays serialized as deep objects, e.g., "metadata[key]" or "tags[]"
+	private OpenAPIParameter findDeepObjectParameter(String paramName) {
+		if (formDataParameters.isEmpty() || formDataMediaType.getEncoding() == null)
+			return null;
+
+		for (Object o: formDataMediaType.getSchema().getProperties().entrySet()) {
+			Map.Entry<String, Schema> formDataEntry = (Map.Entry<String, Schema>) o;
+			Encoding encoding = formDataMediaType.getEncoding().get(formDataEntry.getKey());
+			if (paramName.startsWith(formDataEntry.getKey()) && encoding != null && encoding.getStyle().equals(Encoding.StyleEnum.DEEP_OBJECT)) {
+
+				String propertyName = paramName.split("\\[")[1];
+				if (propertyName.equals("]") && formDataEntry.getValue().getType().equals("array")) {
+					return new OpenAPIParameter(paramName, formDataEntry.getValue(), isRequiredFormData(formDataEntry.getKey()));
+				} else if (formDataEntry.getValue().getType().equals("object") && formDataEntry.getValue().getProperties().containsKey(propertyName.substring(0, propertyName.length()-1))) {
+					Schema schema = (Schema) formDataEntry.getValue().getProperties().get(propertyName.substring(0, propertyName.length()-1));
+					return new OpenAPIParameter(paramName, schema, isRequiredFormData(formDataEntry.getKey()) && schema.getRequired().contains(propertyName.substring(0, propertyName.length()-1)));
+				}
+			}
+		}
+		return null;
+	}
+
+	private List<OpenAPIParameter> computeRequiredParameters(Operation operation, List<OpenAPIParameter> allParameters, List<OpenAPIParameter> allFormDataParameters) {
+		List<OpenAPIParameter> required = new ArrayList<>();
+		for (OpenAPIParameter p: allParameters)
+			if (p.getRequired())
+				required.add(p);
+
+		if (jsonMediaType != null && operation.getRequestBody().getRequired() != null && operation.getRequestBody().getRequired()) {
+			required.add(new OpenAPIParameter("body", "body", Boolean.TRUE));
+		} else if (formDataMediaType != null && formDataMediaType.getSchema() != null && formDataMediaType.getSchema().getRequired() != null && !formDataMediaType.getSchema().getRequired().isEmpty()) {
+			for (OpenAPIParameter p: allFormDataParameters)
+				if (p.getRequired())
+					required.add(p);
+		}
+		return required;
+	}
+
+	private boolean isRequiredFormData(String propertyName) {
+		return formDataMediaType.getSchema().getRequired() != null && formDataMediaType.getSchema().getRequired().contains(propertyName);
+	}
+
+	private static boolean isSubjectToInvalidValueChange(OpenAPIParameter p) {
+		return p.getType().equals("integer") || p.getType().equals("number")
+				|| p.getType().equals(BOOLEAN_TYPE) || (p.getType().equals("string")
+				&& (p.getMinLength() != null || p.getMaxLength() != null
+				|| p.getFormat() != null)) || p.getEnumValues() != null;
+	}
+}
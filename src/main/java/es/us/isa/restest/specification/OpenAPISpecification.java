@@ -1,5 +1,9 @@
 package es.us.isa.restest.specification;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.parser.OpenAPIV3Parser;
 import io.swagger.v3.parser.core.models.ParseOptions;
@@ -11,19 +15,41 @@ public class OpenAPISpecification {
 
 	OpenAPI specification;
 	private String path;
+	private List<String> paths;						// Paths loaded, null if the whole specification was loaded
 
 	/**
 	 * This constructor deserializes an OpenAPI specification v3 from a file (JSON or YAML) that is stored in <i>location</i>.
+	 * The specification is parsed only once per run, see {@link SpecificationRegistry}.
 	 * @param location File location (URL or file path)
 	 */
 	public OpenAPISpecification(String location) {
+		this.specification = SpecificationRegistry.getSpecification(location, "generation", OpenAPISpecification::parse);
+		this.path = location;
+	}
+
+	/**
+	 * This constructor deserializes only some paths of an OpenAPI specification v3 from a file (JSON or YAML) that is
+	 * stored in <i>location</i>, together with the components they reference. The rest of the specification is neither
+	 * parsed nor kept in memory, see {@link PartialSpecificationLoader}. The validators of test cases and responses
+	 * built from this specification load the same paths. Coverage is measured on the paths loaded only, so its totals
+	 * (e.g., the number of operations and parameters) do not include the rest of the specification.
+	 * @param location File location (URL or file path)
+	 * @param paths Paths to load (case insensitive), e.g., those of the operations of a test configuration
+	 */
+	public OpenAPISpecification(String location, Collection<String> paths) {
+		List<String> sortedPaths = paths.stream().map(String::toLowerCase).sorted().distinct().collect(Collectors.toList());
+		this.specification = SpecificationRegistry.getSpecification(location, "generation " + sortedPaths, l -> PartialSpecificationLoader.load(l, paths));
+		this.path = location;
+		this.paths = paths.stream().sorted().distinct().collect(Collectors.toList());
+	}
+
+	static OpenAPI parse(String location) {
 		ParseOptions parseOptions = new ParseOptions();
 		parseOptions.setResolve(true);
 		parseOptions.setResolveFully(true);
 		parseOptions.setResolveCombinators(true);
 //		parseOptions.setFlatten(true);
-		this.specification = new OpenAPIV3Parser().read(location, null, parseOptions);
-		this.path = location;
+		return new OpenAPIV3Parser().read(location, null, parseOptions);
 	}
 
 	public OpenAPI getSpecification() {
@@ -33,6 +59,14 @@ public class OpenAPISpecification {
 	public String getPath() {
 		return path;
 	}
+
+	/**
+	 * Returns the paths loaded, if only some paths of the specification were loaded.
+	 * @return the paths given when the specification was loaded, or null if the whole specification was loaded
+	 */
+	public List<String> getPaths() {
+		return paths;
+	}
 	
 	
 	// Return the specification title
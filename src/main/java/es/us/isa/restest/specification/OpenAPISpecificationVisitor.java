@@ -1,15 +1,12 @@
 package es.us.isa.restest.specification;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.stream.Collectors;
 
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheLoader;
+import com.google.common.cache.LoadingCache;
 import io.swagger.v3.oas.models.Operation;
-import io.swagger.v3.oas.models.media.Encoding;
-import io.swagger.v3.oas.models.media.MediaType;
-import io.swagger.v3.oas.models.media.Schema;
 import io.swagger.v3.oas.models.parameters.Parameter;
 
 /**
@@ -28,6 +25,20 @@ public class OpenAPISpecificationVisitor {
 	public static final String MEDIA_TYPE_MULTIPART_FORM_DATA = "multipart/form-data";
 	private static final String BOOLEAN_TYPE = "boolean";
 
+	// Features of the operations, indexed by identity (operations are mutable and expensive to hash)
+	private static final LoadingCache<Operation, OpenAPIOperationFeatures> operationFeatures = CacheBuilder.newBuilder()
+			.weakKeys().build(CacheLoader.from(OpenAPIOperationFeatures::new));
+
+	/**
+	 * Returns the features of the parameters and request body of an operation. They are
+	 * computed the first time they are requested, and reused afterwards.
+	 * @param operation Operation
+	 * @return the features of the operation
+	 */
+	public static OpenAPIOperationFeatures getOperationFeatures(Operation operation) {
+		return operationFeatures.getUnchecked(operation);
+	}
+
 	/**
 	 * Returns the operation's parameter with name "paramName"
 	 * @param operation Operation
@@ -36,78 +47,7 @@ public class OpenAPISpecificationVisitor {
 	 * @return the operation's parameter
 	 */
 	public static OpenAPIParameter findParameterFeatures(Operation operation, String paramName, String in) {
-		OpenAPIParameter param;
-
-		switch(in) {
-			case "header":
-			case "path":
-			case "query":
-				param = findQueryHeaderPathParameterFeatures(operation, paramName);
-				break;
-			case "body":
-				param = findBodyParameterFeatures(operation);
-				break;
-			case "formData":
-				param = findFormDataParameterFeatures(operation, paramName);
-				break;
-			default:
-				throw new IllegalArgumentException("Parameter type not supported: " + in);
-		}
-
-		return param;
-	}
-
-	private static OpenAPIParameter findQueryHeaderPathParameterFeatures(Operation operation, String paramName) {
-		OpenAPIParameter param = null;
-		boolean found = false;
-		Iterator<Parameter> it = operation.getParameters().iterator();
-		while (it.hasNext() && !found) {
-			Parameter p = it.next();
-			if (p.getName().equalsIgnoreCase(paramName)) {
-				param = new OpenAPIParameter(p);
-				found=true;
-			}
-		}
-		return param;
-	}
-
-	private static OpenAPIParameter findBodyParameterFeatures(Operation operation) {
-		OpenAPIParameter param = null;
-		if(operation.getRequestBody().getContent().keySet().stream().anyMatch(x -> x.matches(MEDIA_TYPE_APPLICATION_JSON_REGEX)) ||
-				operation.getRequestBody().getContent().keySet().stream().anyMatch(x -> x.matches(MEDIA_TYPE_TEXT_PLAIN_REGEX))) {
-			param = new OpenAPIParameter("body", "body", operation.getRequestBody().getRequired());
-		}
-		return param;
-	}
-
-	private static OpenAPIParameter findFormDataParameterFeatures(Operation operation, String paramName) {
-		OpenAPIParameter param = null;
-		MediaType mediaType = operation.getRequestBody().getContent().containsKey(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) ?
-				operation.getRequestBody().getContent().get(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) :
-				operation.getRequestBody().getContent().get(MEDIA_TYPE_MULTIPART_FORM_DATA);
-		Iterator<Map.Entry> formDataIterator = mediaType.getSchema().getProperties().entrySet().iterator();
-
-		while (formDataIterator.hasNext()) {
-			Map.Entry<String, Schema> formDataEntry = formDataIterator.next();
-			if (formDataEntry.getKey().equalsIgnoreCase(paramName)) {
-				param = new OpenAPIParameter(formDataEntry.getKey(), formDataEntry.getValue(), mediaType.getSchema().getRequired() != null && mediaType.getSchema().getRequired().contains(formDataEntry.getKey()));
-				break;
-
-			} else if(paramName.startsWith(formDataEntry.getKey()) && paramName.contains("[") && mediaType.getEncoding() != null && mediaType.getEncoding().get(formDataEntry.getKey()) != null
-					&& mediaType.getEncoding().get(formDataEntry.getKey()).getStyle().equals(Encoding.StyleEnum.DEEP_OBJECT)) {
-
-				String propertyName = paramName.split("\\[")[1];
-				if(propertyName.equals("]") && formDataEntry.getValue().getType().equals("array")) {
-					param = new OpenAPIParameter(paramName, formDataEntry.getValue(), mediaType.getSchema().getRequired() != null && mediaType.getSchema().getRequired().contains(formDataEntry.getKey()));
-					break;
-				} else if(formDataEntry.getValue().getType().equals("object") && formDataEntry.getValue().getProperties().containsKey(propertyName.substring(0, propertyName.length()-1))) {
-					Schema schema = (Schema) formDataEntry.getValue().getProperties().get(propertyName.substring(0, propertyName.length()-1));
-					param = new OpenAPIParameter(paramName, schema, mediaType.getSchema().getRequired() != null && mediaType.getSchema().getRequired().contains(formDataEntry.getKey()) && schema.getRequired().contains(propertyName.substring(0, propertyName.length()-1)));
-					break;
-				}
-			}
-		}
-		return param;
+		return getOperationFeatures(operation).getParameter(paramName, in);
 	}
 
 	/**
@@ -116,38 +56,7 @@ public class OpenAPISpecificationVisitor {
 	 * @return the required parameters
 	 */
 	public static List<OpenAPIParameter> getRequiredParametersFeatures(Operation operation) {
-
-		List<OpenAPIParameter> requiredParameters = new ArrayList<>();
-		if(operation.getParameters() != null) {
-			operation.getParameters().stream()
-				.filter(x -> x.getRequired() != null && x.getRequired())
-				.map(OpenAPIParameter::new)
-				.forEach(requiredParameters::add);
-		}
-
-		if(operation.getRequestBody() != null && operation.getRequestBody().getContent() != null && operation.getRequestBody().getContent().keySet().stream().anyMatch(x -> x.matches(MEDIA_TYPE_APPLICATION_JSON_REGEX)) &&
-				operation.getRequestBody().getRequired() != null && operation.getRequestBody().getRequired()) {
-			requiredParameters.add(new OpenAPIParameter("body", "body", Boolean.TRUE));
-
-		} else if(operation.getRequestBody() != null && operation.getRequestBody().getContent() != null && (operation.getRequestBody().getContent().containsKey(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) ||
-				operation.getRequestBody().getContent().containsKey(MEDIA_TYPE_MULTIPART_FORM_DATA))) {
-
-			MediaType mediaType = operation.getRequestBody().getContent().containsKey(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) ?
-					operation.getRequestBody().getContent().get(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) :
-					operation.getRequestBody().getContent().get(MEDIA_TYPE_MULTIPART_FORM_DATA);
-
-			if(mediaType.getSchema().getRequired() != null && !mediaType.getSchema().getRequired().isEmpty()) {
-
-				for(Object schemaProperty : mediaType.getSchema().getProperties().entrySet()) {
-					Schema s = ((Map.Entry<String, Schema>) schemaProperty).getValue();
-					if(mediaType.getSchema().getRequired().contains(s.getName())) {
-						requiredParameters.add(new OpenAPIParameter(((Map.Entry<String, Schema>) schemaProperty).getKey(), s, true));
-					}
-				}
-			}
-		}
-
-		return requiredParameters;
+		return getOperationFeatures(operation).getRequiredParameters();
 	}
 
 	/**
@@ -156,9 +65,7 @@ public class OpenAPISpecificationVisitor {
 	 * @return the required parameters
 	 */
 	public static List<OpenAPIParameter> getRequiredNotPathParametersFeatures(Operation operation) {
-		return getRequiredParametersFeatures(operation).stream()
-				.filter(p -> !p.getIn().equals("path"))
-				.collect(Collectors.toList());
+		return getOperationFeatures(operation).getRequiredNotPathParameters();
 	}
 
 	/**
@@ -179,40 +86,7 @@ public class OpenAPISpecificationVisitor {
 	 * @return the parameters whose values can be changed for invalid ones
 	 */
 	public static List<OpenAPIParameter> getParametersFeaturesSubjectToInvalidValueChange(Operation operation) {
-		List<OpenAPIParameter> result = new ArrayList<>();
-
-		if(operation.getParameters() != null) {
-			operation.getParameters().stream()
-					.map(OpenAPIParameter::new)
-					.filter(p -> (p.getType().equals("integer") || p.getType().equals("number")
-							|| p.getType().equals(BOOLEAN_TYPE) || (p.getType().equals("string")
-							&& (p.getMinLength() != null || p.getMaxLength() != null
-							|| p.getFormat() != null)) || p.getEnumValues() != null))
-					.forEach(result::add);
-		}
-
-		if(operation.getRequestBody() != null && operation.getRequestBody().getContent() != null && (operation.getRequestBody().getContent().containsKey(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) ||
-				operation.getRequestBody().getContent().containsKey(MEDIA_TYPE_MULTIPART_FORM_DATA))) {
-
-			MediaType mediaType = operation.getRequestBody().getContent().containsKey(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) ?
-					operation.getRequestBody().getContent().get(MEDIA_TYPE_APPLICATION_X_WWW_FORM_URLENCODED) :
-					operation.getRequestBody().getContent().get(MEDIA_TYPE_MULTIPART_FORM_DATA);
-
-			for(Object o : mediaType.getSchema().getProperties().entrySet()) {
-
-				Schema s = ((Map.Entry<String, Schema>) o).getValue();
-				OpenAPIParameter p = new OpenAPIParameter(((Map.Entry<String, Schema>) o).getKey(), s, mediaType.getSchema().getRequired() != null && mediaType.getSchema().getRequired().contains(s.getName()));
-
-				if ((p.getType().equals("integer") || p.getType().equals("number")
-						|| p.getType().equals(BOOLEAN_TYPE) || (p.getType().equals("string")
-						&& (p.getMinLength() != null || p.getMaxLength() != null
-						|| p.getFormat() != null)) || p.getEnumValues() != null)) {
-					result.add(p);
-				}
-			}
-		}
-
-		return result;
+		return getOperationFeatures(operation).getParametersSubjectToInvalidValueChange();
 	}
 
 	public static Boolean hasDependencies(Operation operation) {
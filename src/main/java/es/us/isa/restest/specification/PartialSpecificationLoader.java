@@ -0,0 +1,245 @@
+package es.us.isa.restest.specification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.swagger.v3.core.util.Json;
+import io.swagger.v3.core.util.Yaml;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.parser.OpenAPIResolver;
+import io.swagger.v3.parser.OpenAPIV3Parser;
+import io.swagger.v3.parser.util.RemoteUrl;
+import io.swagger.v3.parser.util.ResolverFully;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Loads only some paths of an OAS specification v3, together with the components they reference
+ * (directly or through other components), so that huge specifications can be tested a few
+ * operations at a time without parsing and resolving the whole document. References are followed
+ * on the raw document before parsing it, and the resulting document is parsed and resolved with the
+ * same options as {@link OpenAPISpecification}. Security schemes are always kept, since security
+ * requirements refer to them by name. The validators load the same paths with their own parser,
+ * see {@link #loadDocument(String, Collection)}.
+ */
+public class PartialSpecificationLoader {
+
+	private static final Logger logger = LogManager.getLogger(PartialSpecificationLoader.class.getName());
+
+	private static final String COMPONENTS_REF = "#/components/";
+	private static final String PATHS_REF = "#/paths/";
+	private static final String SECURITY_SCHEMES = "securitySchemes";
+
+	private PartialSpecificationLoader() {}
+
+	/**
+	 * Load some paths of an OAS specification v3 and the components they reference.
+	 * @param location File location (URL or file path)
+	 * @param paths Paths to load (case insensitive)
+	 * @return the specification, or null if it cannot be read. Specifications other than OAS v3
+	 * (e.g., Swagger 2.0) are loaded completely
+	 */
+	static OpenAPI load(String location, Collection<String> paths) {
+		JsonNode root = readDocument(location);
+		if (root == null)
+			return null;
+
+		if (!isOpenAPIv3(root)) {
+			logger.warn("Only OAS v3 specifications can be loaded partially. Loading the whole specification {}", location);
+			return OpenAPISpecification.parse(location);
+		}
+
+		prune(root, paths, location);
+		return parse(location, root);
+	}
+
+	/**
+	 * Returns the document of some paths of an OAS specification v3 and the components they reference,
+	 * without parsing it, so that it can be loaded by other parsers (e.g., the one of the validators).
+	 * The document cannot be loaded from its location anymore, so references to other files are not
+	 * supported.
+	 * @param location File location (URL or file path)
+	 * @param paths Paths to keep (case insensitive)
+	 * @return the document in JSON format, or null if the whole specification must be loaded instead,
+	 * i.e., if it cannot be read, it is not an OAS v3 specification, or it references other files
+	 */
+	public static String loadDocument(String location, Collection<String> paths) {
+		JsonNode root = readDocument(location);
+		if (root == null || !isOpenAPIv3(root))
+			return null;
+
+		prune(root, paths, location);
+		if (hasExternalRefs(root)) {
+			logger.warn("The specification {} references other files. Loading the whole specification", location);
+			return null;
+		}
+
+		try {
+			return Json.mapper().writeValueAsString(root);
+		} catch (JsonProcessingException e) {
+			logger.error("Unable to write the paths {} of the specification {}: {}", paths, location, e.getMessage());
+			return null;
+		}
+	}
+
+	private static JsonNode readDocument(String location) {
+		try {
+			String content = readContent(location);
+			return (content.trim().startsWith("{") ? Json.mapper() : Yaml.mapper()).readTree(content);	// Same mappers as OpenAPIV3Parser
+		} catch (Exception e) {
+			logger.error("Unable to read the specification {}: {}", location, e.getMessage());
+			return null;
+		}
+	}
+
+	private static boolean isOpenAPIv3(JsonNode root) {
+		return root.has("openapi") && root.path("paths").isObject();
+	}
+
+	// Remove the paths not targeted and the components not referenced from the document
+	private static void prune(JsonNode root, Collection<String> paths, String location) {
+		ObjectNode allPaths = (ObjectNode) root.get("paths");
+		ObjectNode allComponents = root.path("components").isObject() ? (ObjectNode) root.get("components") : null;
+		int totalPaths = allPaths.size();
+		int totalComponents = countComponents(allComponents);
+
+		// Paths targeted, and all paths and components they reference
+		Set<String> targetPaths = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+		targetPaths.addAll(paths);
+		Set<String> keptPaths = new HashSet<>();
+		Set<String> keptComponents = new HashSet<>();		// Type and name, e.g., "schemas/Pet"
+		Deque<JsonNode> pending = new ArrayDeque<>();
+		allPaths.fields().forEachRemaining(p -> {
+			if (targetPaths.contains(p.getKey()) && keptPaths.add(p.getKey()))
+				pending.push(p.getValue());
+		});
+		if (allComponents != null && allComponents.has(SECURITY_SCHEMES))
+			pending.push(allComponents.get(SECURITY_SCHEMES));
+
+		while (!pending.isEmpty()) {
+			for (String ref: collectInternalRefs(pending.pop())) {
+				if (ref.startsWith(PATHS_REF)) {
+					String path = unescape(ref.substring(PATHS_REF.length()).split("/")[0]);
+					if (allPaths.has(path) && keptPaths.add(path))
+						pending.push(allPaths.get(path));
+				} else if (ref.startsWith(COMPONENTS_REF) && allComponents != null) {
+					String[] parts = ref.substring(COMPONENTS_REF.length()).split("/");
+					if (parts.length < 2)
+						continue;
+					String type = parts[0];
+					String name = unescape(parts[1]);
+					JsonNode component = allComponents.path(type).get(name);
+					if (component != null && keptComponents.add(type + "/" + name))
+						pending.push(component);
+				}
+			}
+		}
+
+		// Remove everything else, in the same order as in the original document
+		allPaths.retain(keptPaths);
+		if (allComponents != null) {
+			Iterator<Map.Entry<String, JsonNode>> types = allComponents.fields();
+			while (types.hasNext()) {
+				Map.Entry<String, JsonNode> type = types.next();
+				if (!type.getKey().equals(SECURITY_SCHEMES) && type.getValue().isObject()) {
+					Iterator<String> names = type.getValue().fieldNames();
+					while (names.hasNext())
+						if (!keptComponents.contains(type.getKey() + "/" + names.next()))
+							names.remove();
+				}
+			}
+		}
+
+		Runtime runtime = Runtime.getRuntime();
+		logger.info("Loaded {} of {} paths and {} of {} components of the specification {} (heap used: {} MB)",
+				keptPaths.size(), totalPaths, countComponents(allComponents), totalComponents,
+				location, (runtime.totalMemory() - runtime.freeMemory()) / (1024 * 1024));
+	}
+
+	// Parse and resolve the document as OpenAPIV3Parser does, resolving relative references from its location
+	private static OpenAPI parse(String location, JsonNode root) {
+		OpenAPI specification = new OpenAPIV3Parser().readWithInfo(location, root).getOpenAPI();
+		if (specification == null)
+			return null;
+		specification = new OpenAPIResolver(specification, null, location).resolve();
+		new ResolverFully(true).resolveFully(specification);
+		return specification;
+	}
+
+	private static String readContent(String location) throws Exception {
+		Path file = toFile(location);
+		if (file != null)
+			return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+		return RemoteUrl.urlToString(location, null);
+	}
+
+	private static Path toFile(String location) {
+		try {
+			Path file = Paths.get(location);
+			return Files.isRegularFile(file) ? file : null;
+		} catch (InvalidPathException e) {
+			return null;
+		}
+	}
+
+	// References to other parts of the same document found in a node and its descendants
+	private static Set<String> collectInternalRefs(JsonNode node) {
+		Set<String> refs = new HashSet<>();
+		Deque<JsonNode> nodes = new ArrayDeque<>();
+		nodes.push(node);
+		while (!nodes.isEmpty()) {
+			JsonNode current = nodes.pop();
+			JsonNode ref = current.get("$ref");
+			if (ref != null && ref.isTextual() && ref.asText().startsWith("#/"))
+				refs.add(ref.asText());
+			current.elements().forEachRemaining(child -> {
+				if (child.isContainerNode())
+					nodes.push(child);
+			});
+		}
+		return refs;
+	}
+
+	private static boolean hasExternalRefs(JsonNode root) {
+		Deque<JsonNode> nodes = new ArrayDeque<>();
+		nodes.push(root);
+		while (!nodes.isEmpty()) {
+			JsonNode current = nodes.pop();
+			JsonNode ref = current.get("$ref");
+			if (ref != null && ref.isTextual() && !ref.asText().startsWith("#"))
+				return true;
+			current.elements().forEachRemaining(child -> {
+				if (child.isContainerNode())
+					nodes.push(child);
+			});
+		}
+		return false;
+	}
+
+	// JSON pointer escaping of reference tokens
+	private static String unescape(String token) {
+		return token.replace("~1", "/").replace("~0", "~");
+	}
+
+	private static int countComponents(ObjectNode components) {
+		int count = 0;
+		if (components != null)
+			for (JsonNode type: components)
+				count += type.size();
+		return count;
+	}
+}
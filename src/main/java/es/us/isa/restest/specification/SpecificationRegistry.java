@@ -0,0 +1,96 @@
+package es.us.isa.restest.specification;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.hash.Hashing;
+import com.google.common.io.MoreFiles;
+import io.swagger.v3.oas.models.OpenAPI;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Process-wide registry of parsed OAS specifications, so that the same specification is parsed
+ * once per run and parser even if it is loaded by several components. The generators (loader
+ * and writer) and the validators (request validators and response validation filter) use
+ * different parse options, so a specification is parsed twice per run: once for each group.
+ * Models are indexed by the way they were parsed and by the SHA-256 hash of the content of the specification, so that a file
+ * modified during the run is parsed again. The models returned are shared and must not be modified.
+ * Models are softly referenced, so they are released if memory runs low.
+ */
+public class SpecificationRegistry {
+
+	private static final Logger logger = LogManager.getLogger(SpecificationRegistry.class.getName());
+
+	private static final Cache<String, OpenAPI> specifications = CacheBuilder.newBuilder().softValues().build();
+	private static final AtomicLong parses = new AtomicLong();			// Number of specifications parsed
+
+	private SpecificationRegistry() {}
+
+	/**
+	 * Returns the model of a specification, parsing it only if no specification with the same
+	 * content was parsed before with the same parser.
+	 * @param location Path or URL of the specification, or the specification itself
+	 * @param parserName Name of the parser, i.e., of the parse options used
+	 * @param parser Parser of the specification, returning null if it cannot be parsed
+	 * @return the model of the specification, or null if it cannot be parsed
+	 */
+	public static OpenAPI getSpecification(String location, String parserName, Function<String, OpenAPI> parser) {
+		String key = parserName + " " + contentKey(location);
+		OpenAPI specification = specifications.getIfPresent(key);
+		if (specification == null) {
+			specification = parser.apply(location);
+			parses.incrementAndGet();
+			if (specification != null)
+				specifications.put(key, specification);
+		} else {
+			logger.debug("Specification {} already parsed", location);
+		}
+		return specification;
+	}
+
+	/**
+	 * Returns the number of times a specification was parsed, i.e., not found in the registry.
+	 * @return the number of specifications parsed since the start of the run
+	 */
+	public static long getParseCount() {
+		return parses.get();
+	}
+
+	/**
+	 * Removes all specifications from the registry.
+	 */
+	public static void clear() {
+		specifications.invalidateAll();
+	}
+
+	// Files are identified by their content and their directory, since relative references are resolved from it
+	private static String contentKey(String location) {
+		Path file = toFile(location);
+		if (file != null) {
+			try {
+				return MoreFiles.asByteSource(file).hash(Hashing.sha256()) + " " + file.toAbsolutePath().normalize().getParent();
+			} catch (IOException e) {
+				logger.warn("Unable to read the specification {}: {}", location, e.getMessage());
+			}
+		}
+		return Hashing.sha256().hashString(location, StandardCharsets.UTF_8).toString();		// URLs and specifications passed as strings
+	}
+
+	private static Path toFile(String location) {
+		try {
+			Path file = Paths.get(location);
+			return Files.isRegularFile(file) ? file : null;
+		} catch (InvalidPathException e) {
+			return null;
+		}
+	}
+}
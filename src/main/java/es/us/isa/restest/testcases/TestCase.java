@@ -7,6 +7,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.atlassian.oai.validator.model.Request;
 import com.atlassian.oai.validator.model.SimpleRequest;
 import com.atlassian.oai.validator.report.ValidationReport;
 import es.us.isa.idlreasonerchoco.analyzer.Analyzer;
@@ -426,6 +427,17 @@ public class TestCase implements Serializable {
 	
 	
 	public List<String> getValidationErrors(OpenApiInteractionValidator validator) {
+		return validator.validateRequest(toValidatorRequest()).getMessages().stream()
+				.filter(m -> m.getLevel() != ValidationReport.Level.IGNORE)
+				.map(m -> m.getKey() + ": " + m.getMessage()).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns the request of the test case, as expected by the OpenAPI validator. Path parameters
+	 * are replaced in the path, and form parameters are encoded as the body.
+	 * @return the request of the test case
+	 */
+	public Request toValidatorRequest() {
 		String fullPath = this.getPath();
 		for (Map.Entry<String, String> pathParam : this.getPathParameters().entrySet())
 			fullPath = fullPath.replace("{" + pathParam.getKey() + "}", pathParam.getValue());
@@ -450,9 +462,7 @@ public class TestCase implements Serializable {
 			requestBuilder.withContentType("application/x-www-form-urlencoded");
 		}
 
-		return validator.validateRequest(requestBuilder.build()).getMessages().stream()
-				.filter(m -> m.getLevel() != ValidationReport.Level.IGNORE)
-				.map(m -> m.getKey() + ": " + m.getMessage()).collect(Collectors.toList());
+		return requestBuilder.build();
 	}
 	
 
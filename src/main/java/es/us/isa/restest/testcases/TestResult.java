@@ -1,5 +1,6 @@
 package es.us.isa.restest.testcases;
 
+import com.fasterxml.jackson.databind.JsonNode;
 
 import static es.us.isa.restest.util.CSVManager.createCSVwithHeader;
 import static es.us.isa.restest.util.CSVManager.writeCSVRow;
@@ -19,6 +20,7 @@ public class TestResult {
     private String outputFormat;    // Format of the response (JSON, XML, etc.)
     private Boolean passed;         // null = test was not checked (oracles disabled)
     private String failReason;      // null = test was not checked (oracles disabled)
+    private JsonNode responseBodyJson; // Body already parsed as JSON (e.g., by the REST-Assured filters), null if not available
 //    private TestCase testCase;      // Test case that corresponds to this test result
 
     public TestResult(String id, String statusCode, String responseBody, String outputFormat, Boolean passed, String failReason) {
@@ -44,6 +46,7 @@ public class TestResult {
         this.outputFormat = testResult.outputFormat;
         this.passed = testResult.passed;
         this.failReason = testResult.failReason;
+        this.responseBodyJson = testResult.responseBodyJson;
     }
 
     public String getId() {
@@ -68,6 +71,19 @@ public class TestResult {
 
     public void setResponseBody(String responseBody) {
         this.responseBody = responseBody;
+        this.responseBodyJson = null;
+    }
+
+    public JsonNode getResponseBodyJson() {
+        return responseBodyJson;
+    }
+
+    /**
+     * Set the response body already parsed as JSON, so that it does not need to be parsed again.
+     * It is not exported, and it should be released (set to null) once it is not needed anymore.
+     */
+    public void setResponseBodyJson(JsonNode responseBodyJson) {
+        this.responseBodyJson = responseBodyJson;
     }
 
     public String getOutputFormat() {
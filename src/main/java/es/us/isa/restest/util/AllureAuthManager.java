@@ -6,10 +6,19 @@ import org.apache.commons.io.FileUtils;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static es.us.isa.restest.configuration.TestConfigurationIO.loadConfiguration;
 
@@ -20,6 +29,9 @@ import static es.us.isa.restest.configuration.TestConfigurationIO.loadConfigurat
  */
 public class AllureAuthManager {
 
+    private static final String CENSORED = "CENSORED";
+    private static final Map<String, String> redactedFiles = new ConcurrentHashMap<>(); // version of every file after being redacted, by path
+
     private AllureAuthManager() {}
 
     public static List<String> findAuthProperties(OpenAPISpecification spec, String testConfPath) {
@@ -39,23 +51,133 @@ public class AllureAuthManager {
         return properties;
     }
 
+    /**
+     * Censor the values of the auth properties passed in (e.g., "Authorization: Bearer 123" becomes
+     * "Authorization: CENSORED") in all HTML files of a directory. Every file is redacted in a single
+     * streaming pass which looks for all auth properties at once, files are processed in parallel,
+     * and files not modified since the last time they were redacted are skipped.
+     *
+     * @param authProperties Names of the auth properties (e.g., headers or query parameters)
+     * @param allurePath Directory containing the HTML files (e.g., Allure results or report attachments)
+     * @throws IOException if some file could not be redacted
+     */
     public static void confidentialityFilter(List<String> authProperties, String allurePath) throws IOException {
         File resultsDir = new File(allurePath);
         String[] allowedExtensions = {"html"};
 
+        List<File> files = new ArrayList<>();
         for (Iterator<File> it = FileUtils.iterateFiles(resultsDir, allowedExtensions, false); it.hasNext(); ) {
             File f = it.next();
-            String fileString = FileManager.readFile(f.getPath());
+            if (!getFileVersion(f).equals(redactedFiles.get(f.getPath()))) // skip files not modified since the last pass
+                files.add(f);
+        }
+
+        if (authProperties.isEmpty() || files.isEmpty())
+            return;
+
+        try {
+            files.parallelStream().forEach(f -> {
+                try {
+                    redactFile(f, authProperties);
+                    redactedFiles.put(f.getPath(), getFileVersion(f));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Last modification time and size of a file, used to detect whether it changed
+    private static String getFileVersion(File f) {
+        return f.lastModified() + "/" + f.length();
+    }
+
+    // Redact a file into a temporary one, which is copied into the original file only if some value was censored. The original
+    // file is rewritten in place, so that every hard link to it (e.g., in a snapshot of the Allure results) is censored too
+    private static void redactFile(File f, List<String> authProperties) throws IOException {
+        Path tmpPath = Paths.get(f.getPath() + ".tmp");
+        boolean redacted;
+        try (Reader in = Files.newBufferedReader(f.toPath(), Charset.defaultCharset());
+             Writer out = Files.newBufferedWriter(tmpPath, Charset.defaultCharset())) {
+            redacted = redact(in, out, authProperties);
+        }
+
+        if (redacted) {
+            try (OutputStream out = Files.newOutputStream(f.toPath())) {
+                Files.copy(tmpPath, out);
+            }
+        }
+        Files.delete(tmpPath);
+    }
+
+    /**
+     * Copy the input into the output, replacing the value of every auth property with "CENSORED". A
+     * value starts after the name of the auth property followed by '=' or ':', and ends right before
+     * the first '&lt;', '&amp;' or '\'' character (values not followed by any of them are not censored).
+     *
+     * @return {@code true} if some value was censored
+     */
+    static boolean redact(Reader in, Writer out, List<String> authProperties) throws IOException {
+        int maxPropertyLength = authProperties.stream().mapToInt(String::length).max().orElse(0);
+        StringBuilder window = new StringBuilder();   // last characters read, not written yet (to match auth property names)
+        StringBuilder value = null;                   // value of an auth property being read (null if not reading a value)
+        boolean redacted = false;
+
+        CharSequence pendingInput = null;   // text to read again (value not censored at the end of the input)
+        int pendingIndex = 0;
+        int c;
+        while (true) {
+            if (pendingInput != null && pendingIndex < pendingInput.length())
+                c = pendingInput.charAt(pendingIndex++);
+            else
+                c = in.read();
+
+            if (c == -1) {
+                if (value != null && value.length() > 0) { // no end of value found, so it must not be censored, but it may contain other auth properties
+                    pendingInput = value;
+                    pendingIndex = 0;
+                    value = null;
+                    continue;
+                }
+                break;
+            }
 
-            for (String authProperty : authProperties) {
-                if (fileString != null) {
-                    fileString = fileString.replaceAll("(" + authProperty + "([=:]))([^<&'])*([<&'])", "$1CENSORED$4");
+            if (value != null) {
+                if (c == '<' || c == '&' || c == '\'') {
+                    out.write(CENSORED);
+                    out.write(c);
+                    value = null;
+                    redacted = true;
+                } else {
+                    value.append((char) c);
+                }
+            } else {
+                window.append((char) c);
+                if ((c == '=' || c == ':') && endsWithAuthProperty(window, authProperties)) {
+                    out.append(window);
+                    window.setLength(0);
+                    value = new StringBuilder();
+                } else if (window.length() > maxPropertyLength + 1) {
+                    out.append(window, 0, window.length() - maxPropertyLength - 1);
+                    window.delete(0, window.length() - maxPropertyLength - 1);
                 }
             }
+        }
+
+        out.append(window);
+        return redacted;
+    }
 
-            PrintWriter pw = new PrintWriter(f);
-            pw.print(fileString);
-            pw.close();
+    // Whether the window ends with an auth property followed by '=' or ':' (the last character)
+    private static boolean endsWithAuthProperty(StringBuilder window, List<String> authProperties) {
+        int separatorIndex = window.length() - 1;
+        for (String authProperty: authProperties) {
+            int start = separatorIndex - authProperty.length();
+            if (start >= 0 && window.indexOf(authProperty, start) == start)
+                return true;
         }
+        return false;
     }
 }
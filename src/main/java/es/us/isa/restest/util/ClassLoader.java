@@ -7,7 +7,14 @@ import java.io.File;
 import java.io.IOException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.tools.JavaCompiler;
 import javax.tools.JavaFileObject;
@@ -29,16 +36,10 @@ public class ClassLoader {
 		
 		// Compile the source file 
 		try {
-		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-		StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null);
-		File parentDirectory = sourceFile.getParentFile();
-		fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(parentDirectory));
-		Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(Arrays.asList(sourceFile));
-		compiler.getTask(null, fileManager, null, null, null, compilationUnits).call();
-		fileManager.close();
+		compile(sourceFile, null);
 		
 		 // load the compiled class
-		 loadedClass = loadClass(parentDirectory, className);
+		 loadedClass = loadClass(sourceFile.getParentFile(), className, Collections.emptyList());
 
 		} catch (IOException e) {
 			logger.error("Error loading class");
@@ -51,9 +52,72 @@ public class ClassLoader {
 		return loadedClass;
 	}
 
-	private static Class<?> loadClass(File parentDirectory, String className) {
+	/**
+	 * Compile and load a class referencing other classes of the same package and directory (e.g., a test
+	 * suite and its test classes). The classes referenced are compiled in parallel, before the class.
+	 * @param filePath Source file of the class
+	 * @param className Fully qualified name of the class
+	 * @param dependencyPaths Source files of the classes referenced
+	 * @return The class loaded, or null if it could not be compiled or loaded
+	 */
+	public static Class<?> loadClass(String filePath, String className, List<String> dependencyPaths) {
+		File sourceFile = new File(filePath);
+		File parentDirectory = sourceFile.getParentFile();
+		String packagePrefix = className.substring(0, className.lastIndexOf('.') + 1);
+		List<String> dependencyClassNames = new ArrayList<>();
+		Class<?> loadedClass = null;
+
+		ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(dependencyPaths.size(), Runtime.getRuntime().availableProcessors())));
+		try {
+			// Compile the classes referenced in parallel
+			List<Future<Boolean>> compilations = new ArrayList<>();
+			for (String dependencyPath: dependencyPaths) {
+				File dependencyFile = new File(dependencyPath);
+				dependencyClassNames.add(packagePrefix + dependencyFile.getName().replaceAll("\\.java$", ""));
+				compilations.add(executor.submit(() -> compile(dependencyFile, null)));
+			}
+			for (Future<Boolean> compilation: compilations)
+				compilation.get();
+
+			// Compile the class, finding the classes referenced in the output directory
+			compile(sourceFile, Arrays.asList("-classpath", System.getProperty("java.class.path") + File.pathSeparator + parentDirectory.getPath()));
+
+			loadedClass = loadClass(parentDirectory, className, dependencyClassNames);
+		} catch (InterruptedException e) {
+			logger.error("Interrupted while compiling class {}", className);
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException e) {
+			logger.error("Error compiling class");
+			logger.error("Exception: ", e.getCause());
+		} catch (IOException e) {
+			logger.error("Error loading class");
+			logger.error("Exception: ", e);
+		} catch (NullPointerException e) {
+			logger.error("Error loading class. Make sure JDK is used");
+			logger.error("Exception: ", e);
+		} finally {
+			executor.shutdown();
+		}
+
+		return loadedClass;
+	}
+
+	// Compile a source file, writing the class file under the same directory. Returns true if it compiled
+	private static boolean compile(File sourceFile, List<String> options) throws IOException {
+		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+		try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+			fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(sourceFile.getParentFile()));
+			Iterable<? extends JavaFileObject> compilationUnits = fileManager.getJavaFileObjectsFromFiles(Arrays.asList(sourceFile));
+			return compiler.getTask(null, fileManager, null, options, null, compilationUnits).call();
+		}
+	}
+
+	// Classes referenced by the class are loaded with it, since the class loader is closed afterwards
+	private static Class<?> loadClass(File parentDirectory, String className, List<String> dependencyClassNames) {
 		Class<?> loadedClass= null;
 		try(URLClassLoader classLoader = URLClassLoader.newInstance(new URL[] { parentDirectory.toURI().toURL() })) {
+			for (String dependencyClassName: dependencyClassNames)
+				classLoader.loadClass(dependencyClassName);
 			loadedClass = classLoader.loadClass(className);
 		} catch (IOException e) {
 			logger.error("Error loading class");
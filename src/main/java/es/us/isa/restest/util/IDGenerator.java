@@ -14,6 +14,7 @@ public class IDGenerator {
 	
 	static long seed = -1;
 	static Random rand = new Random();
+	private static long lastTimeId = -1;		// Last time ID generated
 	
 	/**
 	 * @return a short ID (13 characters)
@@ -26,8 +27,13 @@ public class IDGenerator {
 		return Long.toString(l, Character.MAX_RADIX);
 	}
 
-	public static String generateTimeId() {
-		return String.valueOf(new Date().getTime());
+	/**
+	 * @return the current time in milliseconds, or the last ID generated plus 1 if it is not
+	 * greater, so that IDs generated within the same millisecond are still unique
+	 */
+	public static synchronized String generateTimeId() {
+		lastTimeId = Math.max(new Date().getTime(), lastTimeId + 1);
+		return String.valueOf(lastTimeId);
 	}
 	
 	public static void setSeed(long s) {
@@ -6,26 +6,48 @@ import static com.atlassian.oai.validator.whitelist.rule.WhitelistRules.messageC
 import static com.atlassian.oai.validator.whitelist.rule.WhitelistRules.messageHasKey;
 
 import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.atlassian.oai.validator.interaction.ApiOperationResolver;
+import com.atlassian.oai.validator.interaction.request.RequestValidator;
+import com.atlassian.oai.validator.report.LevelResolver;
+import com.atlassian.oai.validator.report.MessageResolver;
+import com.atlassian.oai.validator.schema.SchemaValidator;
 import com.atlassian.oai.validator.whitelist.ValidationErrorsWhitelist;
 
 import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.specification.PartialSpecificationLoader;
+import es.us.isa.restest.specification.SpecificationRegistry;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+
+import java.lang.reflect.Field;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 public class OASAPIValidator {
 
-	private static OpenApiInteractionValidator validator;						// OAS validator
-	private static OpenAPISpecification spec = null;							// OAS specification
-	
-	private static OASAPIValidator instance = null;							// Singleton object
-	
-	
+	private static volatile OASAPIValidator instance = null;					// Validators of the last specification requested
+
+	private final OpenAPISpecification spec;									// OAS specification
+	private final OpenApiInteractionValidator validator;						// OAS validator
+	private final OpenAPI api;												// API model shared by all validators
+	private final ApiOperationResolver apiOperationResolver;
+	private final RequestValidator requestValidator;
+	private final ValidationErrorsWhitelist whitelist;
+	private final Map<String, OperationRequestValidator> operationValidators = new ConcurrentHashMap<>(); // Indexed by method and path
+
+
 	private OASAPIValidator(OpenAPISpecification spec) {
-		
+
 		this.spec = spec;
-		
+
 		// Test case validator:
 		// Whitelist: Fix for swagger-validation library: formData parameters defined as string should not
 		// violate the schema when using numbers or booleans, since those are still strings.
-		ValidationErrorsWhitelist whitelist = ValidationErrorsWhitelist.create()
+		this.whitelist = ValidationErrorsWhitelist.create()
 				.withRule(
 						"Ignore non-strings for string-type formData parameters",
 						allOf(
@@ -34,19 +56,93 @@ public class OASAPIValidator {
 								messageContainsSubstring("does not match any allowed primitive type (allowed: [\"string\"])")
 						)
 				);
-		this.validator = OpenApiInteractionValidator.createFor(spec.getPath()).withWhitelist(whitelist).build();
+		this.api = loadApi(spec.getPath(), spec.getPaths());
+		this.validator = OpenApiInteractionValidator.createFor(api).withWhitelist(whitelist).build();
+
+		// Components of the validator, shared by the validators of all operations
+		MessageResolver messages = new MessageResolver(LevelResolver.defaultResolver());
+		this.apiOperationResolver = new ApiOperationResolver(api, null);
+		this.requestValidator = new RequestValidator(new SchemaValidator(api, messages), messages, api, Collections.emptyList());
 	}
-	
-	
+
+
 	public static OpenApiInteractionValidator getValidator(OpenAPISpecification oas) {
-		
-		if (instance==null || !spec.equals(oas)) {
-			spec = oas;
-			instance = new OASAPIValidator(oas);
+		return getInstance(oas).validator;
+	}
+
+	/**
+	 * Returns the request validator of an operation, which gives the same results as the general
+	 * purpose validator returned by {@link #getValidator(OpenAPISpecification)}, but resolves the
+	 * operation only once and reuses the verdicts of repeated test cases. Validators are created
+	 * the first time they are requested.
+	 * @param oas the OpenAPI specification
+	 * @param path the path of the operation, as in the specification
+	 * @param method the HTTP method of the operation
+	 * @return the validator of the operation
+	 */
+	public static OperationRequestValidator getOperationValidator(OpenAPISpecification oas, String path, HttpMethod method) {
+		OASAPIValidator validators = getInstance(oas);
+		return validators.operationValidators.computeIfAbsent(method + " " + path,
+				k -> new OperationRequestValidator(path, method, validators.api, validators.validator, validators.apiOperationResolver, validators.requestValidator, validators.whitelist));
+	}
+
+	// Validators of a specification. Only their creation is synchronized, so that test threads do not wait for each other
+	private static OASAPIValidator getInstance(OpenAPISpecification oas) {
+		OASAPIValidator validators = instance;
+		if (validators != null && validators.spec.equals(oas))
+			return validators;
+
+		synchronized (OASAPIValidator.class) {
+			if (instance == null || !instance.spec.equals(oas))
+				instance = new OASAPIValidator(oas);
+			return instance;
 		}
-		
-		return validator;
-		
 	}
-	
+
+	/**
+	 * Load an OAS with the loader of the validator library, i.e., exactly as
+	 * {@link OpenApiInteractionValidator#createFor(String)} does, so that the API model can be
+	 * shared by several validators. The specification is loaded only once per run, see
+	 * {@link SpecificationRegistry}.
+	 * @param specUrlOrDefinition the path or URL of the specification, or the specification itself
+	 * @return the API model
+	 * @throws OpenApiInteractionValidator.ApiLoadException if the library cannot load the specification
+	 */
+	public static OpenAPI loadApi(String specUrlOrDefinition) {
+		return SpecificationRegistry.getSpecification(specUrlOrDefinition, "validation", OASAPIValidator::parseApi);
+	}
+
+	/**
+	 * Load some paths of an OAS with the loader of the validator library, together with the components
+	 * they reference (see {@link PartialSpecificationLoader}). The whole specification is loaded if it
+	 * cannot be loaded partially (e.g., Swagger 2.0 specifications).
+	 * @param specUrlOrDefinition the path or URL of the specification
+	 * @param paths the paths to load (case insensitive), or null to load the whole specification
+	 * @return the API model
+	 * @throws OpenApiInteractionValidator.ApiLoadException if the library cannot load the specification
+	 */
+	public static OpenAPI loadApi(String specUrlOrDefinition, Collection<String> paths) {
+		if (paths == null)
+			return loadApi(specUrlOrDefinition);
+
+		List<String> sortedPaths = paths.stream().map(String::toLowerCase).sorted().distinct().collect(Collectors.toList());
+		return SpecificationRegistry.getSpecification(specUrlOrDefinition, "validation " + sortedPaths, l -> {
+			String document = PartialSpecificationLoader.loadDocument(l, paths);
+			return document != null ? parseApi(document) : loadApi(l);
+		});
+	}
+
+	// The library does not expose the model it loads, so it is taken from the builder of the validator
+	private static OpenAPI parseApi(String specUrlOrDefinition) {
+		OpenApiInteractionValidator.Builder builder = OpenApiInteractionValidator.createFor(specUrlOrDefinition);
+		builder.build();
+		try {
+			Field api = OpenApiInteractionValidator.Builder.class.getDeclaredField("api");
+			api.setAccessible(true);
+			return (OpenAPI) api.get(builder);
+		} catch (ReflectiveOperationException e) {
+			throw new IllegalStateException("Unsupported version of the OpenAPI validator library", e);
+		}
+	}
+
 }
@@ -0,0 +1,179 @@
+package es.us.isa.restest.util;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.atlassian.oai.validator.interaction.ApiOperationResolver;
+import com.atlassian.oai.validator.interaction.request.RequestValidator;
+import com.atlassian.oai.validator.model.ApiOperation;
+import com.atlassian.oai.validator.model.ApiOperationMatch;
+import com.atlassian.oai.validator.model.NormalisedPathImpl;
+import com.atlassian.oai.validator.model.Request;
+import com.atlassian.oai.validator.report.ValidationReport;
+import com.atlassian.oai.validator.whitelist.ValidationErrorsWhitelist;
+
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.servers.Server;
+import io.swagger.v3.oas.models.servers.ServerVariable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Request validator of a single API operation, equivalent to the general purpose validator
+ * returned by {@link OASAPIValidator#getValidator} (same verdicts and messages). The API
+ * operation is resolved once, when the validator is created, instead of for every test case.
+ * The parameters and body of each test case are still validated by the request validator of
+ * the library, so verdicts stay identical. Test cases whose path could be resolved to a
+ * different operation (e.g., because of the values of their path parameters, or because other
+ * paths or the base path of the API may match it) are validated with the general purpose
+ * validator. Generators often produce test cases with the same parameters as previous ones, so
+ * the validation errors of the last test cases validated are cached. This class is thread-safe.
+ */
+public class OperationRequestValidator {
+
+	private static final int MAX_VERDICTS = 1000;					// Maximum number of validation results kept (least recently used are discarded)
+
+	private final OpenApiInteractionValidator generalValidator;		// Validator used when the operation cannot be resolved in advance
+	private final RequestValidator requestValidator;
+	private final ValidationErrorsWhitelist whitelist;
+	private final ApiOperation apiOperation;						// Resolved operation, null if test cases must be validated by the general purpose validator
+	private final Map<List<Object>, List<String>> verdicts;		// Validation errors of the last test cases validated, indexed by their parameters
+	private final AtomicLong cacheHits = new AtomicLong();			// Number of test cases whose validation errors were cached
+
+	OperationRequestValidator(String path, HttpMethod method, OpenAPI api, OpenApiInteractionValidator generalValidator,
+							  ApiOperationResolver apiOperationResolver, RequestValidator requestValidator, ValidationErrorsWhitelist whitelist) {
+		this.generalValidator = generalValidator;
+		this.requestValidator = requestValidator;
+		this.whitelist = whitelist;
+		this.apiOperation = compileOperation(path, method, api, apiOperationResolver);
+		this.verdicts = Collections.synchronizedMap(new LinkedHashMap<List<Object>, List<String>>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<List<Object>, List<String>> eldest) {
+				return size() > MAX_VERDICTS;
+			}
+		});
+	}
+
+	/**
+	 * Returns the validation errors of a test case of the operation.
+	 * @param testCase a test case whose path and method are the ones of the operation
+	 * @return the messages of the validation errors, as returned by {@link TestCase#getValidationErrors}
+	 */
+	public List<String> getValidationErrors(TestCase testCase) {
+		List<Object> key = Arrays.asList(new HashMap<>(testCase.getPathParameters()), new HashMap<>(testCase.getQueryParameters()),
+				new HashMap<>(testCase.getHeaderParameters()), new HashMap<>(testCase.getFormParameters()),
+				testCase.getBodyParameter(), testCase.getInputFormat());
+		List<String> errors = verdicts.get(key);
+		if (errors == null) {
+			errors = validate(testCase);
+			verdicts.put(key, errors);
+		} else
+			cacheHits.incrementAndGet();
+		return new ArrayList<>(errors);
+	}
+
+	/**
+	 * Returns the number of test cases whose validation errors were taken from the cache, i.e.,
+	 * not validated again.
+	 */
+	public long getCacheHits() {
+		return cacheHits.get();
+	}
+
+	private List<String> validate(TestCase testCase) {
+		if (apiOperation == null || !hasSafePathParameters(testCase))
+			return testCase.getValidationErrors(generalValidator);
+
+		Request request = testCase.toValidatorRequest();
+		ApiOperation requestOperation = new ApiOperation(apiOperation.getApiPath(), new NormalisedPathImpl(request.getPath(), null),
+				apiOperation.getMethod(), apiOperation.getOperation());
+
+		return requestValidator.validateRequest(request, requestOperation).getMessages().stream()
+				.filter(m -> m.getLevel() != ValidationReport.Level.IGNORE)
+				.filter(m -> !whitelist.whitelistedBy(m, requestOperation, request, null).isPresent())
+				.map(m -> m.getKey() + ": " + m.getMessage()).collect(Collectors.toList());
+	}
+
+	/**
+	 * Returns true if the test case is valid according to the specification, false otherwise.
+	 * @param testCase a test case whose path and method are the ones of the operation
+	 * @return true if the test case is valid, false otherwise
+	 */
+	public boolean isValid(TestCase testCase) {
+		return getValidationErrors(testCase).isEmpty();
+	}
+
+	/*
+	 * The operation is resolved from the path with its parameters replaced by a placeholder. The
+	 * resolution can only be reused if no other path of the API may match the same requests, and
+	 * if the path may not start with the base path of the API.
+	 */
+	private static ApiOperation compileOperation(String path, HttpMethod method, OpenAPI api, ApiOperationResolver apiOperationResolver) {
+		String probePath = path.replaceAll("\\{[^/}]*}", "x");
+		ApiOperationMatch match = apiOperationResolver.findApiOperation(probePath, Request.Method.valueOf(method.name()));
+		if (!match.isPathFound() || !match.isOperationAllowed())
+			return null;
+
+		ApiOperation operation = match.getApiOperation();
+		String[] pathParts = splitPath(path);
+		if (!path.equals(operation.getApiPath().original())
+				|| mayStartWithBasePath(pathParts, api)
+				|| api.getPaths().keySet().stream().anyMatch(p -> !p.equals(path) && mayMatchSamePaths(splitPath(p), pathParts)))
+			return null;
+
+		return operation;
+	}
+
+	// The validator strips the base path of the API (i.e., the path of the server URL) from the requests starting with it
+	private static boolean mayStartWithBasePath(String[] pathParts, OpenAPI api) {
+		if (api.getServers() == null)
+			return false;
+
+		for (Server server: api.getServers()) {
+			String url = server.getUrl() != null ? server.getUrl() : "";
+			if (server.getVariables() != null)
+				for (Map.Entry<String, ServerVariable> variable: server.getVariables().entrySet())
+					if (variable.getValue().getDefault() != null)
+						url = url.replace("{" + variable.getKey() + "}", variable.getValue().getDefault());
+
+			String basePath = url.replaceFirst("^[a-zA-Z][a-zA-Z0-9+.-]*://[^/]*", "").replaceAll("^/+|/+$", "");
+			if (basePath.isEmpty())
+				continue;
+			String[] basePathParts = splitPath(basePath);
+			if (basePathParts.length <= pathParts.length && mayMatchSamePaths(basePathParts, Arrays.copyOf(pathParts, basePathParts.length)))
+				return true;
+		}
+		return false;
+	}
+
+	// Path parameters whose values are empty or contain delimiters change the parts of the path
+	private static boolean hasSafePathParameters(TestCase testCase) {
+		for (Map.Entry<String, String> pathParam: testCase.getPathParameters().entrySet()) {
+			String value = pathParam.getValue();
+			if (value == null || value.isEmpty() || value.contains("/") || value.contains("?") || value.contains("#") || value.contains("{"))
+				return false;
+		}
+		return true;
+	}
+
+	private static boolean mayMatchSamePaths(String[] parts1, String[] parts2) {
+		if (parts1.length != parts2.length)
+			return false;
+		for (int i = 0; i < parts1.length; i++)
+			if (!parts1[i].equals(parts2[i]) && !parts1[i].contains("{") && !parts2[i].contains("{"))
+				return false;
+		return true;
+	}
+
+	private static String[] splitPath(String path) {
+		return path.replaceAll("^/+|/+$", "").split("/+");
+	}
+}
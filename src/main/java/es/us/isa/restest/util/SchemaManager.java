@@ -11,6 +11,7 @@ import java.math.BigInteger;
 import java.time.OffsetDateTime;
 import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -83,6 +84,33 @@ public class SchemaManager {
         return copy;
     }
 
+    /**
+     * Given a schema returned by {@link #generateFullyResolvedSchema}, it generates a
+     * duplicate of it, so that it can be modified without modifying the original one.
+     * Unlike generateFullyResolvedSchema, no ref is resolved.
+     */
+    public static Schema<?> copyFullyResolvedSchema(Schema<?> schema) {
+        if (schema instanceof ArraySchema) {
+            ArraySchema copy = new ArraySchema();
+            prePopulateSchema(schema, copy);
+            if (((ArraySchema) schema).getItems() != null)
+                copy.setItems(copyFullyResolvedSchema(((ArraySchema) schema).getItems()));
+            return copy;
+        }
+
+        Schema copy = new Schema();
+        prePopulateSchema(schema, copy);
+
+        if (schema.getProperties() != null) {
+            Map<String, Schema> properties = new LinkedHashMap<>();
+            for (Map.Entry<String, Schema> entry: schema.getProperties().entrySet())
+                properties.put(entry.getKey(), copyFullyResolvedSchema(entry.getValue()));
+            copy.setProperties(properties);
+        }
+
+        return copy;
+    }
+
     public static void prePopulateSchema(Schema resolvedSchema, Schema<?> copy) {
         copy.set$ref(resolvedSchema.get$ref());
         copy.setAdditionalProperties(resolvedSchema.getAdditionalProperties());
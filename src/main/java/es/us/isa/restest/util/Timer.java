@@ -6,17 +6,21 @@ import static es.us.isa.restest.util.CSVManager.createCSVwithHeader;
 import static es.us.isa.restest.util.CSVManager.writeCSVRow;
 import static es.us.isa.restest.util.FileManager.checkIfExists;
 
+/**
+ * Time measures of the test steps. Steps may be measured from different threads (e.g., by the
+ * pipelined runner), but each step must be started and stopped by the same thread.
+ */
 public class Timer {
 
     private static Map<String, List<Long>> counters = new HashMap<>();
 
-    public static Map<String, List<Long>> getCounters() {
+    public static synchronized Map<String, List<Long>> getCounters() {
         return counters;
     }
 
-    public static void resetCounters() { counters = new HashMap<>(); }
+    public static synchronized void resetCounters() { counters = new HashMap<>(); }
 
-    public static void startCounting(TestStep step) {
+    public static synchronized void startCounting(TestStep step) {
         counters.putIfAbsent(step.name, new ArrayList<>());
         List<Long> stepMeasures = counters.get(step.name);
         if (stepMeasures.size() > 0 && stepMeasures.get(stepMeasures.size()-1) < 0)
@@ -25,13 +29,13 @@ public class Timer {
         stepMeasures.add(-new Date().getTime());
     }
 
-    public static void stopCounting(TestStep step) {
+    public static synchronized void stopCounting(TestStep step) {
         Long stopTime = new Date().getTime();
         List<Long> stepMeasures = counters.get(step.name);
         stepMeasures.set(stepMeasures.size()-1, stopTime+stepMeasures.get(stepMeasures.size()-1));
     }
 
-    public static void exportToCSV(String path, Integer iterations) {
+    public static synchronized void exportToCSV(String path, Integer iterations) {
         if (!checkIfExists(path)) { // If the file doesn't exist, create it (only once)
             StringBuilder header = new StringBuilder();
             boolean first = true;
@@ -1,6 +1,9 @@
 package es.us.isa.restest.writers;
 
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
 
 import es.us.isa.restest.testcases.TestCase;
 
@@ -15,4 +18,16 @@ public interface IWriter {
 	 */
 	void write(Collection<TestCase> testCases);
 
+	/**
+	 * Same as {@link #write(Collection)}, but consuming the test cases as they are generated (see
+	 * {@link es.us.isa.restest.generators.AbstractTestCaseGenerator#iterator()}). By default, the test
+	 * cases are collected and written at once.
+	 * @param testCases The domain-independent test cases to be instantiated
+	 */
+	default void write(Iterator<TestCase> testCases) {
+		List<TestCase> testCaseList = new ArrayList<>();
+		testCases.forEachRemaining(testCaseList::add);
+		write(testCaseList);
+	}
+
 }
\ No newline at end of file
@@ -0,0 +1,278 @@
+package es.us.isa.restest.writers.restassured;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Test suite executed by {@link RESTAssuredDataDrivenTest}: the settings of the test class (base URI,
+ * filters, logging...) and the test cases, stored in a JSON data file written by {@link RESTAssuredWriter}.
+ * Test cases are written as they are generated, and read all at once before the test suite is executed.
+ */
+public class DataDrivenTestSuite {
+
+	private static final ObjectMapper objectMapper = new ObjectMapper();
+
+	private String specPath;						// Path to OAS specification file
+	private List<String> specPaths;					// Paths of the OAS specification loaded, null if it is loaded completely
+	private String baseURI;							// API base URI
+	private String APIName;							// API name (necessary for folder name of exported data)
+	private String testId;							// Test suite ID
+	private String proxy;							// Proxy to use for all requests in format host:port, null if none
+	private String logFilename;						// Log file (only if logToFile is 'true')
+	private boolean logging;						// Log requests and responses
+	private boolean logToFile;						// If 'true', REST-Assured requests and responses will be logged into external files
+	private boolean allureReport;					// Generate request and response attachment for allure reports
+	private boolean enableStats;					// If true, export test results data to CSV
+	private boolean enableOutputCoverage;			// If true, export output coverage data to CSV
+	private boolean statefulFilter;					// If 'true', stateful filter will be used
+	private List<TestCase> testCases = new ArrayList<>();
+
+	/**
+	 * Write the settings of the test suite and its test cases, as they are generated
+	 * @param path Path of the data file
+	 * @param testCases Test cases to write
+	 * @return Number of test cases written
+	 * @throws IOException if the data file cannot be written
+	 */
+	public int write(String path, Iterator<TestCase> testCases) throws IOException {
+		int nTestCases = 0;
+		try (JsonGenerator generator = objectMapper.getFactory().createGenerator(new File(path), JsonEncoding.UTF8)) {
+			generator.writeStartObject();
+			generator.writeStringField("specPath", specPath);
+			if (specPaths != null) {
+				generator.writeArrayFieldStart("specPaths");
+				for (String apiPath: specPaths)
+					generator.writeString(apiPath);
+				generator.writeEndArray();
+			}
+			generator.writeStringField("baseURI", baseURI);
+			generator.writeStringField("APIName", APIName);
+			generator.writeStringField("testId", testId);
+			generator.writeStringField("proxy", proxy);
+			generator.writeStringField("logFilename", logFilename);
+			generator.writeBooleanField("logging", logging);
+			generator.writeBooleanField("logToFile", logToFile);
+			generator.writeBooleanField("allureReport", allureReport);
+			generator.writeBooleanField("enableStats", enableStats);
+			generator.writeBooleanField("enableOutputCoverage", enableOutputCoverage);
+			generator.writeBooleanField("statefulFilter", statefulFilter);
+
+			generator.writeArrayFieldStart("testCases");
+			while (testCases.hasNext()) {
+				writeTestCase(generator, testCases.next());
+				nTestCases++;
+			}
+			generator.writeEndArray();
+			generator.writeEndObject();
+		}
+		return nTestCases;
+	}
+
+	/**
+	 * Read a test suite written with {@link #write(String, Iterator)}
+	 * @param path Path of the data file
+	 * @return the test suite
+	 * @throws IOException if the data file cannot be read
+	 */
+	public static DataDrivenTestSuite read(String path) throws IOException {
+		JsonNode root = objectMapper.readTree(new File(path));
+		DataDrivenTestSuite testSuite = new DataDrivenTestSuite();
+		testSuite.specPath = root.path("specPath").textValue();
+		if (root.has("specPaths")) {
+			testSuite.specPaths = new ArrayList<>();
+			for (JsonNode apiPath: root.get("specPaths"))
+				testSuite.specPaths.add(apiPath.textValue());
+		}
+		testSuite.baseURI = root.path("baseURI").textValue();
+		testSuite.APIName = root.path("APIName").textValue();
+		testSuite.testId = root.path("testId").textValue();
+		testSuite.proxy = root.path("proxy").textValue();
+		testSuite.logFilename = root.path("logFilename").textValue();
+		testSuite.logging = root.path("logging").asBoolean();
+		testSuite.logToFile = root.path("logToFile").asBoolean();
+		testSuite.allureReport = root.path("allureReport").asBoolean();
+		testSuite.enableStats = root.path("enableStats").asBoolean();
+		testSuite.enableOutputCoverage = root.path("enableOutputCoverage").asBoolean();
+		testSuite.statefulFilter = root.path("statefulFilter").asBoolean();
+		for (JsonNode testCase: root.path("testCases"))
+			testSuite.testCases.add(readTestCase(testCase));
+		return testSuite;
+	}
+
+	private static void writeTestCase(JsonGenerator generator, TestCase testCase) throws IOException {
+		generator.writeStartObject();
+		generator.writeStringField("id", testCase.getId());
+		generator.writeStringField("operationId", testCase.getOperationId());
+		generator.writeStringField("method", testCase.getMethod().name());
+		generator.writeStringField("path", testCase.getPath());
+		writeBooleanField(generator, "faulty", testCase.getFaulty());
+		writeBooleanField(generator, "fulfillsDependencies", testCase.getFulfillsDependencies());
+		generator.writeStringField("faultyReason", testCase.getFaultyReason());
+		generator.writeStringField("inputFormat", testCase.getInputFormat());
+		writeParameters(generator, "headerParameters", testCase.getHeaderParameters());
+		writeParameters(generator, "queryParameters", testCase.getQueryParameters());
+		writeParameters(generator, "pathParameters", testCase.getPathParameters());
+		writeParameters(generator, "formParameters", testCase.getFormParameters());
+		generator.writeStringField("bodyParameter", testCase.getBodyParameter());
+		generator.writeEndObject();
+	}
+
+	private static void writeBooleanField(JsonGenerator generator, String name, Boolean value) throws IOException {
+		if (value != null)
+			generator.writeBooleanField(name, value);
+		else
+			generator.writeNullField(name);
+	}
+
+	private static void writeParameters(JsonGenerator generator, String name, Map<String, String> parameters) throws IOException {
+		generator.writeObjectFieldStart(name);
+		for (Map.Entry<String, String> parameter: parameters.entrySet())
+			generator.writeStringField(parameter.getKey(), parameter.getValue());
+		generator.writeEndObject();
+	}
+
+	private static TestCase readTestCase(JsonNode node) {
+		TestCase testCase = new TestCase(node.path("id").textValue(), readBoolean(node.path("faulty")),
+				node.path("operationId").textValue(), node.path("path").textValue(), HttpMethod.valueOf(node.path("method").textValue()));
+		testCase.setFulfillsDependencies(readBoolean(node.path("fulfillsDependencies")));
+		testCase.setFaultyReason(node.path("faultyReason").textValue());
+		// Parameters are set as they were written, since adding them may process their values
+		testCase.setHeaderParameters(readParameters(node.path("headerParameters")));
+		testCase.setQueryParameters(readParameters(node.path("queryParameters")));
+		testCase.setPathParameters(readParameters(node.path("pathParameters")));
+		testCase.setFormParameters(readParameters(node.path("formParameters")));
+		testCase.setInputFormat(node.path("inputFormat").textValue());
+		testCase.setBodyParameter(node.path("bodyParameter").textValue());
+		return testCase;
+	}
+
+	private static Map<String, String> readParameters(JsonNode node) {
+		Map<String, String> parameters = new HashMap<>();
+		node.fields().forEachRemaining(p -> parameters.put(p.getKey(), p.getValue().textValue()));
+		return parameters;
+	}
+
+	private static Boolean readBoolean(JsonNode node) {
+		return node.isBoolean() ? node.booleanValue() : null;
+	}
+
+	public String getSpecPath() {
+		return specPath;
+	}
+
+	public void setSpecPath(String specPath) {
+		this.specPath = specPath;
+	}
+
+	public List<String> getSpecPaths() {
+		return specPaths;
+	}
+
+	public void setSpecPaths(List<String> specPaths) {
+		this.specPaths = specPaths;
+	}
+
+	public String getBaseURI() {
+		return baseURI;
+	}
+
+	public void setBaseURI(String baseURI) {
+		this.baseURI = baseURI;
+	}
+
+	public String getAPIName() {
+		return APIName;
+	}
+
+	public void setAPIName(String APIName) {
+		this.APIName = APIName;
+	}
+
+	public String getTestId() {
+		return testId;
+	}
+
+	public void setTestId(String testId) {
+		this.testId = testId;
+	}
+
+	public String getProxy() {
+		return proxy;
+	}
+
+	public void setProxy(String proxy) {
+		this.proxy = proxy;
+	}
+
+	public String getLogFilename() {
+		return logFilename;
+	}
+
+	public void setLogFilename(String logFilename) {
+		this.logFilename = logFilename;
+	}
+
+	public boolean isLogging() {
+		return logging;
+	}
+
+	public void setLogging(boolean logging) {
+		this.logging = logging;
+	}
+
+	public boolean isLogToFile() {
+		return logToFile;
+	}
+
+	public void setLogToFile(boolean logToFile) {
+		this.logToFile = logToFile;
+	}
+
+	public boolean isAllureReport() {
+		return allureReport;
+	}
+
+	public void setAllureReport(boolean allureReport) {
+		this.allureReport = allureReport;
+	}
+
+	public boolean isEnableStats() {
+		return enableStats;
+	}
+
+	public void setEnableStats(boolean enableStats) {
+		this.enableStats = enableStats;
+	}
+
+	public boolean isEnableOutputCoverage() {
+		return enableOutputCoverage;
+	}
+
+	public void setEnableOutputCoverage(boolean enableOutputCoverage) {
+		this.enableOutputCoverage = enableOutputCoverage;
+	}
+
+	public boolean isStatefulFilter() {
+		return statefulFilter;
+	}
+
+	public void setStatefulFilter(boolean statefulFilter) {
+		this.statefulFilter = statefulFilter;
+	}
+
+	public List<TestCase> getTestCases() {
+		return testCases;
+	}
+}
@@ -0,0 +1,252 @@
+package es.us.isa.restest.writers.restassured;
+
+import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.writers.restassured.filters.CSVFilter;
+import es.us.isa.restest.writers.restassured.filters.CoverageFilter;
+import es.us.isa.restest.writers.restassured.filters.NominalOrFaultyTestCaseFilter;
+import es.us.isa.restest.writers.restassured.filters.ResponseValidationFilter;
+import es.us.isa.restest.writers.restassured.filters.StatefulFilter;
+import es.us.isa.restest.writers.restassured.filters.StatusCode5XXFilter;
+import io.qameta.allure.restassured.AllureRestAssured;
+import io.restassured.RestAssured;
+import io.restassured.filter.log.RequestLoggingFilter;
+import io.restassured.filter.log.ResponseLoggingFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.apache.logging.log4j.core.LoggerContext;
+import org.apache.logging.log4j.io.IoBuilder;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map.Entry;
+
+import static es.us.isa.restest.util.FileManager.checkIfExists;
+import static org.junit.Assert.fail;
+
+/**
+ * Precompiled test class executing the test cases of a data file written by {@link RESTAssuredWriter} in
+ * data-driven mode, in the same way as the test methods written by {@link RESTAssuredWriter}. The writer
+ * writes a subclass once, which only points to the data file, so that the test class does not need to be
+ * compiled again when new test cases are generated. The subclass can be run from the IDE, executing the
+ * test cases of the last data file written (or those of the data file set in the system property
+ * {@value #TEST_CASES_FILE_PROPERTY}).
+ */
+@RunWith(Parameterized.class)
+public abstract class RESTAssuredDataDrivenTest {
+
+	public static final String TEST_CASES_FILE_PROPERTY = "restest.testcases.file";
+	public static final String TEST_CASES_FILE_EXTENSION = ".json";
+
+	private static final Logger logger = LogManager.getLogger(RESTAssuredDataDrivenTest.class.getName());
+
+	private static DataDrivenTestSuite testSuite;						// Test suite being executed
+	private static StatusCode5XXFilter statusCode5XXFilter;
+	private static NominalOrFaultyTestCaseFilter nominalOrFaultyTestCaseFilter;
+	private static ResponseValidationFilter validationFilter;
+	private static StatefulFilter statefulFilter;						// null if not used
+	private static RequestLoggingFilter requestLoggingFilter;			// null if not logging into external files
+	private static ResponseLoggingFilter responseLoggingFilter;			// null if not logging into external files
+	private static AllureRestAssured allureFilter;						// null if not used
+	private static CSVFilter csvFilter;									// null if neither stats nor output coverage are enabled
+	private static CoverageFilter coverageFilter;						// null if output coverage is not enabled
+
+	private final TestCase testCase;
+
+	protected RESTAssuredDataDrivenTest(TestCase testCase) {
+		this.testCase = testCase;
+	}
+
+	/**
+	 * Load the test cases to be executed. To be called from the method of the subclass annotated with
+	 * {@link org.junit.runners.Parameterized.Parameters}.
+	 * @param targetDir Directory of the data files
+	 * @param className Name of the test class, prefix of the data files
+	 * @return Parameters of the test class: ID of the test case and test case
+	 * @throws IOException if the data file cannot be read
+	 */
+	protected static Collection<Object[]> loadTestCases(String targetDir, String className) throws IOException {
+		String path = System.getProperty(TEST_CASES_FILE_PROPERTY);
+		if (path == null)
+			path = findLastTestCasesFile(targetDir, className);
+
+		testSuite = DataDrivenTestSuite.read(path);
+		List<Object[]> parameters = new ArrayList<>();
+		for (TestCase tc: testSuite.getTestCases())
+			parameters.add(new Object[] {tc.getId(), tc});
+		return parameters;
+	}
+
+	// Last data file written for the test class
+	private static String findLastTestCasesFile(String targetDir, String className) throws IOException {
+		File[] files = new File(targetDir).listFiles((dir, name) -> (name.startsWith(className + "_") || name.equals(className + TEST_CASES_FILE_EXTENSION)) && name.endsWith(TEST_CASES_FILE_EXTENSION));
+		File lastFile = null;
+		if (files != null)
+			for (File file: files)
+				if (lastFile == null || file.lastModified() > lastFile.lastModified())
+					lastFile = file;
+		if (lastFile == null)
+			throw new IOException("No test cases found for the test class " + className + " in " + targetDir);
+		return lastFile.getPath();
+	}
+
+	@BeforeClass
+	public static void setUp() {
+		if (testSuite.getProxy() != null) {
+			String[] proxy = testSuite.getProxy().split(":");
+			System.setProperty("http.proxyHost", proxy[0]);
+			System.setProperty("http.proxyPort", proxy[1]);
+			System.setProperty("http.nonProxyHosts", "localhost|127.0.0.1");
+			System.setProperty("https.proxyHost", proxy[0]);
+			System.setProperty("https.proxyPort", proxy[1]);
+			System.setProperty("https.nonProxyHosts", "localhost|127.0.0.1");
+		}
+
+		RestAssured.baseURI = testSuite.getBaseURI();
+
+		requestLoggingFilter = null;
+		responseLoggingFilter = null;
+		if (testSuite.isLogToFile()) {
+			// Configure logging
+			if (testSuite.getLogFilename() != null)
+				System.setProperty("logFilename", testSuite.getLogFilename());
+			PrintStream logStream = IoBuilder.forLogger(logger).buildPrintStream();
+			requestLoggingFilter = RequestLoggingFilter.logRequestTo(logStream);
+			responseLoggingFilter = new ResponseLoggingFilter(logStream);
+			LoggerContext ctx = (LoggerContext) LogManager.getContext(false);
+			File file = new File("src/main/resources/log4j2-logToFile.properties");
+			ctx.setConfigLocation(file.toURI());
+			ctx.reconfigure();
+		}
+
+		statusCode5XXFilter = new StatusCode5XXFilter();
+		nominalOrFaultyTestCaseFilter = new NominalOrFaultyTestCaseFilter();
+		validationFilter = new ResponseValidationFilter(testSuite.getSpecPath(), testSuite.getSpecPaths());
+		statefulFilter = testSuite.isStatefulFilter() ? new StatefulFilter(testSuite.getSpecPath().substring(0, testSuite.getSpecPath().lastIndexOf('/'))) : null;
+		allureFilter = testSuite.isAllureReport() ? new AllureRestAssured() : null;
+		csvFilter = null;
+		coverageFilter = null;
+
+		if (testSuite.isEnableStats() || testSuite.isEnableOutputCoverage()) { // This is only needed to export output data to the proper folder
+			csvFilter = new CSVFilter(testSuite.getAPIName(), testSuite.getTestId());
+			statusCode5XXFilter.setAPIName(testSuite.getAPIName());
+			statusCode5XXFilter.setTestId(testSuite.getTestId());
+			nominalOrFaultyTestCaseFilter.setAPIName(testSuite.getAPIName());
+			nominalOrFaultyTestCaseFilter.setTestId(testSuite.getTestId());
+			validationFilter.setAPIName(testSuite.getAPIName());
+			validationFilter.setTestId(testSuite.getTestId());
+		}
+
+		if (testSuite.isEnableOutputCoverage()) // Live coverage is updated as soon as responses are received
+			coverageFilter = new CoverageFilter(testSuite.getAPIName(), testSuite.getTestId());
+	}
+
+	@Test
+	public void test() {
+		String testResultId = testCase.getId();
+
+		nominalOrFaultyTestCaseFilter.updateFaultyData(testCase.getFaulty(), testCase.getFulfillsDependencies(), testCase.getFaultyReason());
+		statusCode5XXFilter.updateFaultyData(testCase.getFaulty(), testCase.getFulfillsDependencies(), testCase.getFaultyReason());
+
+		if (csvFilter != null) {
+			csvFilter.setTestResultId(testResultId);
+			statusCode5XXFilter.setTestResultId(testResultId);
+			nominalOrFaultyTestCaseFilter.setTestResultId(testResultId);
+			validationFilter.setTestResultId(testResultId);
+		}
+
+		if (coverageFilter != null)
+			coverageFilter.setTestResultId(testResultId);
+
+		boolean stateful = statefulFilter != null && testCase.getMethod().equals(HttpMethod.GET);
+		if (stateful)
+			statefulFilter.setOperation(testCase.getMethod().toString(), testCase.getPath());
+
+		try {
+			RequestSpecification request = RestAssured.given();
+
+			if (testSuite.isLogging() && !testSuite.isLogToFile())
+				request.log().all();
+
+			for (Entry<String, String> param: testCase.getHeaderParameters().entrySet())
+				request.header(param.getKey(), param.getValue());
+
+			for (Entry<String, String> param: testCase.getQueryParameters().entrySet())
+				request.queryParam(param.getKey(), param.getValue());
+
+			for (Entry<String, String> param: testCase.getPathParameters().entrySet())
+				request.pathParam(param.getKey(), param.getValue().replace("{", ""));	// "{" would be taken as a path template by REST-Assured
+
+			addFormParameters(request);
+			addBodyParameter(request);
+			addFilters(request, stateful);
+
+			Response response = request
+				.when()
+				.request(testCase.getMethod().name(), testCase.getPath());
+
+			if (testSuite.isLogging() && !testSuite.isLogToFile())
+				response.then().log().all();
+			else
+				response.then();
+
+			logger.debug("Test {} passed.", testCase.getId());
+		} catch (RuntimeException ex) {
+			logger.error("Test {} failed: {}", testCase.getId(), ex.getMessage());
+			fail(ex.getMessage());
+		}
+	}
+
+	private void addFormParameters(RequestSpecification request) {
+		if (testCase.getFormParameters().values().stream().anyMatch(x -> checkIfExists(x)))
+			request.contentType("multipart/form-data");
+		else if (!testCase.getFormParameters().isEmpty())
+			request.contentType("application/x-www-form-urlencoded");
+
+		for (Entry<String, String> param: testCase.getFormParameters().entrySet()) {
+			if (checkIfExists(param.getValue()))
+				request.multiPart(param.getKey(), new File(param.getValue()));
+			else
+				request.formParam(param.getKey(), param.getValue());
+		}
+	}
+
+	private void addBodyParameter(RequestSpecification request) {
+		HttpMethod method = testCase.getMethod();
+		if (testCase.getFormParameters().isEmpty() &&
+				(method.equals(HttpMethod.POST) || method.equals(HttpMethod.PUT) || method.equals(HttpMethod.PATCH) ||
+				(testCase.getBodyParameter() != null && method.equals(HttpMethod.DELETE))))
+			request.contentType(testCase.getInputFormat());
+		if (testCase.getBodyParameter() != null)
+			request.body(testCase.getBodyParameter());
+	}
+
+	// Same filters, in the same order, as the test methods written by RESTAssuredWriter
+	private void addFilters(RequestSpecification request, boolean stateful) {
+		if (requestLoggingFilter != null) {
+			request.filter(requestLoggingFilter);
+			request.filter(responseLoggingFilter);
+		}
+		if (coverageFilter != null)
+			request.filter(coverageFilter);
+		if (allureFilter != null)
+			request.filter(allureFilter);
+		request.filter(statusCode5XXFilter);
+		request.filter(nominalOrFaultyTestCaseFilter);
+		request.filter(validationFilter);
+		if (csvFilter != null)
+			request.filter(csvFilter);
+		if (stateful)
+			request.filter(statefulFilter);
+	}
+}
@@ -1,8 +1,23 @@
 package es.us.isa.restest.writers.restassured;
 
+import java.io.BufferedWriter;
 import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map.Entry;
+import java.util.stream.Collectors;
 
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.specification.OpenAPISpecification;
@@ -33,6 +48,7 @@ public class RESTAssuredWriter implements IWriter {
 	private boolean enableOutputCoverage = false;	// If true, export output coverage data to CSV
 
 	private String specPath;						// Path to OAS specification file
+	private List<String> specPaths;					// Paths of the OAS specification loaded, null if it is loaded completely
 	private String testConfPath;					// Path to testConf
 	private OpenAPISpecification spec;				// OpenAPI spec
 	private TestConfigurationObject testConf;		// testConf
@@ -44,14 +60,23 @@ public class RESTAssuredWriter implements IWriter {
 	private boolean logToFile;						// If 'true', REST-Assured requests and responses will be logged into external files
 	private boolean statefulFilter;					// If 'true', stateful filter will be used in written classes
 	private String proxy;							// Proxy to use for all requests in format host:port
+	private boolean dataDriven = false;				// If 'true', test cases are written to a data file, executed by a test class written only once
+	private String testCasesFile;					// Last data file written (data-driven mode only)
+	private int shardSize = -1;						// Maximum number of test cases per test class (-1 for no limit). Larger test suites are split into several classes
+	private List<String> shardClassNames = Collections.emptyList();	// Test classes the last test suite written was split into
 
 	private String APIName;							// API name (necessary for folder name of exported data)
 
 	private static final Logger logger = LogManager.getLogger(RESTAssuredWriter.class.getName());
 	
 	public RESTAssuredWriter(String specPath, String testConfPath, String targetDirJava, String className, String packageName, String baseURI, Boolean logToFile) {
-		this.specPath = specPath;
-		this.spec = new OpenAPISpecification(specPath);
+		this(new OpenAPISpecification(specPath), testConfPath, targetDirJava, className, packageName, baseURI, logToFile);
+	}
+
+	public RESTAssuredWriter(OpenAPISpecification spec, String testConfPath, String targetDirJava, String className, String packageName, String baseURI, Boolean logToFile) {
+		this.specPath = spec.getPath();
+		this.specPaths = spec.getPaths();
+		this.spec = spec;
 		this.testConfPath = testConfPath;
 		this.testConf = loadConfiguration(testConfPath, spec);
 		this.targetDirJava = targetDirJava;
@@ -67,32 +92,28 @@ public class RESTAssuredWriter implements IWriter {
 	 */
 	@Override
 	public void write(Collection<TestCase> testCases) {
-		
-		// Initializing content
-		String contentFile = "";
-		
-		// Generating imports
-		contentFile += generateImports(packageName);
-		
-		// Generate className
-		contentFile += generateClassName(className);
-		
-		// Generate attributes
-		contentFile += generateAttributes(specPath);
-		
-		// Generate variables to be used.
-		contentFile += generateSetUp(baseURI);
+		write(testCases.iterator());
+	}
 
-		// Generate tests
-		int ntest=1;
-		for(TestCase t: testCases)
-			contentFile += generateTest(t,ntest++);
-		
-		// Close class
-		contentFile += "}\n";
-		
-		//Save to file
-		saveToFile(targetDirJava,className,contentFile);
+	/* (non-Javadoc)
+	 * @see es.us.isa.restest.writers.IWriter#write(java.util.Iterator)
+	 */
+	@Override
+	public void write(Iterator<TestCase> testCases) {
+
+		shardClassNames = Collections.emptyList();
+
+		if (dataDriven) {
+			writeDataDriven(testCases);
+			return;
+		}
+
+		if (shardSize > 0) {
+			writeShards(testCases);
+			return;
+		}
+
+		writeTestClass(className, testCases, -1);
 		
 		/* Test Compile
 		JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
@@ -100,6 +121,190 @@ public class RESTAssuredWriter implements IWriter {
 		*/
 	}
 
+	/*
+	 * Write a test class with the next test cases, at most maxTestCases (-1 for no limit). Test methods are
+	 * written as they are generated, so the content of the class is never held in memory. The class is written
+	 * to a temporary file first, so that no half-written class is left if the test cases cannot be generated.
+	 * Returns false if the test class could not be written.
+	 */
+	private boolean writeTestClass(String testClassName, Iterator<TestCase> testCases, int maxTestCases) {
+		Path testClassPath = Paths.get(targetDirJava, testClassName + ".java");
+		Path tmpTestClassPath = getTmpPath(testClassPath);
+		try {
+			try(Writer testClass = new BufferedWriter(new FileWriter(tmpTestClassPath.toFile()))) {
+
+				// Generating imports
+				testClass.write(generateImports(packageName));
+
+				// Generate className
+				testClass.write(generateClassName(testClassName));
+
+				// Generate attributes
+				testClass.write(generateAttributes(specPath, testClassName));
+
+				// Generate variables to be used.
+				testClass.write(generateSetUp(baseURI, testClassName));
+
+				// Generate tests
+				int ntest=1;
+				while ((maxTestCases == -1 || ntest <= maxTestCases) && testCases.hasNext())
+					testClass.write(generateTest(testCases.next(),ntest++));
+
+				// Close class
+				testClass.write("}\n");
+			}
+			replaceFile(tmpTestClassPath, testClassPath);
+		} catch(IOException ex) {
+			logger.error("Error writing test file");
+			logger.error("Exception: ", ex);
+			return false;
+		} finally {
+			deleteTmpFile(tmpTestClassPath);
+		}
+		return true;
+	}
+
+	/*
+	 * Split the test suite into test classes of shardSize test cases at most (<className>_1, <className>_2...),
+	 * so that they can be compiled in parallel, and write a JUnit suite running all of them as the test class.
+	 */
+	private void writeShards(Iterator<TestCase> testCases) {
+		List<String> shards = new ArrayList<>();
+		do {
+			String shardClassName = className + "_" + (shards.size() + 1);
+			if (!writeTestClass(shardClassName, testCases, shardSize))
+				return;
+			shards.add(shardClassName);
+		} while (testCases.hasNext());
+
+		try {
+			writeFile(Paths.get(targetDirJava, className + ".java"), generateSuiteClass(shards).getBytes(StandardCharsets.UTF_8));
+		} catch(IOException ex) {
+			logger.error("Error writing test file");
+			logger.error("Exception: ", ex);
+			return;
+		}
+		shardClassNames = shards;
+		logger.info("Test suite split into {} test classes of {} test cases at most", shards.size(), shardSize);
+	}
+
+	// Write a file through a temporary file, so that it is never left half-written
+	private static void writeFile(Path path, byte[] content) throws IOException {
+		Path tmpPath = getTmpPath(path);
+		try {
+			Files.write(tmpPath, content);
+			replaceFile(tmpPath, path);
+		} finally {
+			deleteTmpFile(tmpPath);
+		}
+	}
+
+	private static Path getTmpPath(Path path) {
+		return path.resolveSibling(path.getFileName() + ".tmp");
+	}
+
+	private static void replaceFile(Path tmpPath, Path path) throws IOException {
+		try {
+			Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmpPath, path, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	// Delete the temporary file left if the file could not be written (e.g., if the test cases could not be generated)
+	private static void deleteTmpFile(Path tmpPath) {
+		try {
+			Files.deleteIfExists(tmpPath);
+		} catch (IOException e) {
+			logger.warn("The temporary file {} could not be deleted: {}", tmpPath, e.getMessage());
+		}
+	}
+
+	private String generateSuiteClass(List<String> shards) {
+		String content = "";
+
+		if (packageName!=null)
+			content += "package " + packageName + ";\n\n";
+
+		content += "import org.junit.runner.RunWith;\n"
+				+  "import org.junit.runners.Suite;\n\n";
+
+		content += "@RunWith(Suite.class)\n"
+				+  "@Suite.SuiteClasses({\n"
+				+  shards.stream().map(shard -> "\t" + shard + ".class").collect(Collectors.joining(",\n")) + "\n"
+				+  "})\n"
+				+  "public class " + className + " {\n"
+				+  "}\n";
+
+		return content;
+	}
+
+	/*
+	 * Write the test cases to a data file, and the test class executing them only if it changed, so that
+	 * it is not compiled again. Data files are named after the test class and the test suite ID.
+	 */
+	private void writeDataDriven(Iterator<TestCase> testCases) {
+		String path = targetDirJava + "/" + className + (testId != null ? "_" + testId : "") + RESTAssuredDataDrivenTest.TEST_CASES_FILE_EXTENSION;
+
+		DataDrivenTestSuite testSuite = new DataDrivenTestSuite();
+		testSuite.setSpecPath(specPath);
+		testSuite.setSpecPaths(specPaths);
+		testSuite.setBaseURI(baseURI);
+		testSuite.setAPIName(APIName);
+		testSuite.setTestId(testId);
+		testSuite.setProxy(proxy);
+		testSuite.setLogFilename(System.getProperty("logFilename"));
+		testSuite.setLogging(logging);
+		testSuite.setLogToFile(logToFile);
+		testSuite.setAllureReport(allureReport);
+		testSuite.setEnableStats(enableStats);
+		testSuite.setEnableOutputCoverage(enableOutputCoverage);
+		testSuite.setStatefulFilter(statefulFilter);
+
+		Path tmpPath = getTmpPath(Paths.get(path));
+		try {
+			int nTestCases = testSuite.write(tmpPath.toString(), testCases);
+			replaceFile(tmpPath, Paths.get(path));
+			testCasesFile = path;
+			logger.info("{} test cases written to data file {}", nTestCases, path);
+
+			Path testClassPath = Paths.get(targetDirJava, className + ".java");
+			byte[] testClass = generateDataDrivenTestClass().getBytes(StandardCharsets.UTF_8);
+			if (!Files.exists(testClassPath) || !Arrays.equals(Files.readAllBytes(testClassPath), testClass))
+				writeFile(testClassPath, testClass);
+		} catch(IOException ex) {
+			logger.error("Error writing test file");
+			logger.error("Exception: ", ex);
+		} finally {
+			deleteTmpFile(tmpPath);
+		}
+	}
+
+	private String generateDataDrivenTestClass() {
+		String content = "";
+
+		if (packageName!=null)
+			content += "package " + packageName + ";\n\n";
+
+		content += "import es.us.isa.restest.testcases.TestCase;\n"
+				+  "import es.us.isa.restest.writers.restassured.RESTAssuredDataDrivenTest;\n"
+				+  "import org.junit.runners.Parameterized.Parameters;\n"
+				+  "import java.io.IOException;\n"
+				+  "import java.util.Collection;\n\n";
+
+		content += "public class " + className + " extends RESTAssuredDataDrivenTest {\n\n"
+				+  "\tpublic " + className + "(String testCaseId, TestCase testCase) {\n"
+				+  "\t\tsuper(testCase);\n"
+				+  "\t}\n\n"
+				+  "\t@Parameters(name = \"{0}\")\n"
+				+  "\tpublic static Collection<Object[]> testCases() throws IOException {\n"
+				+  "\t\treturn loadTestCases(\"" + escapeJava(targetDirJava) + "\", \"" + className + "\");\n"
+				+  "\t}\n"
+				+  "}\n";
+
+		return content;
+	}
+
 	private String generateImports(String packageName) {
 		String content = "";
 		
@@ -119,14 +324,17 @@ public class RESTAssuredWriter implements IWriter {
 				+  "import es.us.isa.restest.writers.restassured.filters.NominalOrFaultyTestCaseFilter;\n"
 				+  "import es.us.isa.restest.writers.restassured.filters.StatefulFilter;\n"
 				+  "import java.io.File;\n";
+
+		if (specPaths != null)
+			content += "import java.util.Arrays;\n";
 		
 		// OAIValidation (Optional)
 //		if (OAIValidation)
 		content += 	"import es.us.isa.restest.writers.restassured.filters.ResponseValidationFilter;\n";
 
-//		// Coverage filter (optional)
-//		if (enableOutputCoverage)
-//			content += 	"import es.us.isa.testcases.restassured.filters.CoverageFilter;\n";
+		// Coverage filter (optional)
+		if (enableOutputCoverage)
+			content += 	"import es.us.isa.restest.writers.restassured.filters.CoverageFilter;\n";
 
 		// Coverage filter (optional)
 		if (enableStats || enableOutputCoverage)
@@ -156,19 +364,26 @@ public class RESTAssuredWriter implements IWriter {
 		return content;
 	}
 	
+	// Paths of the OAS loaded by the validation filter, if the OAS was loaded partially
+	private String generateSpecPaths() {
+		if (specPaths == null)
+			return "";
+		return ", Arrays.asList(" + specPaths.stream().map(p -> "\"" + escapeJava(p) + "\"").collect(Collectors.joining(", ")) + ")";
+	}
+
 	private String generateClassName(String className) {
 		return "@FixMethodOrder(MethodSorters.NAME_ASCENDING)\n"
 			 + "public class " + className + " {\n\n";
 	}
 	
-	private String generateAttributes(String specPath) {
+	private String generateAttributes(String specPath, String className) {
 		String content = "";
 		
 //		if (OAIValidation)
 		content += "\tprivate static final String OAI_JSON_URL = \"" + specPath + "\";\n"
 				+  "\tprivate static final StatusCode5XXFilter statusCode5XXFilter = new StatusCode5XXFilter();\n"
 				+  "\tprivate static final NominalOrFaultyTestCaseFilter nominalOrFaultyTestCaseFilter = new NominalOrFaultyTestCaseFilter();\n"
-				+  "\tprivate static final ResponseValidationFilter validationFilter = new ResponseValidationFilter(OAI_JSON_URL);\n";
+				+  "\tprivate static final ResponseValidationFilter validationFilter = new ResponseValidationFilter(OAI_JSON_URL" + generateSpecPaths() + ");\n";
 		if (statefulFilter)
 			content += "\tprivate static final StatefulFilter statefulFilter = new StatefulFilter(\"" + specPath.substring(0, specPath.lastIndexOf('/')) + "\");\n";
 
@@ -188,6 +403,9 @@ public class RESTAssuredWriter implements IWriter {
 					+  "\tprivate static final CSVFilter csvFilter = new CSVFilter(APIName, testId);\n";
 		}
 
+		if (enableOutputCoverage) // Live coverage is updated as soon as responses are received
+			content += "\tprivate static final CoverageFilter coverageFilter = new CoverageFilter(APIName, testId);\n";
+
 //		if (statefulFilter) {
 //			content += "\tprivate static final ObjectMapper objectMapper = new ObjectMapper();\n";
 //		}
@@ -197,7 +415,7 @@ public class RESTAssuredWriter implements IWriter {
 		return content;
 	}
 	
-	private String generateSetUp(String baseURI) {
+	private String generateSetUp(String baseURI, String className) {
 		String content = "";
 
 		content += "\t@BeforeClass\n"
@@ -324,6 +542,9 @@ public class RESTAssuredWriter implements IWriter {
 					"\t\tnominalOrFaultyTestCaseFilter.setTestResultId(testResultId);\n" +
 					"\t\tvalidationFilter.setTestResultId(testResultId);\n";
 
+		if (enableOutputCoverage)
+			content += "\t\tcoverageFilter.setTestResultId(testResultId);\n";
+
 		if (statefulFilter && t.getMethod().equals(HttpMethod.GET)) {
 			content += "\t\tstatefulFilter.setOperation(\"" + t.getMethod().toString() + "\", \"" + t.getPath() + "\");\n";
 		}
@@ -419,8 +640,8 @@ public class RESTAssuredWriter implements IWriter {
 					+  "\t\t\t\t.filter(responseLoggingFilter)\n";
 		}
 
-//		if (enableOutputCoverage) // Coverage filter
-//			content += "\t\t\t\t.filter(new CoverageFilter(testResultId, APIName))\n";
+		if (enableOutputCoverage) // Coverage filter
+			content += "\t\t\t\t.filter(coverageFilter)\n";
 		if (allureReport) // Allure filter
 			content += "\t\t\t\t.filter(allureFilter)\n";
 		// 5XX status code oracle:
@@ -465,15 +686,6 @@ public class RESTAssuredWriter implements IWriter {
 				+  "\t\t}\n";
 	}
 		
-	private void saveToFile(String path, String className, String contentFile) {
-		try(FileWriter testClass = new FileWriter(path + "/" + className + ".java")) {
-			testClass.write(contentFile);
-			testClass.flush();
-		} catch(Exception ex) {
-			logger.error("Error writing test file");
-			logger.error("Exception: ", ex);
-		} 
-	}
 
 	public boolean OAIValidation() {
 		return OAIValidation;
@@ -575,6 +787,37 @@ public class RESTAssuredWriter implements IWriter {
 		this.statefulFilter = statefulFilter;
 	}
 
+	public boolean isDataDriven() {
+		return dataDriven;
+	}
+
+	public void setDataDriven(boolean dataDriven) {
+		this.dataDriven = dataDriven;
+	}
+
+	/**
+	 * Data file written last, to be executed by the test class (only in data-driven mode)
+	 */
+	public String getTestCasesFile() {
+		return testCasesFile;
+	}
+
+	public int getShardSize() {
+		return shardSize;
+	}
+
+	public void setShardSize(int shardSize) {
+		this.shardSize = shardSize;
+	}
+
+	/**
+	 * Test classes the last test suite written was split into, run by the test class written (empty if
+	 * the test suite was not split)
+	 */
+	public List<String> getShardClassNames() {
+		return shardClassNames;
+	}
+
 	public String getProxy() {
 		return proxy;
 	}
@@ -0,0 +1,206 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.atlassian.oai.validator.interaction.ApiOperationResolver;
+import com.atlassian.oai.validator.interaction.response.ResponseValidator;
+import com.atlassian.oai.validator.model.ApiOperation;
+import com.atlassian.oai.validator.model.ApiOperationMatch;
+import com.atlassian.oai.validator.model.Request;
+import com.atlassian.oai.validator.model.Response;
+import com.atlassian.oai.validator.model.SimpleResponse;
+import com.atlassian.oai.validator.report.LevelResolver;
+import com.atlassian.oai.validator.report.MessageResolver;
+import com.atlassian.oai.validator.report.ValidationReport;
+import com.atlassian.oai.validator.schema.SchemaValidator;
+import com.atlassian.oai.validator.util.ContentTypeUtils;
+import es.us.isa.restest.util.OASAPIValidator;
+import io.swagger.v3.oas.models.OpenAPI;
+import io.swagger.v3.oas.models.media.Schema;
+import io.swagger.v3.oas.models.responses.ApiResponse;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Validator of API responses against the OAS, equivalent to {@link OpenApiInteractionValidator#validateResponse}
+ * (same messages and levels, no whitelist), but compiled for each combination of operation, status
+ * code and content type. The API operation, the response definition, the content type checks
+ * and the schema of the body are resolved the first time a combination is found, so validating
+ * a response only requires validating its body against the schema. Responses not supported by the
+ * fast path (e.g., declaring headers or form data bodies, or whose path cannot be unambiguously
+ * resolved) are validated with the general purpose validator. This class is thread-safe.
+ */
+public class CompiledResponseValidator {
+
+    private static final String BODY_MISSING_KEY = "validation.response.body.missing";
+    private static final int MAX_OPERATIONS = 10000;       // Maximum number of paths compiled (paths without templates are compiled individually)
+
+    private final OpenApiInteractionValidator generalValidator;
+    private final ApiOperationResolver apiOperationResolver;
+    private final SchemaValidator schemaValidator;
+    private final ResponseValidator responseValidator;
+    private final List<String[]> apiPaths;                              // Parts of all paths of the API
+    private final Map<String, CompiledOperation> operations = new ConcurrentHashMap<>(); // Compiled operations, indexed by method and path
+    private final CompiledResponse generalResponse = new CompiledResponse(null, null, null, false); // Responses validated by the general purpose validator
+
+    public CompiledResponseValidator(String specUrlOrDefinition) {
+        this(specUrlOrDefinition, null);
+    }
+
+    /**
+     * Validator of the responses of some paths of the OAS. Only those paths and the components they
+     * reference are loaded, see {@link OASAPIValidator#loadApi(String, Collection)}.
+     * @param specUrlOrDefinition Path or URL of the OAS
+     * @param paths Paths whose responses are validated, or {@code null} to load the whole specification
+     */
+    public CompiledResponseValidator(String specUrlOrDefinition, Collection<String> paths) {
+        OpenAPI api = OASAPIValidator.loadApi(specUrlOrDefinition, paths);
+        MessageResolver messages = new MessageResolver(LevelResolver.defaultResolver());
+
+        this.generalValidator = OpenApiInteractionValidator.createFor(api).build();
+        this.apiOperationResolver = new ApiOperationResolver(api, null);
+        this.schemaValidator = new SchemaValidator(api, messages);
+        this.responseValidator = new ResponseValidator(schemaValidator, messages, api, Collections.emptyList());
+        this.apiPaths = api.getPaths() == null ? Collections.emptyList() :
+                api.getPaths().keySet().stream().map(CompiledResponseValidator::splitPath).collect(Collectors.toList());
+    }
+
+    /**
+     * Validate a response against the OAS.
+     * @param templatePath Path of the operation, as in the OAS (e.g., "/books/{id}"), or {@code null} if unknown
+     * @param path Actual path of the request (e.g., "/api/books/1")
+     * @param method HTTP method of the request
+     * @param response Response to validate
+     * @return The same validation report that the general purpose validator would return
+     */
+    public ValidationReport validateResponse(String templatePath, String path, Request.Method method, Response response) {
+        CompiledOperation operation = getCompiledOperation(templatePath, path, method);
+        if (operation.apiOperation == null)
+            return generalValidator.validateResponse(path, method, response);
+
+        String responseKey = response.getStatus() + " " + response.getContentType().orElse("");
+        CompiledResponse compiledResponse = operation.responses.computeIfAbsent(responseKey, k -> compileResponse(operation.apiOperation, response));
+        return compiledResponse.validate(operation.apiOperation, response);
+    }
+
+    private CompiledOperation getCompiledOperation(String templatePath, String path, Request.Method method) {
+        String operationKey = method + " " + (templatePath != null ? templatePath : path);
+        CompiledOperation operation = operations.get(operationKey);
+        if (operation == null) {
+            operation = compileOperation(templatePath, path, method);
+            if (operations.size() < MAX_OPERATIONS)
+                operations.putIfAbsent(operationKey, operation);
+        }
+        return operation;
+    }
+
+    // Resolve the API operation of a path. It can only be reused for other paths of the same template if no other path of the API may match them
+    private CompiledOperation compileOperation(String templatePath, String path, Request.Method method) {
+        ApiOperationMatch match = apiOperationResolver.findApiOperation(path, method);
+        if (!match.isPathFound() || !match.isOperationAllowed())
+            return new CompiledOperation(null);
+
+        ApiOperation apiOperation = match.getApiOperation();
+        if (templatePath != null && (!templatePath.equals(apiOperation.getApiPath().original()) || isAmbiguous(templatePath)))
+            return new CompiledOperation(null);
+
+        return new CompiledOperation(apiOperation);
+    }
+
+    private boolean isAmbiguous(String templatePath) {
+        String[] templateParts = splitPath(templatePath);
+        return apiPaths.stream().filter(p -> !String.join("/", p).equals(String.join("/", templateParts))).anyMatch(p -> mayMatchSamePaths(p, templateParts));
+    }
+
+    private static boolean mayMatchSamePaths(String[] parts1, String[] parts2) {
+        if (parts1.length != parts2.length)
+            return false;
+        for (int i = 0; i < parts1.length; i++)
+            if (!parts1[i].equals(parts2[i]) && !parts1[i].contains("{") && !parts2[i].contains("{"))
+                return false;
+        return true;
+    }
+
+    private static String[] splitPath(String path) {
+        return path.replaceAll("^/+|/+$", "").split("/+");
+    }
+
+    /*
+     * The checks of the status code and content type only depend on the key of the compiled response,
+     * so they are performed once, on a copy of the response without body. Their messages (including
+     * the one of a missing body, if any) are kept, and only the body is validated afterwards.
+     */
+    private CompiledResponse compileResponse(ApiOperation apiOperation, Response response) {
+        ApiResponse apiResponse = apiOperation.getOperation().getResponses().get(Integer.toString(response.getStatus()));
+        if (apiResponse == null)
+            apiResponse = apiOperation.getOperation().getResponses().get("default");
+
+        if (apiResponse != null && apiResponse.getHeaders() != null && !apiResponse.getHeaders().isEmpty())
+            return generalResponse;    // Headers are validated by the general purpose validator
+
+        SimpleResponse.Builder bodylessResponse = SimpleResponse.Builder.status(response.getStatus());
+        response.getContentType().ifPresent(contentType -> bodylessResponse.withContentType(contentType));
+        ValidationReport bodylessReport = responseValidator.validateResponse(bodylessResponse.build(), apiOperation);
+
+        ValidationReport staticReport = ValidationReport.from(bodylessReport.getMessages().stream()
+                .filter(m -> !BODY_MISSING_KEY.equals(m.getKey())).collect(Collectors.toList()));
+        ValidationReport bodyMissingReport = ValidationReport.from(bodylessReport.getMessages().stream()
+                .filter(m -> BODY_MISSING_KEY.equals(m.getKey())).collect(Collectors.toList()));
+
+        Schema<?> bodySchema = null;
+        boolean jsonBody = false;
+        if (apiResponse != null && apiResponse.getContent() != null) {
+            Optional<String> mediaType = ContentTypeUtils.findMostSpecificMatch(response, apiResponse.getContent().keySet());
+            if (mediaType.isPresent()) {
+                bodySchema = apiResponse.getContent().get(mediaType.get()).getSchema();
+                if (bodySchema != null && !ContentTypeUtils.isJsonContentType(response) && ContentTypeUtils.isFormDataContentType(response))
+                    return generalResponse; // Form data bodies are validated by the general purpose validator
+                jsonBody = ContentTypeUtils.isJsonContentType(response);
+            }
+        }
+
+        return new CompiledResponse(staticReport, bodySchema, bodyMissingReport, jsonBody);
+    }
+
+    private static class CompiledOperation {
+        private final ApiOperation apiOperation;                // null if the responses must be validated by the general purpose validator
+        private final Map<String, CompiledResponse> responses = new ConcurrentHashMap<>(); // Indexed by status code and content type
+
+        private CompiledOperation(ApiOperation apiOperation) {
+            this.apiOperation = apiOperation;
+        }
+    }
+
+    private class CompiledResponse {
+        private final ValidationReport staticReport;            // Messages about the status code and content type
+        private final Schema<?> bodySchema;                     // Schema of the body, null if the body is not validated
+        private final ValidationReport bodyMissingReport;       // Messages if the body is missing
+        private final boolean jsonBody;                         // Whether the body is validated against the schema
+
+        private CompiledResponse(ValidationReport staticReport, Schema<?> bodySchema, ValidationReport bodyMissingReport, boolean jsonBody) {
+            this.staticReport = staticReport;
+            this.bodySchema = bodySchema;
+            this.bodyMissingReport = bodyMissingReport;
+            this.jsonBody = jsonBody;
+        }
+
+        private ValidationReport validate(ApiOperation apiOperation, Response response) {
+            if (this == generalResponse)
+                return responseValidator.validateResponse(response, apiOperation);
+
+            ValidationReport bodyReport = ValidationReport.empty();
+            if (bodySchema != null) {
+                if (!response.getResponseBody().map(b -> b.hasBody()).orElse(false))
+                    bodyReport = bodyMissingReport;
+                else if (jsonBody)
+                    bodyReport = schemaValidator.validate(() -> response.getResponseBody().get().toJsonNode(), bodySchema, "response.body");
+            }
+            return bodyReport.merge(staticReport);
+        }
+    }
+}
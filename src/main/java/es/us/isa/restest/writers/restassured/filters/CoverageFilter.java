@@ -0,0 +1,43 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import es.us.isa.restest.coverage.LiveCoverageMeter;
+import io.restassured.filter.FilterContext;
+import io.restassured.filter.OrderedFilter;
+import io.restassured.response.Response;
+import io.restassured.specification.FilterableRequestSpecification;
+import io.restassured.specification.FilterableResponseSpecification;
+
+/**
+ * REST-Assured filter that feeds every response into the {@link LiveCoverageMeter} registered
+ * for the test suite, so that coverage is updated as soon as responses are received. If no live
+ * coverage meter is registered (e.g., the test class is run standalone), it does nothing.
+ */
+public class CoverageFilter extends RESTestFilter implements OrderedFilter {
+
+    public CoverageFilter() {
+        super();
+    }
+
+    public CoverageFilter(String APIName, String testId) {
+        super(APIName, testId);
+    }
+
+    @Override
+    public Response filter(FilterableRequestSpecification requestSpec, FilterableResponseSpecification responseSpec, FilterContext ctx) {
+        Response response = ctx.next(requestSpec, responseSpec);
+
+        LiveCoverageMeter liveCoverageMeter = LiveCoverageMeter.getLiveCoverageMeter(testId);
+        if (liveCoverageMeter != null && testResultId != null) {
+            ResponseContext responseContext = ResponseContext.of(response);
+            responseContext.getJsonBody(); // parsed once, shared with the rest of filters and both coverage meters
+            liveCoverageMeter.addTestResult(responseContext.toTestResult(testResultId, null, null));
+        }
+
+        return response;
+    }
+
+    @Override
+    public int getOrder() {
+        return Integer.MAX_VALUE; // Lowest priority of all filters (as the StatefulFilter), so it receives every response before any oracle may fail
+    }
+}
@@ -5,11 +5,16 @@ import es.us.isa.restest.testcases.TestResult;
 import es.us.isa.restest.util.PropertyManager;
 import io.restassured.response.Response;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * REST-Assured filter to be extended by all RESTest filters.
  * This class implements a method to export a REST-Assured response to a TestResult
  * in CSV. Such method must be called before throwing the exception corresponding
  * to the oracle being violated.
+ *
+ * If the response is being validated in the background, a passed test result is
+ * recorded once the verdict of the validation is known.
  */
 public class RESTestFilter {
 
@@ -17,6 +22,8 @@ public class RESTestFilter {
     protected String testId;
     protected String testResultId;
 
+    private static final Object csvLock = new Object(); // Test results may be recorded concurrently by the validation threads
+
     protected Boolean testCaseIsFaulty; // Whether this test case is faulty or not
     protected Boolean dependenciesFulfilled; // Whether this test case fulfills all inter-parameter dependencies or not
     protected String faultyReason; // Why the test case is faulty
@@ -45,8 +52,26 @@ public class RESTestFilter {
 
     protected void exportTestResultToCSV(Response response, Boolean passed, String failReason) {
         String testDataFile = PropertyManager.readProperty("data.tests.dir") + "/" + APIName + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_" + testId + ".csv";
-        TestResult tr = new TestResult(testResultId, Integer.toString(response.statusCode()), response.asString(), response.contentType(), passed, failReason);
-        tr.exportToCSV(testDataFile);
+        ResponseContext context = ResponseContext.of(response);
+        TestResult tr = context.toTestResult(testResultId, passed, failReason);
+        CompletableFuture<String> validationVerdict = context.getValidationVerdict();
+
+        if (Boolean.TRUE.equals(passed) && validationVerdict != null) {
+            ResponseValidationFilter.trackValidation(validationVerdict.thenAccept(errors -> {
+                if (errors != null) {
+                    tr.setPassed(false);
+                    tr.setFailReason(errors);
+                }
+                exportTestResultToCSV(tr, testDataFile);
+            }));
+        } else
+            exportTestResultToCSV(tr, testDataFile);
+    }
+
+    private static void exportTestResultToCSV(TestResult tr, String testDataFile) {
+        synchronized (csvLock) {
+            tr.exportToCSV(testDataFile);
+        }
     }
 
     protected void saveTestResultAndThrowException(Response response, String message) {
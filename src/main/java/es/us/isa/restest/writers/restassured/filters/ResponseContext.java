@@ -0,0 +1,107 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import com.atlassian.oai.validator.model.SimpleResponse;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import es.us.isa.restest.testcases.TestResult;
+import io.restassured.response.Response;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Data of a REST-Assured response shared by all RESTest filters of the chain. The body is
+ * materialized as a string only once, and parsed as JSON lazily, at most once, so that the
+ * filters (oracles, CSV export, coverage, stateful data) do not copy and parse large response
+ * bodies several times.
+ *
+ * All filters of a request run in the same thread, so the context of the response being
+ * processed is kept per thread, and replaced as soon as a different response is received.
+ */
+public class ResponseContext {
+
+    private static final ThreadLocal<ResponseContext> currentContext = new ThreadLocal<>();
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Response response;
+    private String body;                // Response body, materialized on first use
+    private JsonNode jsonBody;          // Response body parsed as JSON, null if not parsed yet or not JSON
+    private boolean jsonBodyParsed = false;
+    private CompletableFuture<String> validationVerdict; // OAS validation errors (null if valid), if validated in the background
+
+    private ResponseContext(Response response) {
+        this.response = response;
+    }
+
+    /**
+     * @param response REST-Assured response received by a filter
+     * @return The context of the response, shared with the rest of filters that receive the same response
+     */
+    public static ResponseContext of(Response response) {
+        ResponseContext context = currentContext.get();
+        if (context == null || context.response != response) {
+            context = new ResponseContext(response);
+            currentContext.set(context);
+        }
+        return context;
+    }
+
+    public Response getResponse() {
+        return response;
+    }
+
+    public String getBody() {
+        if (body == null)
+            body = response.asString();
+        return body;
+    }
+
+    /**
+     * @return The response body parsed as JSON, or {@code null} if it is not valid JSON
+     */
+    public JsonNode getJsonBody() {
+        if (!jsonBodyParsed) {
+            try {
+                jsonBody = objectMapper.readTree(getBody());
+            } catch (IOException e) {
+                jsonBody = null;
+            }
+            jsonBodyParsed = true;
+        }
+        return jsonBody;
+    }
+
+    /**
+     * Create a test result from the response. If the body was already parsed as JSON, the
+     * JSON tree is passed to the test result, so that it is not parsed again (e.g., by the
+     * CoverageMeter).
+     */
+    public TestResult toTestResult(String testResultId, Boolean passed, String failReason) {
+        TestResult testResult = new TestResult(testResultId, Integer.toString(response.statusCode()), getBody(), response.contentType(), passed, failReason);
+        if (jsonBodyParsed)
+            testResult.setResponseBodyJson(jsonBody);
+        return testResult;
+    }
+
+    /**
+     * @return The verdict of the OAS validation of the response, if it is being validated in the
+     * background (see {@link ResponseValidationFilter}), or {@code null} otherwise
+     */
+    public CompletableFuture<String> getValidationVerdict() {
+        return validationVerdict;
+    }
+
+    public void setValidationVerdict(CompletableFuture<String> validationVerdict) {
+        this.validationVerdict = validationVerdict;
+    }
+
+    /**
+     * @return The response adapted to the OpenAPI validator, reusing the materialized body
+     */
+    public com.atlassian.oai.validator.model.Response toValidatorResponse() {
+        SimpleResponse.Builder builder = SimpleResponse.Builder.status(response.statusCode()).withBody(getBody());
+        if (response.getHeaders() != null)
+            response.getHeaders().forEach(header -> builder.withHeader(header.getName(), header.getValue()));
+        return builder.build();
+    }
+}
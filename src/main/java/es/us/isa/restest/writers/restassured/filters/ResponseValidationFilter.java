@@ -1,17 +1,26 @@
 package es.us.isa.restest.writers.restassured.filters;
 
-import com.atlassian.oai.validator.OpenApiInteractionValidator;
 import com.atlassian.oai.validator.model.Request;
 import com.atlassian.oai.validator.report.ValidationReport;
 import com.atlassian.oai.validator.restassured.RestAssuredRequest;
-import com.atlassian.oai.validator.restassured.RestAssuredResponse;
 import es.us.isa.restest.util.PropertyManager;
 import io.restassured.filter.FilterContext;
 import io.restassured.filter.OrderedFilter;
 import io.restassured.response.Response;
 import io.restassured.specification.FilterableRequestSpecification;
 import io.restassured.specification.FilterableResponseSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
 import static com.atlassian.oai.validator.util.StringUtils.requireNonEmpty;
@@ -22,20 +31,49 @@ import static com.atlassian.oai.validator.util.StringUtils.requireNonEmpty;
  * only want to validate the response, since we may intentionally send invalid inputs
  * to the API in order to create faulty test cases. Request body validation errors
  * (e.g. omitting a required property) will be whitelisted, while other errors will
- * be emitted as warnings.
+ * be emitted as warnings. Responses are validated with a {@link CompiledResponseValidator},
+ * which is compiled once for each operation, status code and content type.
+ *
+ * If the property "response.validation.async" is true and the test result is exported
+ * to CSV, responses are validated in the background by a bounded pool of threads, so
+ * that validation overlaps with the execution of the next test cases. The verdict is
+ * applied to the test result when it is recorded (see {@link CSVFilter}), and all
+ * pending validations must be awaited at the end of the test suite with
+ * {@link #awaitPendingValidations()}. Note that, in that case, an OAS disconformity is
+ * only reported in the CSV test results: the JUnit test (and its Allure result) does
+ * not fail. Otherwise (by default), an OAS disconformity makes the test fail right away.
  *
  * @author Alberto Martin-Lopez
  */
 public class ResponseValidationFilter extends RESTestFilter implements OrderedFilter {
-    private final OpenApiInteractionValidator validator;
+
+    private static final Logger logger = LogManager.getLogger(ResponseValidationFilter.class.getName());
+
+    private static ExecutorService validationExecutor;                 // Pool of threads shared by all filters, created on first use
+    private static final Set<CompletableFuture<?>> pendingValidations = ConcurrentHashMap.newKeySet(); // Validations (and recordings of their verdicts) not finished yet
+
+    private final CompiledResponseValidator validator;
     private final Boolean enabled = Boolean.parseBoolean(PropertyManager.readProperty("response.body.analysis"));
     private final Boolean limit = Boolean.parseBoolean(PropertyManager.readProperty("response.body.limit"));
     private final Long bodySizeLimit = Long.parseLong(PropertyManager.readProperty("response.body.size"));
+    private boolean async = Boolean.parseBoolean(PropertyManager.readProperty("response.validation.async"));
 
     public ResponseValidationFilter(final String specUrlOrDefinition) {
         requireNonEmpty(specUrlOrDefinition, "A spec is required");
 
-        this.validator = OpenApiInteractionValidator.createFor(specUrlOrDefinition).build();
+        this.validator = new CompiledResponseValidator(specUrlOrDefinition);
+    }
+
+    /**
+     * Filter validating only the responses of some paths of the OAS, which is loaded partially
+     * (see {@link es.us.isa.restest.specification.PartialSpecificationLoader}).
+     * @param specUrlOrDefinition Path or URL of the OAS
+     * @param paths Paths of the operations tested, or {@code null} to load the whole specification
+     */
+    public ResponseValidationFilter(final String specUrlOrDefinition, final Collection<String> paths) {
+        requireNonEmpty(specUrlOrDefinition, "A spec is required");
+
+        this.validator = new CompiledResponseValidator(specUrlOrDefinition, paths);
     }
 
     @Override
@@ -43,23 +81,109 @@ public class ResponseValidationFilter extends RESTestFilter implements OrderedFi
         final Response response = ctx.next(requestSpec, responseSpec);
         final Request restAssuredRequest = RestAssuredRequest.of(requestSpec);
 
-        if (enabled && (!limit || response.getBody().asString().length() < bodySizeLimit))
-            filterValidation(response, restAssuredRequest.getPath(), restAssuredRequest.getMethod().toString());
+        if (enabled && (!limit || ResponseContext.of(response).getBody().length() < bodySizeLimit))
+            filterValidation(response, requestSpec.getUserDefinedPath(), restAssuredRequest.getPath(), restAssuredRequest.getMethod().toString());
 
         return response;
     }
 
-    // If OAS validation error is found, throw exception
+    // If OAS validation error is found, throw exception (or apply it to the test result later, if validated asynchronously)
     public void filterValidation(Response response, String path, String method) {
-        final ValidationReport validationReport = validator.validateResponse(path, Request.Method.valueOf(method), RestAssuredResponse.of(response));
-        if (validationReport.hasErrors()) {
-            String errors = "OAS disconformity: " + getMessagesSummary(validationReport);
+        filterValidation(response, null, path, method);
+    }
+
+    /**
+     * @param templatePath Path of the operation as in the OAS (e.g., "/books/{id}"), which allows to reuse the
+     *                     validator compiled for the operation with any actual path. If {@code null}, the validator
+     *                     is compiled for the actual path
+     */
+    public void filterValidation(Response response, String templatePath, String path, String method) {
+        ResponseContext context = ResponseContext.of(response);
+        com.atlassian.oai.validator.model.Response validatorResponse = context.toValidatorResponse();
+
+        if (async && APIName != null && testResultId != null) {
+            String validatedTestResultId = testResultId;
+            CompletableFuture<String> verdict = CompletableFuture.supplyAsync(() -> getValidationErrors(templatePath, path, method, validatorResponse, validatedTestResultId), getValidationExecutor());
+            trackValidation(verdict);
+            context.setValidationVerdict(verdict);
+            return;
+        }
+
+        String errors = getValidationErrors(templatePath, path, method, validatorResponse);
+        if (errors != null) {
             if (APIName != null && testResultId != null)
                 exportTestResultToCSV(response, false, errors);
             throw new RuntimeException(errors);
         }
     }
 
+    // Returns the summary of the OAS validation errors, or null if the response is valid
+    private String getValidationErrors(String templatePath, String path, String method, com.atlassian.oai.validator.model.Response validatorResponse) {
+        final ValidationReport validationReport = validator.validateResponse(templatePath, path, Request.Method.valueOf(method), validatorResponse);
+        return validationReport.hasErrors() ? "OAS disconformity: " + getMessagesSummary(validationReport) : null;
+    }
+
+    // Same as above, run in the background. The test case is considered failed if the validator itself fails, as when validating synchronously
+    private String getValidationErrors(String templatePath, String path, String method, com.atlassian.oai.validator.model.Response validatorResponse, String validatedTestResultId) {
+        try {
+            String errors = getValidationErrors(templatePath, path, method, validatorResponse);
+            if (errors != null)
+                logger.warn("Test result {} failed: {}", validatedTestResultId, errors);
+            return errors;
+        } catch (RuntimeException e) {
+            logger.warn("The response of test result {} could not be validated: {}", validatedTestResultId, e.getMessage());
+            return "OAS validation error: " + String.valueOf(e.getMessage()).replace(',', ';');
+        }
+    }
+
+    /**
+     * Keep track of a task related to an asynchronous validation (e.g., the recording of
+     * its verdict), so that it is awaited by {@link #awaitPendingValidations()}.
+     */
+    static void trackValidation(CompletableFuture<?> task) {
+        pendingValidations.add(task);
+        task.whenComplete((result, e) -> pendingValidations.remove(task));
+    }
+
+    /**
+     * Wait until all responses being validated in the background have been validated and
+     * their verdicts have been applied to the test results. To be called at the end of the
+     * test suite, before processing the test results.
+     */
+    public static void awaitPendingValidations() {
+        while (!pendingValidations.isEmpty()) {
+            try {
+                CompletableFuture.allOf(pendingValidations.toArray(new CompletableFuture[0])).join();
+            } catch (CompletionException e) {
+                logger.warn("A test result could not be recorded after validating its response: {}", e.getMessage());
+            }
+        }
+    }
+
+    // Bounded pool of threads. When all threads are busy and the queue is full, the response is validated by the test thread itself
+    private static synchronized ExecutorService getValidationExecutor() {
+        if (validationExecutor == null) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            String threadsProperty = PropertyManager.readProperty("response.validation.threads");
+            try {
+                if (threadsProperty != null && !threadsProperty.trim().isEmpty() && Integer.parseInt(threadsProperty.trim()) > 0)
+                    threads = Integer.parseInt(threadsProperty.trim());
+            } catch (NumberFormatException e) {
+                logger.warn("Property 'response.validation.threads' must be an integer. Using {} threads", threads);
+            }
+
+            validationExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                    new ArrayBlockingQueue<>(threads * 4),
+                    r -> {
+                        Thread t = new Thread(r, "response-validation");
+                        t.setDaemon(true);
+                        return t;
+                    },
+                    new ThreadPoolExecutor.CallerRunsPolicy());
+        }
+        return validationExecutor;
+    }
+
     private String getMessagesSummary(ValidationReport validationReport) {
         return validationReport.getMessages().stream()
                 .map(m -> m.getMessage().replaceAll("/\\d+(/|')", "/[item]$1").replace(',', ';'))
@@ -68,6 +192,14 @@ public class ResponseValidationFilter extends RESTestFilter implements OrderedFi
                 .collect(Collectors.joining(" --- "));
     }
 
+    public boolean isAsync() {
+        return async;
+    }
+
+    public void setAsync(boolean async) {
+        this.async = async;
+    }
+
     @Override
     public int getOrder() {
         return Integer.MAX_VALUE-3; // Fourth lowest priority of all filters, so it runs fourth-to-last before sending the request and fourth after sending it
@@ -38,14 +38,15 @@ public class StatefulFilter extends RESTestFilter implements OrderedFilter {
         Response response = ctx.next(requestSpec, responseSpec);
         if (response.getStatusCode() < 400) {
             File jsonFile = new File(this.specDirPath + '/' + "stateful_data.json");
-            String body = response.getBody().asString();
             Map<String, Map<String, List<JsonNode>>> allValues = new HashMap<>();
 
             try {
                 if (jsonFile.exists())
                     allValues = objectMapper.readValue(jsonFile, new TypeReference<Map<String, Map<String, List<JsonNode>>>>() {});
                 allValues.putIfAbsent(operationMethod + operationPath, new HashMap<>());
-                JsonNode bodyNode = objectMapper.readTree(body);
+                JsonNode bodyNode = ResponseContext.of(response).getJsonBody(); // parsed only once for all filters
+                if (bodyNode == null)
+                    throw new IOException("The response body is not valid JSON");
                 addResponseBodyValues(allValues.get(operationMethod + operationPath), bodyNode, "");
                 objectMapper.writeValue(jsonFile, allValues);
             } catch (IOException e) {
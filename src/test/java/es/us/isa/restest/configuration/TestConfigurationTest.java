@@ -9,9 +9,22 @@ import static org.junit.Assert.*;
 
 import es.us.isa.restest.configuration.TestConfigurationIO;
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
+import org.junit.Rule;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Set;
 
 public class TestConfigurationTest {
 
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
 	@Test
 	public void testLoadConfiguration() {
 		deleteFile("src/test/resources/Folder/testConf.yaml");
@@ -26,4 +39,54 @@ public class TestConfigurationTest {
 		deleteFile("src/test/resources/Folder/testConf.yaml");
 	}
 
+	@Test
+	public void testLoadConfigurationOnce() {
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Folder/openapi.yaml");
+		TestConfigurationObject conf1 = TestConfigurationIO.loadConfiguration("src/test/resources/Folder/fullConf.yaml", spec);
+		TestConfigurationObject conf2 = TestConfigurationIO.loadConfiguration("./src/test/resources/Folder/fullConf.yaml", spec);
+		assertSame("The configuration should be loaded once", conf1, conf2);
+	}
+
+	@Test
+	public void testReloadModifiedConfiguration() throws IOException {
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Folder/openapi.yaml");
+		File confFile = folder.newFile("conf.yaml");
+		Files.copy(Paths.get("src/test/resources/Folder/fullConf.yaml"), confFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		TestConfigurationObject conf1 = TestConfigurationIO.loadConfiguration(confFile.getPath(), spec);
+
+		String content = new String(Files.readAllBytes(confFile.toPath())).replace("operationId: v2All", "operationId: v2AllCountries");
+		Files.write(confFile.toPath(), content.getBytes());
+		Files.setLastModifiedTime(confFile.toPath(), FileTime.fromMillis(Files.getLastModifiedTime(confFile.toPath()).toMillis() + 1000));
+		TestConfigurationObject conf2 = TestConfigurationIO.loadConfiguration(confFile.getPath(), spec);
+
+		assertNotSame("The modified configuration should be loaded again", conf1, conf2);
+		assertEquals("v2All", conf1.getTestConfiguration().getOperations().get(0).getOperationId());
+		assertEquals("v2AllCountries", conf2.getTestConfiguration().getOperations().get(0).getOperationId());
+	}
+
+	@Test
+	public void testReadTestPaths() {
+		Set<String> testPaths = TestConfigurationIO.readTestPaths("src/test/resources/Folder/fullConf.yaml");
+		assertEquals(21, testPaths.size());
+		assertEquals("/v2/all", testPaths.iterator().next());
+		assertTrue(testPaths.contains("/v3/translation/{translation}"));
+	}
+
+	@Test
+	public void testReloadConfigurationModifiedWithSameSizeAndTime() throws IOException {
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Folder/openapi.yaml");
+		File confFile = folder.newFile("conf.yaml");
+		Files.copy(Paths.get("src/test/resources/Folder/fullConf.yaml"), confFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		FileTime lastModified = Files.getLastModifiedTime(confFile.toPath());
+		TestConfigurationObject conf1 = TestConfigurationIO.loadConfiguration(confFile.getPath(), spec);
+
+		// Same size and modification time, e.g., edited twice within the granularity of the file system
+		String content = new String(Files.readAllBytes(confFile.toPath())).replace("operationId: v2All", "operationId: v2Xyz");
+		Files.write(confFile.toPath(), content.getBytes());
+		Files.setLastModifiedTime(confFile.toPath(), lastModified);
+		TestConfigurationObject conf2 = TestConfigurationIO.loadConfiguration(confFile.getPath(), spec);
+
+		assertNotSame("The modified configuration should be loaded again", conf1, conf2);
+		assertEquals("v2Xyz", conf2.getTestConfiguration().getOperations().get(0).getOperationId());
+	}
 }
@@ -1,16 +1,22 @@
 package es.us.isa.restest.configuration.generators;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.junit.Test;
 
 import es.us.isa.restest.configuration.TestConfigurationFilter;
+import es.us.isa.restest.configuration.TestConfigurationIO;
 import es.us.isa.restest.configuration.generators.DefaultTestConfigurationGenerator;
+import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
 import es.us.isa.restest.specification.OpenAPISpecification;
 
 import static es.us.isa.restest.util.FileManager.checkIfExists;
 import static es.us.isa.restest.util.FileManager.deleteFile;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 public class DefaultTestConfigurationGeneratorTest {
@@ -544,5 +550,25 @@ public class DefaultTestConfigurationGeneratorTest {
 		deleteFile(confPath);
 	}
 
+	@Test
+	public void testParallelTestConfigurationGeneration() throws IOException {
+		String specPath="src/test/resources/Stripe/swagger.yaml";
+		String sequentialConfPath="src/test/resources/Stripe/testConf_sequential_test.yaml";
+		String parallelConfPath="src/test/resources/Stripe/testConf_parallel_test.yaml";
+		OpenAPISpecification spec = new OpenAPISpecification(specPath);
+
+		DefaultTestConfigurationGenerator sequentialGen = new DefaultTestConfigurationGenerator(spec);
+		sequentialGen.setThreads(1);
+		TestConfigurationObject sequentialConf = sequentialGen.generate(sequentialConfPath);
+
+		DefaultTestConfigurationGenerator parallelGen = new DefaultTestConfigurationGenerator(spec);
+		parallelGen.setThreads(4);
+		TestConfigurationObject parallelConf = parallelGen.generate(parallelConfPath);
+
+		assertEquals("The operations should be generated in the order of the specification", TestConfigurationIO.toString(sequentialConf), TestConfigurationIO.toString(parallelConf));
+		assertEquals("The test configuration files should be equal", new String(Files.readAllBytes(Paths.get(sequentialConfPath))), new String(Files.readAllBytes(Paths.get(parallelConfPath))));
+		deleteFile(sequentialConfPath);
+		deleteFile(parallelConfPath);
+	}
 
 }
@@ -4,7 +4,13 @@ import static es.us.isa.restest.coverage.CriterionType.*;
 import static org.junit.Assert.*;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.Test;
 
@@ -43,6 +49,24 @@ public class CoverageGathererTest {
 
     }
 
+    @Test
+    public void coverageGathererPartialSpecificationTest() {
+        String oasPath = "src/test/resources/GitHub/swagger.yaml";
+        List<String> paths = Arrays.asList("/repos/{owner}/{repo}/issues", "/users/{username}");
+        OpenAPISpecification fullOas = new OpenAPISpecification(oasPath);
+        OpenAPISpecification oas = new OpenAPISpecification(oasPath, paths);
+
+        CoverageGatherer fullCovGath = new CoverageGatherer(fullOas);
+        CoverageGatherer covGath = new CoverageGatherer(oas);
+
+        // Totals only include the paths loaded
+        long operations = paths.stream().mapToLong(p -> fullOas.getSpecification().getPaths().get(p).readOperations().size()).sum();
+        assertEquals("Only the paths loaded should be covered", paths.size(), covGath.getElementsCount(Collections.singletonList(PATH)));
+        assertEquals("Only the operations of the paths loaded should be covered", operations, covGath.getElementsCount(Collections.singletonList(OPERATION)));
+        assertEquals(fullOas.getSpecification().getPaths().size(), fullCovGath.getElementsCount(Collections.singletonList(PATH)));
+        assertTrue(covGath.getElementsCount(Arrays.asList(CriterionType.values())) < fullCovGath.getElementsCount(Arrays.asList(CriterionType.values())));
+    }
+
     @Test
     public void coverageGathererComplexParametersTest() {
         String oasPath = "src/test/resources/GitHub/swagger_forTestSuite.yaml";
@@ -89,4 +113,72 @@ public class CoverageGathererTest {
         System.out.println("As long as this is printed, this test cases passes (no exceptions thrown).");
 
     }
-}
\ No newline at end of file
+
+    @Test
+    public void lazyCoverageCriteriaTest() {
+        String oasPath = "src/test/resources/Bikewise/swagger.yaml";
+        OpenAPISpecification oas = new OpenAPISpecification(oasPath);
+        CoverageGatherer covGath = new CoverageGatherer(oas);
+
+        long allElements = covGath.getCoverageCriteria().stream().mapToLong(CoverageCriterion::getElementsCount).sum();
+        assertEquals("The number of elements should be computed exactly, even if no operation was touched", allElements, covGath.getElementsCount(CriterionType.getTypes(null)));
+        assertEquals(0, covGath.getCoveredElementsCount(CriterionType.getTypes(null)));
+
+        covGath.getCoverageCriteria().stream()
+                .filter(c -> c.getType() == STATUS_CODE && c.getRootPath().equals("/v2/incidents->GET"))
+                .forEach(c -> c.coverElement("200"));
+        assertEquals("Criteria of untouched operations should not be kept", 0, covGath.getCoveredElementsCount(CriterionType.getTypes(null)));
+
+        CoverageCriterion criterion = covGath.getCoverageCriterion(STATUS_CODE, "/v2/incidents->GET");
+        assertNotNull(criterion);
+        assertSame("The criterion should be created only once", criterion, covGath.getCoverageCriterion(STATUS_CODE, "/v2/incidents->GET"));
+        criterion.coverElement("200");
+        assertNull(covGath.getCoverageCriterion(STATUS_CODE, "/v2/unknown->GET"));
+
+        assertEquals(1, covGath.getCoveredElementsCount(Collections.singletonList(STATUS_CODE)));
+        assertEquals(allElements, covGath.getElementsCount(CriterionType.getTypes(null)));
+        assertTrue(covGath.getCoverageCriteria().contains(criterion));
+    }
+
+    @Test
+    public void elementsCountWithoutCreatingCriteriaTest() {
+        OpenAPISpecification oas = new OpenAPISpecification("src/test/resources/restest-test-resources/swagger-dhl.yaml");
+        List<CoverageCriterion> allCriteria = new CoverageGatherer(oas).getCoverageCriteria();
+        CoverageGatherer covGath = new CoverageGatherer(oas);
+        long createdCriteria = covGath.getCreatedCoverageCriteria().count();
+
+        for (CriterionType type: CriterionType.getTypes(null)) {
+            long elements = allCriteria.stream().filter(c -> c.getType() == type).mapToLong(CoverageCriterion::getElementsCount).sum();
+            assertEquals("Wrong number of elements of type " + type, elements, covGath.getElementsCount(Collections.singletonList(type)));
+        }
+        assertEquals("Counting elements should not create the criteria of the operations", createdCriteria, covGath.getCreatedCoverageCriteria().count());
+    }
+
+    @Test
+    public void concurrentLazyCoverageCriteriaTest() throws Exception {
+        OpenAPISpecification oas = new OpenAPISpecification("src/test/resources/Bikewise/swagger.yaml");
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            for (int round = 0; round < 50; round++) {
+                CoverageGatherer covGath = new CoverageGatherer(oas);
+                CountDownLatch start = new CountDownLatch(1);
+                List<Future<CoverageCriterion>> lookups = new ArrayList<>();
+                for (int i = 0; i < threads; i++) {
+                    lookups.add(executor.submit(() -> {
+                        start.await();
+                        return covGath.getCoverageCriterion(STATUS_CODE, "/v2/incidents->GET");
+                    }));
+                }
+                start.countDown();
+
+                CoverageCriterion criterion = lookups.get(0).get();
+                assertNotNull("The criterion should be found by every thread", criterion);
+                for (Future<CoverageCriterion> lookup: lookups)
+                    assertSame("The criterion should be created only once", criterion, lookup.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -6,10 +6,16 @@ import static org.junit.Assert.*;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import es.us.isa.restest.specification.OpenAPISpecification;
 import es.us.isa.restest.testcases.TestCase;
@@ -29,6 +35,9 @@ public class CoverageMeterTest {
     private TestResult testResult2;
     private TestResult testResult3;
 
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
     @Before
     public void setUp() {
         String oasPath = "src/test/resources/specifications/petstore.json";
@@ -168,4 +177,135 @@ public class CoverageMeterTest {
 
         assertTrue("The new coverage should be lower than the old one", covMeter.getTotalCoverage() < oldCoverage);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void mergeCoverageTest() {
+        OpenAPISpecification oas = covMeter.getCoverageGatherer().getSpec();
+        CoverageMeter covMeter1 = new CoverageMeter(new CoverageGatherer(oas));
+        covMeter1.addTestSuite(testSuite.subList(0, 1));
+        covMeter1.addTestResults(testResults.subList(0, 1), testSuite.subList(0, 1));
+        CoverageMeter covMeter2 = new CoverageMeter(new CoverageGatherer(oas));
+        covMeter2.addTestSuite(testSuite.subList(1, 3));
+        covMeter2.addTestResults(testResults.subList(1, 3), testSuite.subList(1, 3));
+
+        CoverageMeter mergedCovMeter = new CoverageMeter(new CoverageGatherer(oas));
+        mergedCovMeter.merge(covMeter2);
+        mergedCovMeter.merge(covMeter1);
+
+        assertEquals("The merged coverage should be equal to the coverage of the whole test suite", covMeter.getTotalCoverage(), mergedCovMeter.getTotalCoverage(), 0);
+        assertEquals(covMeter.getCoveredInputElements(), mergedCovMeter.getCoveredInputElements());
+        assertEquals(covMeter.getCoveredOutputElements(), mergedCovMeter.getCoveredOutputElements());
+    }
+
+    @Test
+    public void incrementalAPosterioriCoverageTest() {
+        testResults.set(2, new TestResult(testCase3.getId(), "400", "{\"a\": \"b\", \"c\": \"d\"}", "application/json"));
+        covMeter.resetCoverage();
+        covMeter.setTestSuite(testSuite);
+        covMeter.setTestResults(testResults, testSuite);
+
+        CoverageMeter incrementalCovMeter = new CoverageMeter(new CoverageGatherer(covMeter.getCoverageGatherer().getSpec()));
+        incrementalCovMeter.addAPosterioriTestResults(testResults.subList(0, 2), testSuite.subList(0, 2));
+        incrementalCovMeter.addAPosterioriTestResults(testResults.subList(2, 3), testSuite.subList(2, 3));
+
+        CoverageMeter aPosterioriCovMeter = covMeter.getAPosteriorCoverageMeter();
+        assertEquals("The incremental a posteriori coverage should be equal to the one computed from scratch", aPosterioriCovMeter.getTotalCoverage(), incrementalCovMeter.getTotalCoverage(), 0);
+        assertEquals(aPosterioriCovMeter.getCoveredInputElements(), incrementalCovMeter.getCoveredInputElements());
+        assertEquals(aPosterioriCovMeter.getCoveredOutputElements(), incrementalCovMeter.getCoveredOutputElements());
+        assertTrue("Input elements of faulty responses should not be covered a posteriori", incrementalCovMeter.getCoveredInputElements() < covMeter.getCoveredInputElements());
+    }
+
+    @Test
+    public void liveCoverageTest() throws InterruptedException {
+        OpenAPISpecification oas = covMeter.getCoverageGatherer().getSpec();
+        LiveCoverageMeter liveCovMeter = new LiveCoverageMeter(new CoverageMeter(new CoverageGatherer(oas)), new CoverageMeter(new CoverageGatherer(oas)));
+        LiveCoverageMeter otherLiveCovMeter = new LiveCoverageMeter(new CoverageMeter(new CoverageGatherer(oas)), new CoverageMeter(new CoverageGatherer(oas)));
+        liveCovMeter.addTestCases("liveCoverageTest_1", testSuite);
+        otherLiveCovMeter.addTestCases("liveCoverageTest_2", Collections.emptyList());
+        assertSame("Live coverage meters should be registered by test suite", liveCovMeter, LiveCoverageMeter.getLiveCoverageMeter("liveCoverageTest_1"));
+        assertSame("Live coverage meters should be registered by test suite", otherLiveCovMeter, LiveCoverageMeter.getLiveCoverageMeter("liveCoverageTest_2"));
+
+        // Test results received concurrently (several times each) as if from the filters of the test classes
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            Thread thread = new Thread(() -> testResults.forEach(liveCovMeter::addTestResult));
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread: threads)
+            thread.join();
+
+        assertEquals("The live coverage should be equal to the one computed after the execution", covMeter.getTotalCoverage(), liveCovMeter.getCoverageMeter().getTotalCoverage(), 0);
+        assertEquals(covMeter.getCoveredOutputElements(), liveCovMeter.getCoverageMeter().getCoveredOutputElements());
+        assertEquals(covMeter.getAPosteriorCoverageMeter().getTotalCoverage(), liveCovMeter.getAPosterioriCoverageMeter().getTotalCoverage(), 0);
+
+        assertTrue("Test cases should not be kept by the coverage meters", liveCovMeter.getCoverageMeter().getTestSuite().isEmpty());
+        assertTrue("Test results should not be kept by the coverage meters", liveCovMeter.getCoverageMeter().getTestResults().isEmpty());
+        assertTrue(liveCovMeter.getAPosterioriCoverageMeter().getTestResults().isEmpty());
+        assertEquals("Other test suites should not be covered", 0, otherLiveCovMeter.getCoverageMeter().getCoveredTotalElements());
+
+        liveCovMeter.removeTestCases("liveCoverageTest_1", testSuite);
+        otherLiveCovMeter.removeTestCases("liveCoverageTest_2", Collections.emptyList());
+        assertNull("Live coverage meters should be unregistered once executed", LiveCoverageMeter.getLiveCoverageMeter("liveCoverageTest_1"));
+        liveCovMeter.addTestResult(new TestResult(testCase1.getId(), "500", "", "application/json"));
+        assertEquals("Test results of removed test cases should be ignored", covMeter.getTotalCoverage(), liveCovMeter.getCoverageMeter().getTotalCoverage(), 0);
+    }
+
+    @Test
+    public void coverageSnapshotTest() throws IOException {
+        String snapshotPath = tmp.getRoot() + "/coverage-snapshot.bin";
+        covMeter.exportCoverageSnapshot(snapshotPath);
+
+        CoverageMeter resumedCovMeter = new CoverageMeter(new CoverageGatherer(covMeter.getCoverageGatherer().getSpec()));
+        resumedCovMeter.importCoverageSnapshot(snapshotPath);
+        assertEquals("The resumed coverage should be equal to the original one", covMeter.getTotalCoverage(), resumedCovMeter.getTotalCoverage(), 0);
+        assertEquals(covMeter.getCoveredInputElements(), resumedCovMeter.getCoveredInputElements());
+        assertEquals(covMeter.getCoveredOutputElements(), resumedCovMeter.getCoveredOutputElements());
+
+        resumedCovMeter.importCoverageSnapshot(snapshotPath);
+        assertEquals("Loading the same snapshot twice should not change the coverage", covMeter.getCoveredTotalElements(), resumedCovMeter.getCoveredTotalElements());
+    }
+
+    @Test
+    public void coverageSnapshotWithLongElementsTest() throws IOException {
+        String snapshotPath = tmp.getRoot() + "/coverage-snapshot.bin";
+        String longElement = StringUtils.repeat('a', 100000); // e.g., a large enum value
+        CoverageMeter resumedCovMeter = new CoverageMeter(new CoverageGatherer(covMeter.getCoverageGatherer().getSpec()));
+        addElement(covMeter, longElement);
+        addElement(resumedCovMeter, longElement);
+        getParameterValueCriterion(covMeter).coverElement(longElement);
+
+        covMeter.exportCoverageSnapshot(snapshotPath);
+        resumedCovMeter.importCoverageSnapshot(snapshotPath);
+        assertTrue("The long element should be covered", getParameterValueCriterion(resumedCovMeter).getCoveredElements().containsKey(longElement));
+        assertEquals(covMeter.getCoveredTotalElements(), resumedCovMeter.getCoveredTotalElements());
+    }
+
+    @Test
+    public void staleCoverageSnapshotTest() throws IOException {
+        String snapshotPath = tmp.getRoot() + "/coverage-snapshot.bin";
+        addElement(covMeter, "newValue"); // e.g., the configuration had another value
+        getParameterValueCriterion(covMeter).coverElement("newValue");
+        covMeter.exportCoverageSnapshot(snapshotPath);
+
+        CoverageMeter resumedCovMeter = new CoverageMeter(new CoverageGatherer(covMeter.getCoverageGatherer().getSpec()));
+        try {
+            resumedCovMeter.importCoverageSnapshot(snapshotPath);
+            fail("A snapshot of other coverage criteria should be rejected");
+        } catch (IOException e) {
+            assertTrue(e.getMessage().contains("does not match"));
+        }
+        assertEquals("Nothing should be loaded from a rejected snapshot", 0, resumedCovMeter.getCoveredTotalElements());
+    }
+
+    private static CoverageCriterion getParameterValueCriterion(CoverageMeter coverageMeter) {
+        return coverageMeter.getCoverageGatherer().getCoverageCriterion(PARAMETER_VALUE, "/pet/{petId}/uploadImage->POST->destinationFormat");
+    }
+
+    private static void addElement(CoverageMeter coverageMeter, String element) {
+        CoverageCriterion criterion = getParameterValueCriterion(coverageMeter);
+        Map<String, Boolean> elements = new HashMap<>(criterion.getElements());
+        elements.put(element, false);
+        criterion.setElements(elements);
+    }
+}
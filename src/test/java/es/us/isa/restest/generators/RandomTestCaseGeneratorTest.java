@@ -8,14 +8,21 @@ import es.us.isa.restest.testcases.TestCase;
 import es.us.isa.restest.writers.restassured.RESTAssuredWriter;
 import es.us.isa.restest.util.RESTestException;
 
+import org.apache.commons.lang3.StringUtils;
 import org.junit.Test;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class RandomTestCaseGeneratorTest {
 
@@ -1110,4 +1117,70 @@ public class RandomTestCaseGeneratorTest {
 		writer.setOAIValidation(true);
 		writer.write(testCases);
 	}
+
+	@Test
+	public void petstoreStreamingTestCaseGenerator() throws RESTestException, IOException {
+		// Load specification
+		String OAISpecPath = "src/test/resources/Petstore/swagger.yaml";
+		String testConf = "src/test/resources/Petstore/fullConf.yaml";
+		OpenAPISpecification spec = new OpenAPISpecification(OAISpecPath);
+
+		// Load configuration
+		TestConfigurationObject conf = TestConfigurationIO
+				.loadConfiguration(testConf, spec);
+
+		int numTestCases = 3;
+
+		List<TestConfigurationFilter> filters = new ArrayList<>();
+		TestConfigurationFilter filter = new TestConfigurationFilter();
+		filter.setPath("/store/order/{orderId}");
+		filter.addGetMethod();
+		filters.add(filter);
+
+		TestConfigurationFilter filter2 = new TestConfigurationFilter();
+		filter2.setPath("/pet");
+		filter2.addPostMethod();
+		filter2.addPutMethod();
+		filters.add(filter2);
+
+		// Test cases generated at once
+		AbstractTestCaseGenerator generator = new RandomTestCaseGenerator(spec, conf, numTestCases);
+		generator.setFaultyRatio(0.5f);
+		List<TestCase> testCases = new ArrayList<>(generator.generate(filters));
+
+		// Test cases generated on demand
+		AbstractTestCaseGenerator streamingGenerator = new RandomTestCaseGenerator(spec, conf, numTestCases);
+		streamingGenerator.setFaultyRatio(0.5f);
+		Iterator<TestCase> iterator = streamingGenerator.iterator(filters);
+		assertEquals("No test case should be generated before it is requested", 0, streamingGenerator.nTotalTests);
+		assertTrue(iterator.hasNext());
+		TestCase first = iterator.next();
+		assertEquals("Only the test case requested should be generated", 1, streamingGenerator.nTotalTests);
+
+		List<TestCase> streamedTestCases = new ArrayList<>();
+		streamedTestCases.add(first);
+		iterator.forEachRemaining(streamedTestCases::add);
+
+		assertEquals("Incorrect number of test cases", testCases.size(), streamedTestCases.size());
+		assertEquals("Incorrect number of faulty test cases", generator.nTotalFaulty, streamingGenerator.nTotalFaulty);
+		for (int i = 0; i < testCases.size(); i++) {
+			assertEquals("The test cases should be generated in the same order", testCases.get(i).getOperationId(), streamedTestCases.get(i).getOperationId());
+			assertEquals("The test cases should be generated in the same order", testCases.get(i).getFaulty(), streamedTestCases.get(i).getFaulty());
+		}
+		List<TestCase> nominalTestCases = streamedTestCases.stream().filter(c -> !c.getFaulty()).collect(Collectors.toList());
+		assertEquals("Incorrect number of valid test cases (according to the OAS validator)", nominalTestCases.size(), GeneratorTestHelper.numberOfValidTestCases(nominalTestCases, spec));
+
+		// Write RESTAssured test cases as they are generated
+		streamingGenerator.resetGenerator();
+		assertEquals("Incorrect number of test cases", testCases.size(), streamingGenerator.stream(filters).count());
+		streamingGenerator.resetGenerator();
+		String basePath = spec.getSpecification().getServers().get(0).getUrl();
+		RESTAssuredWriter writer = new RESTAssuredWriter(OAISpecPath, testConf, "src/generation/java/restassured", "PetstoreStreamingTest",
+				"restassured", basePath.toLowerCase(), false);
+		writer.write(streamingGenerator.iterator());
+
+		String testClass = new String(Files.readAllBytes(Paths.get("src/generation/java/restassured/PetstoreStreamingTest.java")), StandardCharsets.UTF_8);
+		assertEquals("Incorrect number of test cases written", streamingGenerator.nTotalTests, StringUtils.countMatches(testClass, "@Test"));
+		assertTrue("The test class should be complete", testClass.trim().endsWith("}"));
+	}
 }
@@ -16,6 +16,7 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Random;
 
 import static org.junit.Assert.*;
 
@@ -209,4 +210,33 @@ public class ObjectPerturbatorTest {
         assertNotEquals(objectPerturbator.getOriginalStringObjects().get(0), objectPerturbator.nextValueAsString());
         assertNotEquals(objectPerturbator.getOriginalStringObjects().get(0), objectPerturbator.nextValueAsString());
     }
+
+    @Test
+    public void testNextValueDoesNotModifyOriginalObjects() {
+        String originalObject = "{\"prop1\": \"val1\", \"prop2\": [1, true, {\"prop3\": null}]}";
+        ObjectPerturbator objectPerturbator = new ObjectPerturbator(originalObject);
+        JsonNode original = objectPerturbator.getOriginalObjects().get(0).deepCopy();
+
+        for (int i = 0; i < 100; i++) {
+            assertNotSame(objectPerturbator.getOriginalObjects().get(0), objectPerturbator.nextValue());
+            assertEquals("The original object should not be modified", original, objectPerturbator.getOriginalObjects().get(0));
+            assertEquals("The original string object should not be modified", original.toString(), objectPerturbator.getRandomOriginalStringObject());
+        }
+    }
+
+    @Test
+    public void testSameSeedSameOriginalObjects() {
+        ObjectPerturbator objectPerturbator1 = new ObjectPerturbator(Arrays.asList("{\"a\": 1}", "{\"b\": 2}", "{\"c\": 3}"));
+        ObjectPerturbator objectPerturbator2 = new ObjectPerturbator(Arrays.asList("{\"a\": 1}", "{\"b\": 2}", "{\"c\": 3}"));
+        objectPerturbator1.setRandom(new Random(42));
+        objectPerturbator2.setRandom(new Random(42));
+
+        for (int i = 0; i < 20; i++)
+            assertEquals(objectPerturbator1.getRandomOriginalStringObject(), objectPerturbator2.getRandomOriginalStringObject());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testInvalidJsonObject() {
+        new ObjectPerturbator("{\"prop1\": ");
+    }
 }
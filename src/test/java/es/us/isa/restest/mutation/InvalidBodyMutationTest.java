@@ -0,0 +1,95 @@
+package es.us.isa.restest.mutation;
+
+import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.testcases.TestCase;
+import es.us.isa.restest.util.OASAPIValidator;
+import es.us.isa.restest.util.SchemaManager;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import io.swagger.v3.oas.models.media.Schema;
+import org.javatuples.Pair;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class InvalidBodyMutationTest {
+
+    @Before
+    public void resetSchemaManager() throws NoSuchFieldException, IllegalAccessException {
+        Field currentRefPath = SchemaManager.class.getDeclaredField("currentRefPath");
+        currentRefPath.setAccessible(true);
+        currentRefPath.set(null, "");
+    }
+
+    @Test
+    public void allMutationsShouldBeInvalidItems() {
+        String body = "{\"name\": \"chair\", \"quantity\": 5, \"price\": 10.5, \"status\": \"sold\", \"tags\": [\"wood\", \"brown\"], \"dimensions\": {\"width\": 40, \"height\": null}}";
+        List<String> descriptions = assertAllMutationsInvalid("src/test/resources/specifications/invalidBodyMutation.yaml", "/items", body);
+
+        assertTrue("The required properties should be removed", descriptions.contains("Removed required property body.quantity"));
+        assertTrue("The required properties of nested objects should be removed", descriptions.contains("Removed required property body.dimensions.width"));
+        assertTrue("The maximum should be violated", descriptions.contains("Violated 'maximum' constraint of body.quantity"));
+        assertTrue("The minimum should be violated", descriptions.contains("Violated 'minimum' constraint of body.price"));
+        assertTrue("The maximum length should be violated", descriptions.contains("Violated 'maxLength' constraint of body.name"));
+        assertTrue("The maximum number of items should be violated", descriptions.contains("Violated 'maxItems' constraint of body.tags"));
+        assertTrue("The enum should be violated", descriptions.contains("Changed body.status to a value out of its enum"));
+        assertTrue("Additional properties should be added", descriptions.stream().anyMatch(d -> d.startsWith("Added property body.")));
+        assertFalse("Null values of nullable properties should not be mutated", descriptions.stream().anyMatch(d -> d.contains("body.dimensions.height")));
+    }
+
+    @Test
+    public void allMutationsShouldBeInvalidPetstore() {
+        String body = "{\"id\": 1, \"category\": {\"id\": 2, \"name\": \"dogs\"}, \"name\": \"doggie\", \"photoUrls\": [\"url\"], \"tags\": [{\"id\": 3, \"name\": \"tag\"}], \"status\": \"available\"}";
+        List<String> descriptions = assertAllMutationsInvalid("src/test/resources/Petstore/swagger.yaml", "/pet", body);
+
+        assertTrue("The type of nested properties should be changed", descriptions.contains("Changed body.tags[0].id to a value of a type different from 'integer'"));
+    }
+
+    @Test
+    public void shouldNotMutateNonJsonBodies() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/specifications/invalidBodyMutation.yaml");
+        InvalidBodyMutation mutation = new InvalidBodyMutation(getBodySchema(spec, "/items"), spec.getSpecification());
+
+        assertNull(mutation.mutate("not JSON"));
+        assertNull(mutation.mutate(null));
+    }
+
+    // Return the descriptions of all the violations
+    private List<String> assertAllMutationsInvalid(String specPath, String path, String body) {
+        OpenAPISpecification spec = new OpenAPISpecification(specPath);
+        TestCase testCase = new TestCase("test", false, "operation", path, HttpMethod.POST);
+        testCase.setInputFormat("application/json");
+        testCase.setBodyParameter(body);
+        assertTrue("The original body should be valid: " + testCase.getValidationErrors(OASAPIValidator.getValidator(spec)), testCase.isValid(OASAPIValidator.getValidator(spec)));
+
+        InvalidBodyMutation mutation = new InvalidBodyMutation(getBodySchema(spec, path), spec.getSpecification(), new Random(1));
+        List<String> mutatedBodies = new ArrayList<>();
+        assertNull("No mutation should be accepted", mutation.mutate(body, b -> !mutatedBodies.add(b)));
+        assertFalse("The body should be mutated", mutatedBodies.isEmpty());
+        for (String mutatedBody: mutatedBodies) {
+            testCase.setBodyParameter(mutatedBody);
+            assertFalse("The mutated body should be invalid: " + mutatedBody, testCase.isValid(OASAPIValidator.getValidator(spec)));
+        }
+
+        // With the same seed, the violations are tried in the same order, so the i-th one can be accepted
+        List<String> descriptions = new ArrayList<>();
+        for (int i = 0; i < mutatedBodies.size(); i++) {
+            int index = i;
+            int[] tries = {0};
+            Pair<String, String> mutated = new InvalidBodyMutation(getBodySchema(spec, path), spec.getSpecification(), new Random(1))
+                    .mutate(body, b -> tries[0]++ == index);
+            assertEquals(mutatedBodies.get(i), mutated.getValue0());
+            descriptions.add(mutated.getValue1());
+        }
+        return descriptions;
+    }
+
+    private static Schema<?> getBodySchema(OpenAPISpecification spec, String path) {
+        return spec.getSpecification().getPaths().get(path).getPost().getRequestBody().getContent().get("application/json").getSchema();
+    }
+}
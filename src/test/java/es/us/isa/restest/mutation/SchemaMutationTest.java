@@ -0,0 +1,63 @@
+package es.us.isa.restest.mutation;
+
+import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.util.SchemaManager;
+import io.swagger.v3.oas.models.media.Schema;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.reflect.Field;
+import java.util.Random;
+
+import static es.us.isa.restest.util.SchemaManager.copyFullyResolvedSchema;
+import static es.us.isa.restest.util.SchemaManager.generateFullyResolvedSchema;
+import static org.junit.Assert.*;
+
+public class SchemaMutationTest {
+
+    @Before
+    public void resetSchemaManager() throws NoSuchFieldException, IllegalAccessException {
+        Field currentRefPath = SchemaManager.class.getDeclaredField("currentRefPath");
+        currentRefPath.setAccessible(true);
+        currentRefPath.set(null, "");
+    }
+
+    @Test
+    public void copyShouldBeEqualToFullyResolvedSchema() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/specifications/petstore.yaml");
+        Schema resolvedSchema = generateFullyResolvedSchema(getPostPetSchema(spec), spec.getSpecification());
+        Schema copy = copyFullyResolvedSchema(resolvedSchema);
+
+        assertEquals(resolvedSchema, copy);
+        assertNotSame(resolvedSchema.getProperties().get("category"), copy.getProperties().get("category"));
+    }
+
+    @Test
+    public void mutationsShouldNotModifyEachOther() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/specifications/petstore.yaml");
+        Schema resolvedSchema = generateFullyResolvedSchema(getPostPetSchema(spec), spec.getSpecification());
+        SchemaMutation mutation = new SchemaMutation(getPostPetSchema(spec), spec.getSpecification(), new Random(1));
+
+        int mutatedSchemas = 0;
+        for (int i = 0; i < 50; i++) {
+            if (!resolvedSchema.equals(mutation.mutate()))
+                mutatedSchemas++;
+        }
+        assertEquals("All schemas should be mutated", 50, mutatedSchemas);
+        assertEquals("The schema of the operation should not be modified", resolvedSchema, generateFullyResolvedSchema(getPostPetSchema(spec), spec.getSpecification()));
+    }
+
+    @Test
+    public void sameSeedSameMutations() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/specifications/petstore.yaml");
+        SchemaMutation mutation1 = new SchemaMutation(getPostPetSchema(spec), spec.getSpecification(), new Random(42));
+        SchemaMutation mutation2 = new SchemaMutation(getPostPetSchema(spec), spec.getSpecification(), new Random(42));
+
+        for (int i = 0; i < 50; i++)
+            assertEquals(mutation1.mutate(), mutation2.mutate());
+    }
+
+    private static Schema getPostPetSchema(OpenAPISpecification spec) {
+        return spec.getSpecification().getPaths().get("/pet").getPost().getRequestBody().getContent().get("application/json").getSchema();
+    }
+}
@@ -80,4 +80,19 @@ public class TestCaseMutationTest {
         assertEquals("The test case should NOT be mutated", "", InvalidParameterValue.mutate(tc, spec.getSpecification().getPaths().get("/comments").getPut()));
         assertEquals("Both test cases should be equal", tc, oldTc);
     }
+
+    @Test
+    public void testCaseMutationReusedTest() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Comments/swagger.yaml");
+        TestCaseMutation mutation = new TestCaseMutation(spec.getSpecification().getPaths().get("/comments").getGet());
+        TestCase tc = new TestCase("dfgsdfg", true, "getComments", "/comments", HttpMethod.GET);
+        tc.addQueryParameter("type", "Review");
+        tc.addQueryParameter("limit", "2");
+
+        for (int i = 0; i < 20; i++) {
+            TestCase mutatedTc = SerializationUtils.clone(tc);
+            assertNotEquals("The test case should be mutated", "", mutation.mutate(mutatedTc));
+            assertNotEquals("The two test cases should be different", tc, mutatedTc);
+        }
+    }
 }
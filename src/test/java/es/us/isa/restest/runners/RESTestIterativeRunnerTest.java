@@ -0,0 +1,205 @@
+package es.us.isa.restest.runners;
+
+import com.sun.net.httpserver.HttpServer;
+import es.us.isa.restest.runners.RESTestWorkflow.GeneratedTestSuite;
+import es.us.isa.restest.util.PropertyManager;
+import es.us.isa.restest.util.RESTestException;
+import es.us.isa.restest.util.Timer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.reflect.Field;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static es.us.isa.restest.util.FileManager.checkIfExists;
+import static es.us.isa.restest.util.FileManager.deleteDir;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RESTestIterativeRunnerTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private HttpServer server;
+
+    @Before
+    public void resetSingleton() throws SecurityException, NoSuchFieldException, IllegalArgumentException, IllegalAccessException {
+        Field properties = PropertyManager.class.getDeclaredField("globalProperties");
+        properties.setAccessible(true);
+        properties.set(null, null);
+
+        Field experimentProperties = PropertyManager.class.getDeclaredField("userProperties");
+        experimentProperties.setAccessible(true);
+        experimentProperties.set(null, null);
+    }
+
+    @After
+    public void tearDown() {
+        if (server != null)
+            server.stop(0);
+        for (String property: new String[]{"http.proxyHost", "http.proxyPort", "http.nonProxyHosts", "https.proxyHost", "https.proxyPort", "https.nonProxyHosts"})
+            System.clearProperty(property);
+    }
+
+    @Test
+    public void testPipelinedRunner() throws RESTestException, IOException {
+        String targetDir = "src/generation/java/anApiOfIceAndFirePipeline";
+        String testDataDir = "target/test-data/anApiOfIceAndFirePipeline";
+        deleteDir(targetDir);
+        deleteDir(testDataDir);
+        Timer.resetCounters();
+
+        RESTestIterativeRunner runner = new RESTestIterativeRunner("src/test/resources/AnApiOfIceAndFire/iceandfire_pipeline.properties");
+        runner.run();
+
+        // 4 operations and 2 test cases per operation: 3 iterations
+        assertEquals("Incorrect number of test cases", 24, runner.getNumberOfTestCases());
+
+        File[] testClasses = new File(targetDir).listFiles((dir, name) -> name.endsWith(".java"));
+        assertNotNull(testClasses);
+        assertEquals("Incorrect number of test classes", 3, testClasses.length);
+
+        // The test cases of each iteration are reported once, even if the next iteration is already generated
+        File[] testCaseFiles = new File(testDataDir).listFiles((dir, name) -> name.startsWith("test-cases_"));
+        assertNotNull(testCaseFiles);
+        assertEquals("Incorrect number of CSV files of test cases", 3, testCaseFiles.length);
+        for (File testCaseFile: testCaseFiles)
+            assertEquals("Incorrect number of test cases in " + testCaseFile.getName(), 8 + 1, Files.readAllLines(testCaseFile.toPath()).size());
+
+        assertTrue(checkIfExists(testDataDir + "/time.csv"));
+    }
+
+    @Test(timeout = 600000)
+    public void testPipelinedRunnerExecutesTestCases() throws RESTestException, IOException {
+        String targetDir = "src/generation/java/anApiOfIceAndFirePipelineExecution";
+        String testDataDir = "target/test-data/anApiOfIceAndFirePipelineExecution";
+        String coverageDataDir = "target/coverage-data/anApiOfIceAndFirePipelineExecution";
+        deleteDir(targetDir);
+        deleteDir(testDataDir);
+        deleteDir(coverageDataDir);
+        Timer.resetCounters();
+
+        // Mock server of the API, used as the proxy of all requests
+        AtomicInteger requests = new AtomicInteger();
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            requests.incrementAndGet();
+            byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+
+        RESTestIterativeRunner runner = new RESTestIterativeRunner(writeProperties("anApiOfIceAndFirePipelineExecution", 24,
+                "experiment.execute=true", "coverage.output=true", "allure.report=false", "proxy=localhost:" + server.getAddress().getPort()));
+        runner.run();
+
+        // 4 operations and 2 test cases per operation: 3 iterations, all of them executed and reported once
+        assertEquals("Incorrect number of test cases", 24, runner.getNumberOfTestCases());
+        assertEquals("Incorrect number of requests received by the mock server", 24, requests.get());
+
+        File[] testResultFiles = new File(testDataDir).listFiles((dir, name) -> name.startsWith("test-results_"));
+        assertNotNull(testResultFiles);
+        assertEquals("Incorrect number of CSV files of test results", 3, testResultFiles.length);
+
+        File[] aPosterioriFiles = new File(coverageDataDir).listFiles((dir, name) -> name.startsWith("test-coverage-posteriori_"));
+        assertNotNull(aPosterioriFiles);
+        assertEquals("Incorrect number of a posteriori coverage reports", 3, aPosterioriFiles.length);
+    }
+
+    @Test(timeout = 600000)
+    public void testPipelinedRunnerStopsWhenAnIterationFails() throws RESTestException, IOException, InterruptedException {
+        String testDataDir = "target/test-data/anApiOfIceAndFirePipelineFailure";
+        deleteDir("src/generation/java/anApiOfIceAndFirePipelineFailure");
+        deleteDir(testDataDir);
+        Timer.resetCounters();
+
+        // No limit of test cases: the generation only stops when the test suites are no longer taken
+        FailingRunner runner = new FailingRunner(writeProperties("anApiOfIceAndFirePipelineFailure", -1, "experiment.execute=false"), 2);
+        try {
+            runner.run();
+            fail("The failure of the second iteration should be thrown");
+        } catch (IllegalStateException e) {
+            assertEquals("Iteration 2 failed", e.getMessage());
+        }
+
+        // The pipeline threads finish, once the test suite of the first iteration is reported
+        for (int i = 0; i < 300 && isPipelineRunning(); i++)
+            Thread.sleep(100);
+        assertFalse("The pipeline threads should finish", isPipelineRunning());
+
+        File[] testCaseFiles = new File(testDataDir).listFiles((dir, name) -> name.startsWith("test-cases_"));
+        assertNotNull(testCaseFiles);
+        assertEquals("Incorrect number of CSV files of test cases", 1, testCaseFiles.length);
+    }
+
+    // Properties of the pipelined workflow of An API of Ice and Fire, with 1 iteration waiting to be executed at most
+    private String writeProperties(String experimentName, int totalNumTestCases, String... properties) throws IOException {
+        StringBuilder content = new StringBuilder()
+                .append("generator=RT\n")
+                .append("testsperoperation=2\n")
+                .append("oas.path=src/test/resources/AnApiOfIceAndFire/swagger.yaml\n")
+                .append("conf.path=src/test/resources/AnApiOfIceAndFire/fullConf.yaml\n")
+                .append("test.target.dir=src/generation/java/").append(experimentName).append("\n")
+                .append("test.target.package=").append(experimentName).append("\n")
+                .append("experiment.name=").append(experimentName).append("\n")
+                .append("testclass.name=AnApiOfIceAndFireTest\n")
+                .append("stats.csv=true\n")
+                .append("numtotaltestcases=").append(totalNumTestCases).append("\n")
+                .append("delay=-1\n")
+                .append("iterative.pipeline=true\n")
+                .append("iterative.pipeline.capacity=1\n")
+                .append("faulty.ratio=0.05\n")
+                .append("logToFile=false\n");
+        for (String property: properties)
+            content.append(property).append("\n");
+
+        File propertiesFile = folder.newFile(experimentName + ".properties");
+        Files.write(propertiesFile.toPath(), content.toString().getBytes(StandardCharsets.UTF_8));
+        return propertiesFile.getPath();
+    }
+
+    private static boolean isPipelineRunning() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().startsWith("restest-") && thread.isAlive());
+    }
+
+    // Runner whose workflow fails when executing the test suite of some iteration
+    private static class FailingRunner extends RESTestIterativeRunner {
+
+        FailingRunner(String propertiesFilePath, int failingIteration) throws RESTestException {
+            super(propertiesFilePath);
+            RESTestWorkflow failingWorkflow = new RESTestWorkflow(testClassName, targetDirJava, packageName, spec, confPath,
+                    createGenerator(), writer, allureReportManager, statsReportManager) {
+                private int iteration = 0;
+
+                @Override
+                void executeTestSuite(GeneratedTestSuite testSuite) {
+                    if (++iteration == failingIteration)
+                        throw new IllegalStateException("Iteration " + iteration + " failed");
+                    super.executeTestSuite(testSuite);
+                }
+            };
+            failingWorkflow.setAllureReport(allureReports);
+            failingWorkflow.setExecuteTestCases(executeTestCases);
+            failingWorkflow.setTestId(experimentName);
+            workflow = failingWorkflow;
+        }
+    }
+}
@@ -2,6 +2,13 @@ package es.us.isa.restest.specification;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import io.swagger.v3.oas.models.Operation;
+import io.swagger.v3.oas.models.PathItem;
+
 import org.junit.Test;
 
 public class OpenAPISpecificationTest {
@@ -41,5 +48,30 @@ public class OpenAPISpecificationTest {
 		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/restest-test-resources/swagger-dhl.yaml");
 		// No assertions, the test passes as long as no exceptions thrown
 	}
-	
+
+	@Test
+	public void testPartialLoadOfGitHubSpecification() {
+		OpenAPISpecification fullSpec = new OpenAPISpecification("src/test/resources/GitHub/swagger.yaml");
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/GitHub/swagger.yaml", Arrays.asList("/repos/{owner}/{repo}/issues", "/USERS/{username}"));
+
+		assertEquals("Wrong number of paths", 2, spec.getSpecification().getPaths().size());
+		for (String path: Arrays.asList("/repos/{owner}/{repo}/issues", "/users/{username}")) {
+			Map<PathItem.HttpMethod, Operation> fullOperations = fullSpec.getSpecification().getPaths().get(path).readOperationsMap();
+			Map<PathItem.HttpMethod, Operation> operations = spec.getSpecification().getPaths().get(path).readOperationsMap();
+			assertEquals("Wrong parsing", fullOperations.keySet(), operations.keySet());
+			for (PathItem.HttpMethod method: operations.keySet()) {
+				assertEquals("Wrong parsing", fullOperations.get(method).getParameters(), operations.get(method).getParameters());
+				assertEquals("Wrong parsing", fullOperations.get(method).getRequestBody(), operations.get(method).getRequestBody());
+				assertEquals("Wrong parsing", fullOperations.get(method).getResponses().keySet(), operations.get(method).getResponses().keySet());
+			}
+		}
+		assertTrue("Only the components referenced should be loaded", spec.getSpecification().getComponents().getSchemas().size() < fullSpec.getSpecification().getComponents().getSchemas().size());
+		assertEquals(fullSpec.getSpecification().getInfo(), spec.getSpecification().getInfo());
+	}
+
+	@Test
+	public void testPartialLoadOfSwagger2Specification() {
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/specifications/petstore.yaml", Collections.singletonList("/pet"));
+		assertEquals("Swagger 2.0 specifications should be loaded completely", new OpenAPISpecification("src/test/resources/specifications/petstore.yaml").getSpecification().getPaths().size(), spec.getSpecification().getPaths().size());
+	}
 }
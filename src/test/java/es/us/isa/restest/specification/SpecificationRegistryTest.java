@@ -0,0 +1,75 @@
+package es.us.isa.restest.specification;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+import es.us.isa.restest.util.OASAPIValidator;
+import es.us.isa.restest.writers.restassured.filters.CompiledResponseValidator;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SpecificationRegistryTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void sameSpecificationShouldBeParsedOnce() {
+		OpenAPISpecification spec1 = new OpenAPISpecification("src/test/resources/Petstore/swagger.json");
+		OpenAPISpecification spec2 = new OpenAPISpecification("./src/test/resources/Petstore/swagger.json");
+		assertSame("The specification should be parsed once", spec1.getSpecification(), spec2.getSpecification());
+		assertEquals("./src/test/resources/Petstore/swagger.json", spec2.getPath());
+	}
+
+	@Test
+	public void validatorsShouldUseTheirOwnModel() {
+		OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Petstore/swagger.json");
+		assertSame(OASAPIValidator.loadApi(spec.getPath()), OASAPIValidator.loadApi(spec.getPath()));
+		assertNotSame("Specifications parsed with different options should not be shared", spec.getSpecification(), OASAPIValidator.loadApi(spec.getPath()));
+	}
+
+	@Test
+	public void specificationShouldBeParsedOncePerParser() throws IOException {
+		// Unique content, so that the specification was not parsed by other tests
+		File file = folder.newFile("swagger.yaml");
+		String content = new String(Files.readAllBytes(Paths.get("src/test/resources/Petstore/swagger.yaml")));
+		Files.write(file.toPath(), (content + "\n# " + System.nanoTime() + "\n").getBytes());
+		long parses = SpecificationRegistry.getParseCount();
+
+		OpenAPISpecification spec = new OpenAPISpecification(file.getPath());
+		new OpenAPISpecification(file.getPath());
+		OASAPIValidator.getValidator(spec);
+		OASAPIValidator.getOperationValidator(spec, "/store/order", HttpMethod.POST);
+		new CompiledResponseValidator(file.getPath());
+
+		assertEquals("The specification should be parsed once for the generators and once for the validators", parses + 2, SpecificationRegistry.getParseCount());
+	}
+
+	@Test
+	public void modifiedSpecificationShouldBeParsedAgain() throws IOException {
+		File file = folder.newFile("swagger.json");
+		Files.copy(Paths.get("src/test/resources/Petstore/swagger.json"), file.toPath(), java.nio.file.StandardCopyOption.REPLACE_EXISTING);
+		OpenAPISpecification spec1 = new OpenAPISpecification(file.getPath());
+
+		String content = new String(Files.readAllBytes(file.toPath())).replace("/pet/findByStatus", "/pet/findByState");
+		Files.write(file.toPath(), content.getBytes());
+		OpenAPISpecification spec2 = new OpenAPISpecification(file.getPath());
+
+		assertNotSame(spec1.getSpecification(), spec2.getSpecification());
+		assertNotNull(spec1.getSpecification().getPaths().get("/pet/findByStatus"));
+		assertNotNull(spec2.getSpecification().getPaths().get("/pet/findByState"));
+	}
+
+	@Test
+	public void unparsableSpecificationShouldNotBeRegistered() {
+		String location = "src/test/resources/Petstore/nonExistingSpec.json";
+		assertNull(SpecificationRegistry.getSpecification(location, "test", l -> null));
+		assertNotNull(SpecificationRegistry.getSpecification(location, "test", l -> new OpenAPISpecification("src/test/resources/Petstore/swagger.json").getSpecification()));
+	}
+}
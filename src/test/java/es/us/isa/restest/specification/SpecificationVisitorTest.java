@@ -73,4 +73,26 @@ public class SpecificationVisitorTest {
         assertFalse("The operation GET /trips shouldn't have dependencies", hasDependencies(travelApiOas.getSpecification().getPaths().get("/trips").getGet()));
         assertFalse("The operation DELETE /trips/user shouldn't have dependencies", hasDependencies(travelApiOas.getSpecification().getPaths().get("/trips/user").getDelete()));
     }
+
+    @Test
+    public void shouldFindFormDataParameter() {
+        Operation op = stripeApiOas.getSpecification().getPaths().get("/v1/products").getPost();
+        OpenAPIParameter param = findParameterFeatures(op, "package_dimensions[height]", "formData");
+
+        assertEquals("The parameter's name should be 'package_dimensions[height]', but its name is " + param.getName(), "package_dimensions[height]", param.getName());
+        assertEquals("'package_dimensions[height]' should be a formData parameter, but it is a " + param.getIn() + " parameter", "formData", param.getIn());
+        assertEquals("'package_dimensions[height]' should be a number. Parameter type: " + param.getType(), "number", param.getType());
+        assertEquals("Parameter names should be case insensitive", "name", findParameterFeatures(op, "NAME", "formData").getName());
+        assertNull("Unknown parameters should not be found", findParameterFeatures(op, "unknown", "formData"));
+    }
+
+    @Test
+    public void shouldReuseOperationFeatures() {
+        Operation op = travelApiOas.getSpecification().getPaths().get("/trips/user").getGet();
+
+        assertSame("The features of an operation should be computed once", getOperationFeatures(op), getOperationFeatures(op));
+        assertSame("The features of a parameter should be computed once", findParameterFeatures(op, "sort", "query"), findParameterFeatures(op, "SORT", "query"));
+        assertNull("Unknown parameters should not be found", findParameterFeatures(op, "unknown", "query"));
+        assertNull("The operation has no body", findParameterFeatures(op, "body", "body"));
+    }
 }
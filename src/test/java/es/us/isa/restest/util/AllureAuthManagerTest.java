@@ -4,17 +4,27 @@ import es.us.isa.restest.specification.OpenAPISpecification;
 import org.hamcrest.MatcherAssert;
 import org.junit.AfterClass;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.*;
 
 import static es.us.isa.restest.util.AllureAuthManager.*;
 import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 
 public class AllureAuthManagerTest {
 
@@ -22,6 +32,9 @@ public class AllureAuthManagerTest {
     static String firstHtml;
     static String secondHtml;
 
+    @Rule
+    public TemporaryFolder tmp = new TemporaryFolder();
+
     @BeforeClass
     public static void setUp() {
         testOas = new OpenAPISpecification("src/test/resources/restest-test-resources/openapi.yaml");
@@ -44,6 +57,39 @@ public class AllureAuthManagerTest {
         MatcherAssert.assertThat(Objects.requireNonNull(FileManager.readFile("src/test/resources/htmlData/htmlSample1.html")), containsString("CENSORED"));
     }
 
+    @Test
+    public void shouldRedactAllAuthPropertiesInASinglePass() throws IOException {
+        List<String> authProperties = Arrays.asList("Authorization", "api_key", "key");
+        String html = "<div>Authorization: Bearer 123456abcdef</div>\n" +
+                "<div>GET https://example.com?api_key=secret&key=other&#39;&query=value</div>\n" +
+                "<div>key:unterminated Authorization=abc'";
+
+        String expected = html;
+        for (String authProperty: authProperties) // Equivalent regex-based redaction
+            expected = expected.replaceAll("(" + authProperty + "([=:]))([^<&'])*([<&'])", "$1CENSORED$4");
+
+        StringWriter out = new StringWriter();
+        assertTrue(redact(new StringReader(html), out, authProperties));
+        assertEquals(expected, out.toString());
+
+        out = new StringWriter();
+        assertFalse("Nothing should be redacted", redact(new StringReader("<div>Accept: */*</div>"), out, authProperties));
+        assertEquals("<div>Accept: */*</div>", out.toString());
+    }
+
+    @Test
+    public void shouldRedactHardLinkedFilesInPlace() throws IOException {
+        Path results = tmp.newFolder("results").toPath();
+        Path snapshot = tmp.newFolder("snapshot").toPath();
+        Path attachment = Files.write(results.resolve("attachment.html"), "<div>Authorization: Bearer 123</div>".getBytes(StandardCharsets.UTF_8));
+        Files.createLink(snapshot.resolve("attachment.html"), attachment);
+
+        confidentialityFilter(Collections.singletonList("Authorization"), snapshot.toString());
+
+        assertEquals("<div>Authorization:CENSORED</div>", new String(Files.readAllBytes(attachment), StandardCharsets.UTF_8));
+        assertTrue(Files.isSameFile(attachment, snapshot.resolve("attachment.html")));
+    }
+
     @AfterClass
     public static void tearDown() throws FileNotFoundException {
         PrintWriter pw = new PrintWriter(new File("src/test/resources/htmlData/htmlSample.html"));
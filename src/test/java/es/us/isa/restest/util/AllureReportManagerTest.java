@@ -1,12 +1,21 @@
 package es.us.isa.restest.util;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Ignore;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import es.us.isa.restest.reporting.AllureReportManager;
 
@@ -15,5 +24,91 @@ public class AllureReportManagerTest {
 	String resultsDir = "src/test/resources/allure-results";
 	String reportDir = "target/allure-report";
 
+	@Rule
+	public TemporaryFolder tmp = new TemporaryFolder();
+
+	@Test
+	public void testAsyncReportsAreCoalesced() {
+		AtomicInteger generatedReports = new AtomicInteger();
+		AllureReportManager arm = new AllureReportManager(resultsDir, reportDir, new ArrayList<>()) {
+			@Override
+			public void generateReport() { // Slow report, so that several requests arrive while it is generated
+				try {
+					Thread.sleep(300);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				generatedReports.incrementAndGet();
+			}
+		};
+		arm.setAsync(true);
+
+		long start = System.currentTimeMillis();
+		for (int i = 0; i < 10; i++)
+			arm.requestReport();
+		assertTrue("Requesting reports should not block", System.currentTimeMillis() - start < 300);
+
+		arm.awaitReports();
+		assertTrue("Requests received while generating a report should be coalesced", generatedReports.get() >= 1 && generatedReports.get() <= 2);
+	}
+
+	@Test
+	public void testAsyncReportOnlyAtTheEnd() {
+		AtomicInteger generatedReports = new AtomicInteger();
+		AllureReportManager arm = new AllureReportManager(resultsDir, reportDir, new ArrayList<>()) {
+			@Override
+			public void generateReport() {
+				generatedReports.incrementAndGet();
+			}
+		};
+		arm.setAsync(true);
+		arm.setReportInterval(-1);
+
+		arm.requestReport();
+		arm.requestReport();
+		assertEquals(0, generatedReports.get());
+
+		arm.awaitReports();
+		assertEquals("A single report should be generated at the end of the run", 1, generatedReports.get());
+	}
+
+	@Test
+	public void testAsyncReportsAreGeneratedFromSnapshot() throws IOException {
+		File results = tmp.newFolder("results");
+		Files.write(new File(results, "1-result.json").toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+
+		List<List<String>> reportedResults = new ArrayList<>();
+		AllureReportManager arm = new AllureReportManager(results.getPath(), tmp.getRoot() + "/report", new ArrayList<>()) {
+			@Override
+			public void generateReport() {
+				String[] files = new File(getSnapshotDirPath()).list();
+				Arrays.sort(files);
+				reportedResults.add(Arrays.asList(files));
+			}
+		};
+		arm.setAsync(true);
+		arm.setReportInterval(-1);
+
+		arm.requestReport();
+		Files.write(new File(results, "2-result.json").toPath(), "{".getBytes(StandardCharsets.UTF_8)); // Next test suite being executed
+		arm.awaitReports();
+		assertEquals("Results produced after the request should not be reported", Arrays.asList(Arrays.asList("1-result.json")), reportedResults);
+
+		arm.requestReport();
+		arm.awaitReports();
+		assertEquals("New results should be added to the snapshot", Arrays.asList("1-result.json", "2-result.json"), reportedResults.get(1));
+	}
+
+	@Test
+	public void testReportWithoutSnapshotTakesSnapshot() throws IOException {
+		File results = tmp.newFolder("results");
+		Files.write(new File(results, "1-result.json").toPath(), "{}".getBytes(StandardCharsets.UTF_8));
+
+		AllureReportManager arm = new AllureReportManager(results.getPath(), tmp.getRoot() + "/report", new ArrayList<>());
+		arm.setLoadCategories(false);
+		arm.generateReport();
+
+		assertTrue("The results should be snapshotted before generating the report", new File(arm.getSnapshotDirPath(), "1-result.json").isFile());
+	}
 
 }
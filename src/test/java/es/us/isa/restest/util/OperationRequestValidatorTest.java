@@ -0,0 +1,157 @@
+package es.us.isa.restest.util;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import es.us.isa.restest.specification.OpenAPISpecification;
+import es.us.isa.restest.testcases.TestCase;
+import io.swagger.v3.oas.models.PathItem.HttpMethod;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class OperationRequestValidatorTest {
+
+    @Test
+    public void shouldReturnSameErrorsAsGeneralValidatorPetstore() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Petstore/swagger.yaml");
+        String validOrder = "{\"id\": 1, \"petId\": 2, \"quantity\": 3, \"status\": \"placed\", \"complete\": false}";
+        String invalidOrder = "{\"id\": \"one\", \"quantity\": 3.5, \"status\": \"unknown\"}";
+
+        // Twice, so that the second time the compiled validators are reused
+        for (int i = 0; i < 2; i++) {
+            assertSameErrors(spec, pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", "5"), false);
+            assertSameErrors(spec, pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", "20"), true);
+            assertSameErrors(spec, pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", "abc"), true);
+            assertSameErrors(spec, pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", ""), true);
+            assertSameErrors(spec, pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", "1/2"), true);
+            assertSameErrors(spec, pathTestCase("/pet/{petId}", HttpMethod.GET, "petId", "findByStatus"), true); // Ambiguous with "/pet/findByStatus"
+            TestCase getPet = pathTestCase("/pet/{petId}", HttpMethod.GET, "petId", "1");
+            assertSameErrors(spec, getPet, true);
+            getPet.addHeaderParameter("api_key", "key");
+            assertSameErrors(spec, getPet, false);
+            assertSameErrors(spec, bodyTestCase("/store/order", HttpMethod.POST, validOrder), false);
+            assertSameErrors(spec, bodyTestCase("/store/order", HttpMethod.POST, invalidOrder), true);
+            assertSameErrors(spec, bodyTestCase("/store/order", HttpMethod.POST, "not JSON"), true);
+            assertSameErrors(spec, bodyTestCase("/store/order", HttpMethod.POST, null), true);
+
+            TestCase login = new TestCase("login", false, "loginUser", "/user/login", HttpMethod.GET);
+            login.addQueryParameter("username", "user");
+            assertSameErrors(spec, login, true);
+            login.addQueryParameter("password", "pass");
+            assertSameErrors(spec, login, false);
+        }
+    }
+
+    @Test
+    public void shouldReturnSameErrorsAsGeneralValidatorFormData() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Stripe/swagger_createCoupon.yaml");
+
+        TestCase coupon = new TestCase("coupon", false, "PostCoupons", "/coupons", HttpMethod.POST);
+        coupon.addFormParameter("duration", "once");
+        coupon.addFormParameter("id", "123");         // Whitelisted: numbers are valid strings in form data
+        assertSameErrors(spec, coupon, false);
+        coupon.addFormParameter("duration", "never");
+        coupon.addFormParameter("amount_off", "abc");
+        assertSameErrors(spec, coupon, true);
+    }
+
+    @Test
+    public void shouldRejectSameSpecificationsAsGeneralValidator() {
+        // The library does not load this specification (unexpected "examples" in a body parameter)
+        String specPath = "src/test/resources/specifications/petstore.yaml";
+        OpenAPISpecification spec = new OpenAPISpecification(specPath);
+
+        try {
+            OpenApiInteractionValidator.createFor(specPath).build();
+            fail("The general purpose validator should not load the specification");
+        } catch (OpenApiInteractionValidator.ApiLoadException e) {
+            // Expected
+        }
+
+        try {
+            OASAPIValidator.getOperationValidator(spec, "/store/order", HttpMethod.POST)
+                    .isValid(bodyTestCase("/store/order", HttpMethod.POST, "{\"id\": \"one\"}"));
+            fail("The validator of the operation should not load the specification");
+        } catch (OpenApiInteractionValidator.ApiLoadException e) {
+            // Expected
+        }
+    }
+
+    @Test
+    public void shouldReturnSameErrorsAsValidatorOfSpecificationFile() {
+        // Validators loaded from the file, not from the model shared by the validators of the operations
+        String specPath = "src/test/resources/Petstore/swagger.yaml";
+        OpenApiInteractionValidator fileValidator = OpenApiInteractionValidator.createFor(specPath).build();
+        OpenAPISpecification spec = new OpenAPISpecification(specPath);
+
+        TestCase invalidOrder = bodyTestCase("/store/order", HttpMethod.POST, "{\"id\": \"one\", \"quantity\": 3.5, \"status\": \"unknown\"}");
+        List<String> errors = invalidOrder.getValidationErrors(fileValidator);
+        assertFalse("The test case should be invalid", errors.isEmpty());
+        assertEquals("Different validation errors for an invalid body", errors,
+                OASAPIValidator.getOperationValidator(spec, "/store/order", HttpMethod.POST).getValidationErrors(invalidOrder));
+        assertEquals("Different validation errors for an invalid body", errors, invalidOrder.getValidationErrors(OASAPIValidator.getValidator(spec)));
+    }
+
+    @Test
+    public void shouldValidateOnlyPathsLoaded() {
+        String specPath = "src/test/resources/GitHub/swagger.yaml";
+        OpenAPISpecification fullSpec = new OpenAPISpecification(specPath);
+        OpenAPISpecification spec = new OpenAPISpecification(specPath, Arrays.asList("/repos/{owner}/{repo}/issues", "/USERS/{username}"));
+
+        assertEquals("Only the paths loaded should be validated", 2, OASAPIValidator.loadApi(specPath, spec.getPaths()).getPaths().size());
+        TestCase getUser = pathTestCase("/users/{username}", HttpMethod.GET, "username", "octocat");
+        assertEquals("Different validation errors with the partial specification", getUser.getValidationErrors(OASAPIValidator.getValidator(fullSpec)),
+                OASAPIValidator.getOperationValidator(spec, getUser.getPath(), getUser.getMethod()).getValidationErrors(getUser));
+        assertTrue("The test case should be valid", getUser.isValid(OASAPIValidator.getValidator(spec)));
+    }
+
+    @Test
+    public void shouldReuseVerdictsOfRepeatedTestCases() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Petstore/swagger.yaml");
+        OperationRequestValidator validator = OASAPIValidator.getOperationValidator(spec, "/store/order/{orderId}", HttpMethod.GET);
+
+        // Unique value, so that the test case is not cached by other tests
+        String orderId = String.valueOf(System.nanoTime() % 1000 + 1000);
+        long cacheHits = validator.getCacheHits();
+
+        List<String> errors = validator.getValidationErrors(pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", orderId));
+        assertFalse("The test case should be invalid", errors.isEmpty());
+        assertEquals("The first test case should not be cached", cacheHits, validator.getCacheHits());
+        errors.clear(); // Modifying the errors returned must not modify the cached ones
+
+        assertEquals("Different validation errors for a repeated test case", pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", orderId).getValidationErrors(OASAPIValidator.getValidator(spec)),
+                validator.getValidationErrors(pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", orderId)));
+        assertEquals("The repeated test case should be cached", cacheHits + 1, validator.getCacheHits());
+        assertTrue("The test case should be valid", validator.isValid(pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", "2")));
+        cacheHits = validator.getCacheHits();
+
+        TestCase testCase = pathTestCase("/store/order/{orderId}", HttpMethod.GET, "orderId", orderId);
+        testCase.addPathParameter("orderId", "abc" + orderId);
+        assertFalse("The verdict of a modified test case should not be reused", validator.isValid(testCase));
+        assertEquals("The modified test case should not be cached", cacheHits, validator.getCacheHits());
+    }
+
+    private static TestCase pathTestCase(String path, HttpMethod method, String paramName, String paramValue) {
+        TestCase testCase = new TestCase(method + path + paramValue, false, "operation", path, method);
+        testCase.addPathParameter(paramName, paramValue);
+        return testCase;
+    }
+
+    private static TestCase bodyTestCase(String path, HttpMethod method, String body) {
+        TestCase testCase = new TestCase(method + path, false, "operation", path, method);
+        testCase.setInputFormat("application/json");
+        testCase.setBodyParameter(body);
+        return testCase;
+    }
+
+    private static void assertSameErrors(OpenAPISpecification spec, TestCase testCase, boolean hasErrors) {
+        OperationRequestValidator validator = OASAPIValidator.getOperationValidator(spec, testCase.getPath(), testCase.getMethod());
+        String description = testCase.getMethod() + " " + testCase.getPath() + " " + testCase.getPathParameters() + " " + testCase.getBodyParameter();
+
+        assertEquals("Unexpected validation result for " + description, hasErrors, !testCase.isValid(OASAPIValidator.getValidator(spec)));
+        assertEquals("Different validation errors for " + description, testCase.getValidationErrors(OASAPIValidator.getValidator(spec)), validator.getValidationErrors(testCase));
+        assertEquals("Different validation result for " + description, !hasErrors, validator.isValid(testCase));
+    }
+}
@@ -2,12 +2,17 @@ package es.us.isa.restest.util;
 
 import es.us.isa.restest.configuration.TestConfigurationIO;
 import es.us.isa.restest.configuration.TestConfigurationVisitor;
+import es.us.isa.restest.configuration.pojos.Operation;
+import es.us.isa.restest.configuration.pojos.TestConfiguration;
 import es.us.isa.restest.configuration.pojos.TestConfigurationObject;
+import es.us.isa.restest.configuration.pojos.TestParameter;
 import es.us.isa.restest.specification.OpenAPISpecification;
 import org.junit.Test;
 
-import static org.junit.Assert.assertFalse;
-import static org.junit.Assert.assertTrue;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
 
 public class TestConfigurationVisitorTest {
 
@@ -66,4 +71,87 @@ public class TestConfigurationVisitorTest {
         assertFalse(TestConfigurationVisitor.hasStatefulGenerators(testConf.getTestConfiguration().getOperations().get(2)));
         assertFalse(TestConfigurationVisitor.hasStatefulGenerators(testConf.getTestConfiguration().getOperations().get(3)));
     }
+
+    @Test
+    public void testFindOperationsAndParameters() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Folder/openapi.yaml");
+        TestConfigurationObject conf = TestConfigurationIO.loadConfiguration("src/test/resources/Folder/fullConf.yaml", spec);
+
+        Operation operation = TestConfigurationVisitor.getOperation(conf, "/V2/ALPHA/{alphacode}", "GET");
+        assertEquals("v2Alphacode", operation.getOperationId());
+        assertSame(operation, TestConfigurationVisitor.getTestOperation(conf, "V2ALPHACODE"));
+        assertNull(TestConfigurationVisitor.getOperation(conf, "/v2/alpha/{alphacode}", "post"));
+        assertNull(TestConfigurationVisitor.getTestOperation(conf, "nonExistingOperation"));
+
+        assertEquals("alphacode", TestConfigurationVisitor.getTestParameter(conf, "v2Alphacode", "ALPHACODE").getName());
+        assertSame(operation.getTestParameters().get(0), TestConfigurationVisitor.searchTestParameter("fields", operation.getTestParameters()));
+        assertNull(TestConfigurationVisitor.searchTestParameter("nonExistingParameter", operation.getTestParameters()));
+    }
+
+    @Test
+    public void testFindOperationAddedAfterSearch() {
+        TestConfigurationObject conf = new TestConfigurationObject();
+        conf.setTestConfiguration(new TestConfiguration());
+        conf.getTestConfiguration().setOperations(new ArrayList<>());
+        conf.getTestConfiguration().getOperations().add(createOperation("/books", "getBooks", "get"));
+        assertEquals("getBooks", TestConfigurationVisitor.getOperation(conf, "/books", "get").getOperationId());
+
+        conf.getTestConfiguration().getOperations().add(createOperation("/books", "createBook", "post"));
+        assertEquals("createBook", TestConfigurationVisitor.getOperation(conf, "/books", "post").getOperationId());
+        assertEquals(2, TestConfigurationVisitor.getOperationsOfTestPath(conf, "/books").size());
+    }
+
+    @Test
+    public void testFindOperationReplacedOrRenamedAfterSearch() {
+        TestConfigurationObject conf = new TestConfigurationObject();
+        conf.setTestConfiguration(new TestConfiguration());
+        conf.getTestConfiguration().setOperations(new ArrayList<>());
+        conf.getTestConfiguration().getOperations().add(createOperation("/books", "getBooks", "get"));
+        assertEquals("getBooks", TestConfigurationVisitor.getTestOperation(conf, "getBooks").getOperationId());
+
+        conf.getTestConfiguration().getOperations().set(0, createOperation("/authors", "getAuthors", "get"));
+        assertNull(TestConfigurationVisitor.getTestOperation(conf, "getBooks"));
+        assertEquals("getAuthors", TestConfigurationVisitor.getOperation(conf, "/authors", "get").getOperationId());
+
+        conf.getTestConfiguration().getOperations().get(0).setOperationId("listAuthors");
+        assertNull(TestConfigurationVisitor.getTestOperation(conf, "getAuthors"));
+        assertEquals("listAuthors", TestConfigurationVisitor.getTestOperation(conf, "listAuthors").getOperationId());
+    }
+
+    @Test
+    public void testFindParameterReplacedOrRenamedAfterSearch() {
+        List<TestParameter> testParameters = new ArrayList<>();
+        testParameters.add(createParameter("title"));
+        assertSame(testParameters.get(0), TestConfigurationVisitor.searchTestParameter("title", testParameters));
+
+        testParameters.set(0, createParameter("author"));
+        assertNull(TestConfigurationVisitor.searchTestParameter("title", testParameters));
+        assertSame(testParameters.get(0), TestConfigurationVisitor.searchTestParameter("author", testParameters));
+
+        testParameters.get(0).setName("isbn");
+        assertNull(TestConfigurationVisitor.searchTestParameter("author", testParameters));
+        assertSame(testParameters.get(0), TestConfigurationVisitor.searchTestParameter("isbn", testParameters));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testFindOperationOfNonExistingPath() {
+        OpenAPISpecification spec = new OpenAPISpecification("src/test/resources/Folder/openapi.yaml");
+        TestConfigurationObject conf = TestConfigurationIO.loadConfiguration("src/test/resources/Folder/fullConf.yaml", spec);
+        TestConfigurationVisitor.getOperation(conf, "/v4/all", "get");
+    }
+
+    private static TestParameter createParameter(String name) {
+        TestParameter parameter = new TestParameter();
+        parameter.setName(name);
+        return parameter;
+    }
+
+    private static Operation createOperation(String testPath, String operationId, String method) {
+        Operation operation = new Operation();
+        operation.setTestPath(testPath);
+        operation.setOperationId(operationId);
+        operation.setMethod(method);
+        operation.setTestParameters(new ArrayList<>());
+        return operation;
+    }
 }
@@ -0,0 +1,84 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import com.atlassian.oai.validator.OpenApiInteractionValidator;
+import com.atlassian.oai.validator.model.Request;
+import com.atlassian.oai.validator.model.Response;
+import com.atlassian.oai.validator.model.SimpleResponse;
+import com.atlassian.oai.validator.report.ValidationReport;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.*;
+
+public class CompiledResponseValidatorTest {
+
+    private static final String OAI_JSON_URL = "src/test/resources/Petstore/swagger.yaml";
+
+    private final OpenApiInteractionValidator generalValidator = OpenApiInteractionValidator.createFor(OAI_JSON_URL).build();
+    private final CompiledResponseValidator compiledValidator = new CompiledResponseValidator(OAI_JSON_URL);
+
+    @Test
+    public void shouldReturnSameMessagesAsGeneralValidator() {
+        String validOrder = "{\"id\": 1, \"petId\": 2, \"quantity\": 3, \"status\": \"placed\", \"complete\": false}";
+        String invalidOrder = "{\"id\": \"one\", \"quantity\": 3.5, \"status\": \"unknown\"}";
+
+        // Twice, so that the second time the compiled validators are reused
+        for (int i = 0; i < 2; i++) {
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/1", Request.Method.GET, 200, "application/json", validOrder, false);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/2", Request.Method.GET, 200, "application/json", invalidOrder, true);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/3", Request.Method.GET, 200, "application/json", "not JSON", true);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/4", Request.Method.GET, 200, "application/json", "", true);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/5", Request.Method.GET, 200, "application/json; charset=utf-8", invalidOrder, true);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/6", Request.Method.GET, 200, "text/html", "<html></html>", true);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/7", Request.Method.GET, 200, null, validOrder, false);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/8", Request.Method.GET, 404, "application/json", "{}", false);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/9", Request.Method.GET, 500, "application/json", "{}", true);
+            assertSameReport("/store/order/{orderId}", "/v2/store/order/1", Request.Method.PATCH, 200, "application/json", validOrder, true);
+            assertSameReport("/pet/{petId}", "/v2/pet/1", Request.Method.GET, 200, "application/json", "{\"name\": 1}", true); // Ambiguous with "/pet/findByStatus"
+            assertSameReport("/user/login", "/v2/user/login", Request.Method.GET, 200, "application/json", "\"token\"", false); // Response headers
+            assertSameReport(null, "/v2/store/order/1", Request.Method.GET, 200, "application/json", invalidOrder, true);
+            assertSameReport(null, "/v2/unknown", Request.Method.GET, 200, "application/json", "{}", true);
+        }
+    }
+
+    @Test
+    public void shouldRejectSameSpecificationsAsGeneralValidator() {
+        // The library does not load this specification (unexpected "examples" in a body parameter)
+        String specPath = "src/test/resources/specifications/petstore.yaml";
+        try {
+            OpenApiInteractionValidator.createFor(specPath).build();
+            fail("The general purpose validator should not load the specification");
+        } catch (OpenApiInteractionValidator.ApiLoadException e) {
+            // Expected
+        }
+
+        try {
+            new CompiledResponseValidator(specPath);
+            fail("The compiled validator should not load the specification");
+        } catch (OpenApiInteractionValidator.ApiLoadException e) {
+            // Expected
+        }
+    }
+
+    private void assertSameReport(String templatePath, String path, Request.Method method, int status, String contentType, String body, boolean hasErrors) {
+        SimpleResponse.Builder responseBuilder = SimpleResponse.Builder.status(status).withBody(body);
+        if (contentType != null)
+            responseBuilder.withContentType(contentType);
+        Response response = responseBuilder.build();
+
+        ValidationReport expectedReport = generalValidator.validateResponse(path, method, response);
+        ValidationReport report = compiledValidator.validateResponse(templatePath, path, method, response);
+
+        assertEquals("Unexpected validation result for " + method + " " + path + " (" + status + ", " + contentType + ")", hasErrors, expectedReport.hasErrors());
+        assertEquals("Different validation messages for " + method + " " + path + " (" + status + ", " + contentType + ")", getMessages(expectedReport), getMessages(report));
+    }
+
+    private static List<String> getMessages(ValidationReport report) {
+        return report.getMessages().stream()
+                .map(m -> m.getLevel() + " " + m.getKey() + " " + m.getMessage())
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,42 @@
+package es.us.isa.restest.writers.restassured.filters;
+
+import es.us.isa.restest.testcases.TestResult;
+import io.restassured.response.Response;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ResponseContextTest {
+
+    @Test
+    public void shouldShareResponseBodyAcrossFilters() {
+        Response response = mockResponse(200, "application/json", "{\"id\": 1, \"name\": \"a\"}");
+
+        ResponseContext context = ResponseContext.of(response);
+        assertSame("Filters receiving the same response should share the context", context, ResponseContext.of(response));
+
+        TestResult testResult = context.toTestResult("id1", true, "none");
+        assertNull("The body should not be parsed unless needed", testResult.getResponseBodyJson());
+
+        assertEquals(1, context.getJsonBody().get("id").asInt());
+        assertSame("The body should be parsed only once", context.getJsonBody(), ResponseContext.of(response).getJsonBody());
+        assertSame(context.getJsonBody(), context.toTestResult("id1", true, "none").getResponseBodyJson());
+        assertEquals("200", testResult.getStatusCode());
+        assertEquals(response.asString(), testResult.getResponseBody());
+
+        Response otherResponse = mockResponse(500, "text/plain", "Internal error");
+        ResponseContext otherContext = ResponseContext.of(otherResponse);
+        assertNotSame("A new response should get a new context", context, otherContext);
+        assertNull("A body which is not JSON should not be parsed", otherContext.getJsonBody());
+    }
+
+    private static Response mockResponse(int statusCode, String contentType, String body) {
+        Response response = mock(Response.class);
+        when(response.statusCode()).thenReturn(statusCode);
+        when(response.contentType()).thenReturn(contentType);
+        when(response.asString()).thenReturn(body);
+        return response;
+    }
+}
@@ -1,11 +1,24 @@
 package es.us.isa.restest.writers.restassured.filters;
 
+import es.us.isa.restest.testcases.TestResult;
+import es.us.isa.restest.util.PropertyManager;
 import io.restassured.RestAssured;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
 import io.restassured.response.Response;
 import org.junit.BeforeClass;
 import org.junit.Test;
 
-import static org.junit.Assert.fail;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static es.us.isa.restest.util.FileManager.createDir;
+import static es.us.isa.restest.util.FileManager.deleteDir;
+import static es.us.isa.restest.util.TestManager.getTestResults;
+import static org.junit.Assert.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 public class ResponseValidationFilterTest {
 
@@ -53,4 +66,47 @@ public class ResponseValidationFilterTest {
 
         fail("This test should not validate the response");
     }
+
+    @Test
+    public void shouldApplyAsynchronousVerdictWhenRecordingTestResult() {
+        String APIName = "asyncValidationTest";
+        String testDir = PropertyManager.readProperty("data.tests.dir") + "/" + APIName;
+        deleteDir(testDir);
+        createDir(testDir);
+
+        ResponseValidationFilter asyncValidationFilter = new ResponseValidationFilter(OAI_JSON_URL);
+        asyncValidationFilter.setAPIName(APIName);
+        asyncValidationFilter.setTestId("1");
+        asyncValidationFilter.setAsync(true);
+        CSVFilter csvFilter = new CSVFilter(APIName, "1");
+
+        // Both filters receive the same response, as in the filter chain of a test case
+        for (String testResultId: new String[]{"valid", "invalid"}) {
+            Response response = mockResponse(testResultId.equals("valid") ? "{\"numberOfPages\": 694}" : "{\"numberOfPages\": \"many\"}");
+            asyncValidationFilter.setTestResultId(testResultId);
+            csvFilter.setTestResultId(testResultId);
+            asyncValidationFilter.filterValidation(response, "/api/books/1", "GET"); // Does not throw, the response is validated in the background
+            csvFilter.exportTestResultToCSV(response, true, "none");
+        }
+
+        ResponseValidationFilter.awaitPendingValidations();
+
+        String testResultsFile = testDir + "/" + PropertyManager.readProperty("data.tests.testresults.file") + "_1.csv";
+        Map<String, TestResult> testResults = getTestResults(testResultsFile).stream().collect(Collectors.toMap(TestResult::getId, Function.identity()));
+        assertEquals(2, testResults.size());
+        assertTrue(testResults.get("valid").getPassed());
+        assertFalse(testResults.get("invalid").getPassed());
+        assertTrue(testResults.get("invalid").getFailReason().startsWith("OAS disconformity"));
+
+        deleteDir(testDir);
+    }
+
+    private static Response mockResponse(String body) {
+        Response response = mock(Response.class);
+        when(response.statusCode()).thenReturn(200);
+        when(response.contentType()).thenReturn("application/json");
+        when(response.asString()).thenReturn(body);
+        when(response.getHeaders()).thenReturn(new Headers(new Header("Content-Type", "application/json")));
+        return response;
+    }
 }